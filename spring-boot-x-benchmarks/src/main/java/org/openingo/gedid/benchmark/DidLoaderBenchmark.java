@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.gedid.benchmark;
+
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeIdEngine;
+import org.openingo.spring.boot.extension.gedid.loader.DidHandle;
+import org.openingo.spring.boot.extension.gedid.loader.DidLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DidLoaderBenchmark, the per call overhead of the loader over the raw engine
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DidLoaderBenchmark {
+
+    private static final String BUSINESS = "order";
+
+    private SnowflakeIdEngine engine;
+
+    private DidLoader didLoader;
+
+    private DidHandle<Long> handle;
+
+    @Setup
+    public void setup() {
+        this.engine = new SnowflakeIdEngine(1L, 1L, 16L);
+        SnowflakeIdEngine engine = this.engine;
+        this.didLoader = new DidLoader() {
+            {
+                this.addEngine(engine);
+            }
+        };
+        this.didLoader.follow(engine.engineName(), BUSINESS);
+        this.handle = this.didLoader.handle(BUSINESS);
+    }
+
+    @Benchmark
+    public Long engine() {
+        return this.engine.next(BUSINESS);
+    }
+
+    @Benchmark
+    public Long loaderNext() {
+        return this.didLoader.next(BUSINESS);
+    }
+
+    @Benchmark
+    public Long handleNext() {
+        return this.handle.next();
+    }
+
+    @Benchmark
+    public long handleNextLongId() {
+        return this.handle.nextLongId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DidLoaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
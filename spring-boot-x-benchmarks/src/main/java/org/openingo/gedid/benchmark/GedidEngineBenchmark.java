@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.gedid.benchmark;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.openingo.gedid.benchmark.standin.InMemoryEtcd;
+import org.openingo.gedid.benchmark.standin.MiniRedisServer;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.etcd.EtcdIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.redis.RedisIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.redis.RedisSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.uuid.UuidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.uuid.UuidV7Engine;
+import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperIdEngineMode;
+import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperSegmentIdEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GedidEngineBenchmark, the throughput and the latency percentiles of every engine,
+ * run the main method for 1/4/16/64 threads.
+ *
+ * the remote engines run against in-process stand-ins, no network and no docker:
+ * {@link MiniRedisServer} for redis, curator {@link TestingServer} for zookeeper
+ * and {@link InMemoryEtcd} for etcd.
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class GedidEngineBenchmark {
+
+    private static final String BUSINESS = "benchmark";
+
+    @Param({"snowflake", "uuid", "uuid7", "redis", "redis-segment", "zookeeper", "zookeeper-segment", "etcd"})
+    private String engineName;
+
+    private IDidEngine engine;
+
+    private MiniRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private TestingServer zookeeperServer;
+
+    private CuratorFramework curator;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        switch (this.engineName) {
+            case "snowflake":
+                this.engine = new SnowflakeIdEngine(1L, 1L, 16L);
+                break;
+            case "uuid":
+                this.engine = new UuidEngine();
+                break;
+            case "uuid7":
+                this.engine = new UuidV7Engine();
+                break;
+            case "redis":
+                this.engine = this.redisIdEngine();
+                break;
+            case "redis-segment":
+                this.engine = new RedisSegmentIdEngine(this.redisIdEngine(), 1000, 100000, 0.8D, Duration.ofMinutes(15));
+                break;
+            case "zookeeper":
+                this.engine = this.zookeeperIdEngine();
+                break;
+            case "zookeeper-segment":
+                this.engine = new ZookeeperSegmentIdEngine(this.zookeeperIdEngine(), 1000, 100000, 0.8D, Duration.ofMinutes(15));
+                break;
+            case "etcd":
+                this.engine = new EtcdIdEngine(new InMemoryEtcd().getClient());
+                break;
+            default:
+                throw new IllegalArgumentException(this.engineName);
+        }
+        this.engine.follow(BUSINESS, this.engine.getFixedStartId(null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (Objects.nonNull(this.connectionFactory)) {
+            this.connectionFactory.destroy();
+            this.redisServer.close();
+        }
+        if (Objects.nonNull(this.curator)) {
+            this.curator.close();
+            this.zookeeperServer.close();
+        }
+    }
+
+    @Benchmark
+    public Object next() {
+        return this.engine.next(BUSINESS);
+    }
+
+    private RedisIdEngine redisIdEngine() throws Exception {
+        this.redisServer = new MiniRedisServer();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(this.redisServer.getHost(), this.redisServer.getPort()));
+        this.connectionFactory.afterPropertiesSet();
+        return new RedisIdEngine(new StringRedisTemplate(this.connectionFactory));
+    }
+
+    private ZookeeperIdEngine zookeeperIdEngine() throws Exception {
+        this.zookeeperServer = new TestingServer(true);
+        this.curator = CuratorFrameworkFactory.newClient(this.zookeeperServer.getConnectString(), new ExponentialBackoffRetry(1000, 3));
+        this.curator.start();
+        this.curator.blockUntilConnected(30, TimeUnit.SECONDS);
+        return new ZookeeperIdEngine(this.curator, ZookeeperIdEngineMode.DATA_VERSION);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            new Runner(new OptionsBuilder()
+                    .include(GedidEngineBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("target/gedid-engines-%d-threads.json", threads))
+                    .build()).run();
+        }
+    }
+}
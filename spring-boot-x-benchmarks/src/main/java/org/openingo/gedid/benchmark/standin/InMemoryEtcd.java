@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.gedid.benchmark.standin;
+
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.Client;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.api.KeyValue;
+import io.etcd.jetcd.kv.PutResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InMemoryEtcd, an in-memory etcd {@link Client} fake for the benchmarks,
+ * only the {@link KV#put} used by the `etcd` engine: every put bumps the key version
+ * and returns the previous one. other calls throw {@link UnsupportedOperationException}.
+ *
+ * the numbers exclude the grpc round trip and the raft commit.
+ *
+ * @author Qicz
+ */
+public final class InMemoryEtcd {
+
+    private final Map<ByteSequence, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final KV kv = (KV) Proxy.newProxyInstance(KV.class.getClassLoader(), new Class<?>[]{KV.class}, (proxy, method, args) -> {
+        if ("put".equals(method.getName())) {
+            return this.put((ByteSequence) args[0]);
+        }
+        if ("close".equals(method.getName())) {
+            return null;
+        }
+        throw new UnsupportedOperationException(method.getName());
+    });
+
+    private final Client client = (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class}, (proxy, method, args) -> {
+        if ("getKVClient".equals(method.getName())) {
+            return this.kv;
+        }
+        if ("close".equals(method.getName())) {
+            return null;
+        }
+        throw new UnsupportedOperationException(method.getName());
+    });
+
+    public Client getClient() {
+        return this.client;
+    }
+
+    private CompletableFuture<PutResponse> put(ByteSequence key) {
+        long previous = this.versions.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
+        io.etcd.jetcd.api.PutResponse response = io.etcd.jetcd.api.PutResponse.newBuilder()
+                .setPrevKv(KeyValue.newBuilder().setVersion(previous))
+                .build();
+        return CompletableFuture.completedFuture(new PutResponse(response, ByteSequence.EMPTY));
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.gedid.benchmark.standin;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * MiniRedisServer, an in-process redis protocol (RESP2) server for the benchmarks,
+ * only the commands used by the gedid engines and the redis benchmarks: PING, GET, MGET, SET [NX|XX] [EX|PX], MSET, SETNX,
+ * INCR, INCRBY, DEL, HSET, HGET, HGETALL, HDEL, SADD, SMEMBERS, SREM, PUBLISH, SUBSCRIBE.
+ *
+ * no expiry, no persistence and one thread per connection, the numbers exclude the redis server cost.
+ * the values are kept as ISO-8859-1 strings, one char per byte, so the serialized values round trip.
+ *
+ * @author Qicz
+ */
+public class MiniRedisServer implements Closeable {
+
+    private static final Charset BYTES = StandardCharsets.ISO_8859_1;
+
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, String>> hashes = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<OutputStream>> subscribers = new ConcurrentHashMap<>();
+
+    private final ServerSocket serverSocket;
+
+    private final List<Socket> sockets = new ArrayList<>();
+
+    public MiniRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "mini-redis-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getHost() {
+        return this.serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                synchronized (this.sockets) {
+                    this.sockets.add(socket);
+                }
+                Thread worker = new Thread(() -> this.serve(socket), "mini-redis-" + socket.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                List<String> command = this.readCommand(in);
+                if (Objects.isNull(command)) {
+                    return;
+                }
+                // the published messages are written to the same stream
+                synchronized (out) {
+                    this.execute(command, out);
+                    // flush once the pipelined commands are drained
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        } catch (SocketException e) {
+            // closed
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void execute(List<String> command, OutputStream out) throws IOException {
+        String name = command.get(0).toUpperCase();
+        switch (name) {
+            case "PING":
+                this.simple(out, "PONG");
+                break;
+            case "SELECT":
+            case "CLIENT":
+                this.simple(out, "OK");
+                break;
+            case "GET":
+                this.bulk(out, this.data.get(command.get(1)));
+                break;
+            case "MGET":
+                List<String> values = new ArrayList<>(command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    values.add(this.data.get(command.get(i)));
+                }
+                this.array(out, values);
+                break;
+            case "MSET":
+                for (int i = 1; i + 1 < command.size(); i += 2) {
+                    this.data.put(command.get(i), command.get(i + 1));
+                }
+                this.simple(out, "OK");
+                break;
+            case "SETNX":
+                this.integer(out, Objects.isNull(this.data.putIfAbsent(command.get(1), command.get(2))) ? 1L : 0L);
+                break;
+            case "SET":
+                this.set(command, out);
+                break;
+            case "INCR":
+                this.incrBy(command.get(1), 1L, out);
+                break;
+            case "INCRBY":
+                this.incrBy(command.get(1), Long.parseLong(command.get(2)), out);
+                break;
+            case "DEL":
+                long deleted = 0L;
+                for (int i = 1; i < command.size(); i++) {
+                    String key = command.get(i);
+                    if (Objects.nonNull(this.data.remove(key)) | Objects.nonNull(this.hashes.remove(key)) | Objects.nonNull(this.sets.remove(key))) {
+                        deleted++;
+                    }
+                }
+                this.integer(out, deleted);
+                break;
+            case "HSET":
+            case "HMSET":
+                Map<String, String> hash = this.hashes.computeIfAbsent(command.get(1), k -> new ConcurrentHashMap<>());
+                long added = 0L;
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (Objects.isNull(hash.put(command.get(i), command.get(i + 1)))) {
+                        added++;
+                    }
+                }
+                if ("HMSET".equals(name)) {
+                    this.simple(out, "OK");
+                } else {
+                    this.integer(out, added);
+                }
+                break;
+            case "HGET":
+                this.bulk(out, this.hashes.getOrDefault(command.get(1), Collections.emptyMap()).get(command.get(2)));
+                break;
+            case "HGETALL":
+                List<String> entries = new ArrayList<>();
+                this.hashes.getOrDefault(command.get(1), Collections.emptyMap()).forEach((field, value) -> {
+                    entries.add(field);
+                    entries.add(value);
+                });
+                this.array(out, entries);
+                break;
+            case "HDEL":
+                this.integer(out, this.remove(this.hashes.getOrDefault(command.get(1), Collections.emptyMap()).keySet(), command));
+                break;
+            case "SADD":
+                Set<String> set = this.sets.computeIfAbsent(command.get(1), k -> ConcurrentHashMap.newKeySet());
+                this.integer(out, command.subList(2, command.size()).stream().filter(set::add).count());
+                break;
+            case "SMEMBERS":
+                this.array(out, new ArrayList<>(this.sets.getOrDefault(command.get(1), Collections.emptySet())));
+                break;
+            case "SREM":
+                this.integer(out, this.remove(this.sets.getOrDefault(command.get(1), Collections.emptySet()), command));
+                break;
+            case "SUBSCRIBE":
+                for (int i = 1; i < command.size(); i++) {
+                    this.subscribers.computeIfAbsent(command.get(i), k -> new CopyOnWriteArraySet<>()).add(out);
+                    out.write(("*3\r\n").getBytes(BYTES));
+                    this.bulk(out, "subscribe");
+                    this.bulk(out, command.get(i));
+                    this.integer(out, i);
+                }
+                break;
+            case "PUBLISH":
+                this.integer(out, this.publish(command.get(1), command.get(2)));
+                break;
+            default:
+                this.error(out, "ERR unknown command '" + command.get(0) + "'");
+        }
+    }
+
+    private void set(List<String> command, OutputStream out) throws IOException {
+        String key = command.get(1);
+        String value = command.get(2);
+        boolean nx = false;
+        boolean xx = false;
+        for (int i = 3; i < command.size(); i++) {
+            String option = command.get(i).toUpperCase();
+            if ("NX".equals(option)) {
+                nx = true;
+            } else if ("XX".equals(option)) {
+                xx = true;
+            } else if ("EX".equals(option) || "PX".equals(option)) {
+                // no expiry
+                i++;
+            }
+        }
+        boolean written;
+        if (nx) {
+            written = Objects.isNull(this.data.putIfAbsent(key, value));
+        } else if (xx) {
+            written = Objects.nonNull(this.data.computeIfPresent(key, (k, v) -> value));
+        } else {
+            this.data.put(key, value);
+            written = true;
+        }
+        if (written) {
+            this.simple(out, "OK");
+        } else {
+            this.bulk(out, null);
+        }
+    }
+
+    private void incrBy(String key, long delta, OutputStream out) throws IOException {
+        try {
+            String value = this.data.compute(key, (k, v) -> Long.toString((Objects.isNull(v) ? 0L : Long.parseLong(v)) + delta));
+            this.integer(out, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            this.error(out, "ERR value is not an integer or out of range");
+        }
+    }
+
+    private long remove(Set<String> from, List<String> command) {
+        long removed = 0L;
+        for (int i = 2; i < command.size(); i++) {
+            if (from.remove(command.get(i))) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private long publish(String channel, String message) {
+        Set<OutputStream> outs = this.subscribers.getOrDefault(channel, Collections.emptySet());
+        long received = 0L;
+        for (OutputStream out : outs) {
+            try {
+                synchronized (out) {
+                    out.write(("*3\r\n").getBytes(BYTES));
+                    this.bulk(out, "message");
+                    this.bulk(out, channel);
+                    this.bulk(out, message);
+                    out.flush();
+                }
+                received++;
+            } catch (IOException e) {
+                // the subscriber is gone
+                outs.remove(out);
+            }
+        }
+        return received;
+    }
+
+    private List<String> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("unsupported request type " + (char) type);
+        }
+        int count = Integer.parseInt(this.readLine(in));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("bulk string expected");
+            }
+            int length = Integer.parseInt(this.readLine(in));
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = in.read(bytes, read, length - read);
+                if (n == -1) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            // CRLF
+            in.read();
+            in.read();
+            command.add(new String(bytes, BYTES));
+        }
+        return command;
+    }
+
+    private String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        // LF
+        in.read();
+        return line.toString();
+    }
+
+    private void simple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(BYTES));
+    }
+
+    private void error(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(BYTES));
+    }
+
+    private void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(BYTES));
+    }
+
+    private void array(OutputStream out, List<String> values) throws IOException {
+        out.write(("*" + values.size() + "\r\n").getBytes(BYTES));
+        for (String value : values) {
+            this.bulk(out, value);
+        }
+    }
+
+    private void bulk(OutputStream out, String value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.write("$-1\r\n".getBytes(BYTES));
+            return;
+        }
+        byte[] bytes = value.getBytes(BYTES);
+        out.write(("$" + bytes.length + "\r\n").getBytes(BYTES));
+        out.write(bytes);
+        out.write("\r\n".getBytes(BYTES));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        synchronized (this.sockets) {
+            for (Socket socket : this.sockets) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.redis.benchmark;
+
+import org.openingo.gedid.benchmark.standin.MiniRedisServer;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.pipeline.RedisAutoPipeline;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoPipelineBenchmark, one request/response per command against the
+ * {@link RedisAutoPipeline}, run the main method for 1/16/64 threads.
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoPipelineBenchmark {
+
+    private static final String KEY = "auto-pipeline";
+
+    private MiniRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisTemplateX<String, Object> template;
+
+    private RedisAutoPipeline<String, Object> autoPipeline;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.redisServer = new MiniRedisServer();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(this.redisServer.getHost(), this.redisServer.getPort()));
+        this.connectionFactory.afterPropertiesSet();
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(this.connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.afterPropertiesSet();
+        this.template = new RedisTemplateX<>(redisTemplate);
+        this.autoPipeline = new RedisAutoPipeline<>(this.template, 256, Duration.ZERO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.autoPipeline.destroy();
+        this.connectionFactory.destroy();
+        this.redisServer.close();
+    }
+
+    @Benchmark
+    public Object directIncr() {
+        return this.template.incr(KEY);
+    }
+
+    @Benchmark
+    public Object autoPipelinedIncr() {
+        return this.autoPipeline.incr(KEY).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 16, 64}) {
+            new Runner(new OptionsBuilder()
+                    .include(AutoPipelineBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("target/auto-pipeline-%d-threads.json", threads))
+                    .build()).run();
+        }
+    }
+}
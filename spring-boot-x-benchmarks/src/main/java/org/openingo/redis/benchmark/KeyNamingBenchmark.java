@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.redis.benchmark;
+
+import org.openingo.gedid.benchmark.standin.MiniRedisServer;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.naming.CachedPrefixKeyNamingPolicy;
+import org.openingo.spring.boot.extension.data.redis.naming.DefaultKeyNamingPolicy;
+import org.openingo.spring.boot.extension.data.redis.naming.IKeyNamingPolicy;
+import org.openingo.spring.boot.extension.data.redis.naming.KeyNamingKit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KeyNamingBenchmark, the {@code mGet} of 10k named keys and the naming alone,
+ * with the {@link DefaultKeyNamingPolicy} and the {@link CachedPrefixKeyNamingPolicy},
+ * run the main method for the gc profiler numbers (bytes allocated per operation).
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyNamingBenchmark {
+
+    private static final String NAMING = "benchmark";
+
+    @Param({"default", "cached-prefix"})
+    private String policy;
+
+    @Param({"10000"})
+    private int keyCount;
+
+    private MiniRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private IKeyNamingPolicy keyNamingPolicy;
+
+    private RedisTemplateX<String, Object> template;
+
+    private List<String> keys;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.redisServer = new MiniRedisServer();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(this.redisServer.getHost(), this.redisServer.getPort()));
+        this.connectionFactory.afterPropertiesSet();
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(this.connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.string());
+        redisTemplate.afterPropertiesSet();
+        this.keyNamingPolicy = "default".equals(this.policy) ? new DefaultKeyNamingPolicy() : new CachedPrefixKeyNamingPolicy();
+        this.template = new RedisTemplateX<>(redisTemplate);
+        // the keyNamingPolicy is autowired in the applications
+        Field keyNamingPolicyField = ReflectionUtils.findField(RedisTemplateX.class, "keyNamingPolicy");
+        ReflectionUtils.makeAccessible(keyNamingPolicyField);
+        ReflectionUtils.setField(keyNamingPolicyField, this.template, this.keyNamingPolicy);
+
+        this.keys = new ArrayList<>(this.keyCount);
+        Map<String, Object> values = new HashMap<>(this.keyCount * 2);
+        for (int i = 0; i < this.keyCount; i++) {
+            String key = "user:" + i;
+            this.keys.add(key);
+            values.put(key, String.valueOf(i));
+        }
+        KeyNamingKit.set(NAMING);
+        try {
+            this.template.mSet(values);
+        } finally {
+            KeyNamingKit.remove();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.connectionFactory.destroy();
+        this.redisServer.close();
+    }
+
+    @Benchmark
+    public List<Object> mGet() {
+        KeyNamingKit.set(NAMING);
+        try {
+            return this.template.mGet(this.keys);
+        } finally {
+            KeyNamingKit.remove();
+        }
+    }
+
+    @Benchmark
+    public void rawKeyNames(Blackhole blackhole) {
+        KeyNamingKit.set(NAMING);
+        try {
+            for (String key : this.keys) {
+                blackhole.consume(this.keyNamingPolicy.getRawKeyName(key));
+            }
+        } finally {
+            KeyNamingKit.remove();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeyNamingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/key-naming.json")
+                .build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.redis.benchmark;
+
+import org.openingo.gedid.benchmark.standin.MiniRedisServer;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.nearcache.ChannelNearCacheInvalidator;
+import org.openingo.spring.boot.extension.data.redis.nearcache.NearCache;
+import org.openingo.spring.boot.extension.data.redis.nearcache.NearCacheRedisTemplateX;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NearCacheBenchmark, the reads of {@link RedisTemplateX} against the
+ * {@link NearCacheRedisTemplateX}, all reads and one write every ten reads.
+ *
+ * runs against the {@link MiniRedisServer} stand-in with the channel invalidation,
+ * the setup checks that a write through the template is seen by the next read.
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearCacheBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private static final String CHANNEL = "benchmark:near-cache:invalidate";
+
+    @Param({"remote", "near-cache"})
+    private String templateName;
+
+    private MiniRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisTemplateX<String, Object> template;
+
+    private String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.redisServer = new MiniRedisServer();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(this.redisServer.getHost(), this.redisServer.getPort()));
+        this.connectionFactory.afterPropertiesSet();
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(this.connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.afterPropertiesSet();
+        if ("near-cache".equals(this.templateName)) {
+            NearCache nearCache = new NearCache(KEYS * 2, Duration.ofMinutes(1));
+            this.template = new NearCacheRedisTemplateX<>(redisTemplate, nearCache, new ChannelNearCacheInvalidator(this.connectionFactory, CHANNEL));
+        } else {
+            this.template = new RedisTemplateX<>(redisTemplate);
+        }
+        this.keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = "near-cache:" + i;
+            this.template.set(this.keys[i], "value-" + i);
+        }
+        this.template.get(this.keys[0]);
+        this.template.set(this.keys[0], "value-0-changed");
+        if (!"value-0-changed".equals(this.template.get(this.keys[0]))) {
+            throw new IllegalStateException("the write is not seen by the next read");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (this.template instanceof NearCacheRedisTemplateX) {
+            ((NearCacheRedisTemplateX<String, Object>) this.template).destroy();
+        }
+        if (Objects.nonNull(this.connectionFactory)) {
+            this.connectionFactory.destroy();
+            this.redisServer.close();
+        }
+    }
+
+    @Benchmark
+    public Object get(Cursor cursor) {
+        return this.template.get(this.keys[cursor.next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public Object readMostly(Cursor cursor) {
+        int next = cursor.next++;
+        String key = this.keys[next & (KEYS - 1)];
+        if (next % 10 == 0) {
+            this.template.set(key, "value-" + next);
+            return key;
+        }
+        return this.template.get(key);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16}) {
+            new Runner(new OptionsBuilder()
+                    .include(NearCacheBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("target/near-cache-%d-threads.json", threads))
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.redis.benchmark;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.openingo.spring.boot.extension.data.redis.serializer.FstRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.JacksonRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.KryoRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.ProtobufRedisSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SerializerBenchmark, the value serializers on an order of 10 items with its attributes,
+ * the protobuf serializer on the same order as a {@code google.protobuf.Struct},
+ * run the main method for the serialized sizes and 1/16 threads.
+ *
+ * @author Qicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"fst", "kryo", "smile", "cbor", "protobuf"})
+    private String serializer;
+
+    private RedisSerializer<Object> redisSerializer;
+
+    private Object payload;
+
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.redisSerializer = serializer(this.serializer);
+        this.payload = payload(this.serializer);
+        this.bytes = this.redisSerializer.serialize(this.payload);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return this.redisSerializer.serialize(this.payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return this.redisSerializer.deserialize(this.bytes);
+    }
+
+    private static RedisSerializer<Object> serializer(String name) {
+        switch (name) {
+            case "kryo":
+                return new KryoRedisSerializer<>(Arrays.asList(Order.class, OrderItem.class, ArrayList.class, HashMap.class));
+            case "smile":
+                return JacksonRedisSerializer.smile(Collections.singletonList(SerializerBenchmark.class.getPackage().getName()));
+            case "cbor":
+                return JacksonRedisSerializer.cbor(Collections.singletonList(SerializerBenchmark.class.getPackage().getName()));
+            case "protobuf":
+                return new ProtobufRedisSerializer<>(Collections.singletonList(Struct.class));
+            default:
+                return new FstRedisSerializer<>();
+        }
+    }
+
+    private static Object payload(String serializer) {
+        Order order = order();
+        return "protobuf".equals(serializer) ? struct(order) : order;
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.id = 1_234_567_890_123L;
+        order.customer = "customer-8848";
+        order.address = "No. 1 Openingo Road, Chengdu, Sichuan, China";
+        order.createdAt = 1_625_000_000_000L;
+        order.paid = true;
+        for (int i = 0; i < 10; i++) {
+            OrderItem item = new OrderItem();
+            item.sku = "SKU-" + (100_000 + i);
+            item.name = "item of the order number " + i;
+            item.quantity = i + 1;
+            item.priceCents = 1_999L * (i + 1);
+            order.items.add(item);
+        }
+        order.attributes.put("channel", "app");
+        order.attributes.put("coupon", "SPRING-2021");
+        order.attributes.put("remark", "leave it at the door");
+        return order;
+    }
+
+    private static Struct struct(Order order) {
+        ListValue.Builder items = ListValue.newBuilder();
+        for (OrderItem item : order.items) {
+            items.addValues(Value.newBuilder().setStructValue(Struct.newBuilder()
+                    .putFields("sku", Value.newBuilder().setStringValue(item.sku).build())
+                    .putFields("name", Value.newBuilder().setStringValue(item.name).build())
+                    .putFields("quantity", Value.newBuilder().setNumberValue(item.quantity).build())
+                    .putFields("priceCents", Value.newBuilder().setNumberValue(item.priceCents).build())));
+        }
+        Struct.Builder attributes = Struct.newBuilder();
+        order.attributes.forEach((name, value) -> attributes.putFields(name, Value.newBuilder().setStringValue(value).build()));
+        return Struct.newBuilder()
+                .putFields("id", Value.newBuilder().setNumberValue(order.id).build())
+                .putFields("customer", Value.newBuilder().setStringValue(order.customer).build())
+                .putFields("address", Value.newBuilder().setStringValue(order.address).build())
+                .putFields("createdAt", Value.newBuilder().setNumberValue(order.createdAt).build())
+                .putFields("paid", Value.newBuilder().setBoolValue(order.paid).build())
+                .putFields("items", Value.newBuilder().setListValue(items).build())
+                .putFields("attributes", Value.newBuilder().setStructValue(attributes).build())
+                .build();
+    }
+
+    public static class Order implements Serializable {
+
+        public long id;
+
+        public String customer;
+
+        public String address;
+
+        public long createdAt;
+
+        public boolean paid;
+
+        public List<OrderItem> items = new ArrayList<>();
+
+        public Map<String, String> attributes = new HashMap<>();
+    }
+
+    public static class OrderItem implements Serializable {
+
+        public String sku;
+
+        public String name;
+
+        public int quantity;
+
+        public long priceCents;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String name : new String[]{"fst", "kryo", "smile", "cbor", "protobuf"}) {
+            System.out.printf("%-10s %5d bytes%n", name, serializer(name).serialize(payload(name)).length);
+        }
+        for (int threads : new int[]{1, 16}) {
+            new Runner(new OptionsBuilder()
+                    .include(SerializerBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("target/serializers-%d-threads.json", threads))
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.nearcache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openingo.spring.boot.extension.data.redis.nearcache.TrackingNearCacheInvalidator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TrackingNearCacheInvalidatorTest, needs a redis 6 on localhost:6379
+ *
+ * @author Qicz
+ * @since 2021/9/13 10:20
+ */
+public class TrackingNearCacheInvalidatorTest {
+
+	@Test
+	public void testBatchedInvalidations() throws InterruptedException {
+		RedisURI redisURI = RedisURI.create("localhost", 6379);
+		Set<String> invalidated = ConcurrentHashMap.newKeySet();
+		AtomicInteger resets = new AtomicInteger();
+		TrackingNearCacheInvalidator invalidator = new TrackingNearCacheInvalidator(redisURI, Collections.singletonList("near-cache-test:"));
+		RedisClient client = RedisClient.create(redisURI);
+		try (StatefulRedisConnection<String, String> connection = client.connect()) {
+			invalidator.subscribe(key -> invalidated.add(new String(key, StandardCharsets.UTF_8)), resets::incrementAndGet);
+			int baseResets = resets.get();
+			// the keys of one MULTI are invalidated in one event loop iteration, one message
+			RedisCommands<String, String> commands = connection.sync();
+			commands.multi();
+			for (int i = 0; i < 5; i++) {
+				commands.set("near-cache-test:" + i, String.valueOf(i));
+			}
+			commands.exec();
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (invalidated.size() < 5 && System.nanoTime() < deadline) {
+				TimeUnit.MILLISECONDS.sleep(10);
+			}
+			for (int i = 0; i < 5; i++) {
+				Assert.assertTrue("near-cache-test:" + i + " not invalidated", invalidated.contains("near-cache-test:" + i));
+			}
+			Assert.assertEquals("the batch must be decoded, not reset", baseResets, resets.get());
+		} finally {
+			invalidator.close();
+			client.shutdown();
+		}
+	}
+}
@@ -41,6 +41,21 @@ public final class PropertiesConstants {
      */
     public static final String REDIS_CONFIG_PROPERTIES_PREFIX = "openingo.redis";
 
+    /**
+     *  redis near cache config properties prefix
+     */
+    public static final String REDIS_NEAR_CACHE_CONFIG_PROPERTIES_PREFIX = REDIS_CONFIG_PROPERTIES_PREFIX + ".near-cache";
+
+    /**
+     *  redis auto pipeline config properties prefix
+     */
+    public static final String REDIS_AUTO_PIPELINE_CONFIG_PROPERTIES_PREFIX = REDIS_CONFIG_PROPERTIES_PREFIX + ".auto-pipeline";
+
+    /**
+     *  redis reactive and async templates config properties prefix
+     */
+    public static final String REDIS_REACTIVE_CONFIG_PROPERTIES_PREFIX = REDIS_CONFIG_PROPERTIES_PREFIX + ".reactive";
+
     /**
      * http configs
      */
@@ -91,6 +106,26 @@ public final class PropertiesConstants {
      */
     public static final String GEDID_ENGINE_ETCD_CONFIG_PROPERTIES_PREFIX = GEDID_ENGINE_CONFIG_PROPERTIES_PREFIX + "etcd";
 
+    /**
+     * gedid snowflake id engine config properties
+     */
+    public static final String GEDID_ENGINE_SNOWFLAKE_CONFIG_PROPERTIES_PREFIX = GEDID_ENGINE_CONFIG_PROPERTIES_PREFIX + "snowflake";
+
+    /**
+     * gedid failover id engine config properties
+     */
+    public static final String GEDID_ENGINE_FAILOVER_CONFIG_PROPERTIES_PREFIX = GEDID_ENGINE_CONFIG_PROPERTIES_PREFIX + "failover";
+
+    /**
+     * gedid metrics config properties
+     */
+    public static final String GEDID_METRICS_CONFIG_PROPERTIES_PREFIX = "openingo.gedid.metrics";
+
+    /**
+     * gedid segment high-water mark config properties
+     */
+    public static final String GEDID_HIGH_WATER_MARK_CONFIG_PROPERTIES_PREFIX = "openingo.gedid.high-water-mark";
+
     /**
      * enable
      */
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.cachex;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openingo.jdkits.lang.StrKit;
+import org.openingo.spring.boot.extension.cachex.annotation.CacheEvictX;
+import org.openingo.spring.boot.extension.cachex.annotation.CacheX;
+import org.openingo.spring.boot.extension.cachex.store.CacheXStore;
+import org.openingo.spring.boot.extension.cachex.store.CacheXValue;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CacheXAspect, cache aside of the {@link CacheX} methods.
+ *
+ * the concurrent misses of one key in this node wait for the first caller's method call,
+ * the method exceptions are thrown to all of them and not cached.
+ * a hit is refreshed before it expires with the probability of the XFetch
+ * (now - delta * beta * ln(random) >= expireAt), more often as the expiry nears and for
+ * the slower loads, the others keep the cached result meanwhile.
+ *
+ * @author Qicz
+ */
+@Aspect
+@Slf4j
+public class CacheXAspect {
+
+	private final CacheXStore cacheXStore;
+
+	private final ConcurrentMap<String, CompletableFuture<CacheXValue>> loadings = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Expression> expressions = new ConcurrentHashMap<>();
+
+	// the argument types overriding toString, usable in the default keys
+	private final ConcurrentMap<Class<?>, Boolean> keyTypes = new ConcurrentHashMap<>();
+
+	public CacheXAspect(CacheXStore cacheXStore) {
+		this.cacheXStore = cacheXStore;
+	}
+
+	@Pointcut("@annotation(org.openingo.spring.boot.extension.cachex.annotation.CacheX)")
+	public void cacheXPointcut() {
+	}
+
+	@Pointcut("@annotation(org.openingo.spring.boot.extension.cachex.annotation.CacheEvictX)")
+	public void cacheEvictXPointcut() {
+	}
+
+	@Around("cacheXPointcut()&&@annotation(cacheX)")
+	public Object cacheXExecute(ProceedingJoinPoint joinPoint, CacheX cacheX) throws Throwable {
+		Method targetMethod = ((MethodSignature)joinPoint.getSignature()).getMethod();
+		Object[] args = joinPoint.getArgs();
+		String name = StrKit.notBlank(cacheX.name()) ? cacheX.name() : targetMethod.getDeclaringClass().getName() + "." + targetMethod.getName();
+		String cacheKey = this.getCacheKey(name, cacheX.keyEl(), joinPoint.getTarget(), targetMethod, args);
+
+		CacheXValue cached = this.cacheXStore.get(cacheKey);
+		if (Objects.nonNull(cached) && !this.refreshEarly(cached, cacheX.earlyRefreshBeta())) {
+			return cached.getValue();
+		}
+		return this.load(cacheKey, cached, joinPoint, args, cacheX).getValue();
+	}
+
+	@Around("cacheEvictXPointcut()&&@annotation(cacheEvictX)")
+	public Object cacheEvictXExecute(ProceedingJoinPoint joinPoint, CacheEvictX cacheEvictX) throws Throwable {
+		Method targetMethod = ((MethodSignature)joinPoint.getSignature()).getMethod();
+		Object[] args = joinPoint.getArgs();
+		Assert.hasText(cacheEvictX.name(), "cache name is empty");
+		String cacheKey = this.getCacheKey(cacheEvictX.name(), cacheEvictX.keyEl(), joinPoint.getTarget(), targetMethod, args);
+		Object result = joinPoint.proceed(args);
+		log.info("evict cache key {}", cacheKey);
+		this.cacheXStore.evict(cacheKey);
+		return result;
+	}
+
+	private CacheXValue load(String cacheKey, CacheXValue cached, ProceedingJoinPoint joinPoint, Object[] args, CacheX cacheX) throws Throwable {
+		CompletableFuture<CacheXValue> loading = new CompletableFuture<>();
+		CompletableFuture<CacheXValue> inFlight = this.loadings.putIfAbsent(cacheKey, loading);
+		if (Objects.nonNull(inFlight)) {
+			// refreshing by another caller, keep the cached one
+			if (Objects.nonNull(cached)) {
+				return cached;
+			}
+			return join(inFlight);
+		}
+		try {
+			long start = System.currentTimeMillis();
+			Object value = joinPoint.proceed(args);
+			long now = System.currentTimeMillis();
+			long expireSeconds = Objects.isNull(value) ? cacheX.nullExpireSeconds() : cacheX.expireSeconds();
+			CacheXValue loaded = new CacheXValue(value, now - start, now + TimeUnit.SECONDS.toMillis(expireSeconds));
+			if (expireSeconds > 0) {
+				this.cacheXStore.put(cacheKey, loaded, expireSeconds);
+			}
+			loading.complete(loaded);
+			return loaded;
+		} catch (Throwable e) {
+			loading.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.loadings.remove(cacheKey, loading);
+		}
+	}
+
+	private boolean refreshEarly(CacheXValue cached, double beta) {
+		if (beta <= 0) {
+			return false;
+		}
+		double gap = -cached.getDelta() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+		return System.currentTimeMillis() + gap >= cached.getExpireAt();
+	}
+
+	private static CacheXValue join(CompletableFuture<CacheXValue> inFlight) throws Throwable {
+		try {
+			return inFlight.get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	private String getCacheKey(String name, String keyEl, Object target, Method targetMethod, Object[] args) {
+		String key;
+		if (StrKit.notBlank(keyEl)) {
+			MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, targetMethod, args, DISCOVERER);
+			Expression expression = this.expressions.computeIfAbsent(keyEl, PARSER::parseExpression);
+			key = expression.getValue(context, String.class);
+			Assert.hasText(key, "cache key is empty");
+		} else {
+			for (Object arg : args) {
+				this.checkKeyArgument(arg, targetMethod);
+			}
+			key = Arrays.deepToString(args);
+		}
+		return name + KEY_SPACER + key;
+	}
+
+	/**
+	 * the default key is the text of the arguments, an identity toString would make a new key per call
+	 */
+	private void checkKeyArgument(Object arg, Method targetMethod) {
+		if (Objects.isNull(arg) || arg.getClass().isPrimitive()) {
+			return;
+		}
+		if (arg instanceof Object[]) {
+			for (Object element : (Object[]) arg) {
+				this.checkKeyArgument(element, targetMethod);
+			}
+			return;
+		}
+		if (arg.getClass().isArray()) {
+			// the primitive arrays
+			return;
+		}
+		if (arg instanceof Collection) {
+			for (Object element : (Collection<?>) arg) {
+				this.checkKeyArgument(element, targetMethod);
+			}
+			return;
+		}
+		if (arg instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) arg).entrySet()) {
+				this.checkKeyArgument(entry.getKey(), targetMethod);
+				this.checkKeyArgument(entry.getValue(), targetMethod);
+			}
+			return;
+		}
+		if (!this.keyTypes.computeIfAbsent(arg.getClass(), CacheXAspect::overridesToString)) {
+			throw new IllegalStateException(String.format("the argument type `%s` of `%s` does not override toString, set the keyEl of the cache",
+					arg.getClass().getName(), targetMethod));
+		}
+	}
+
+	private static boolean overridesToString(Class<?> type) {
+		try {
+			return Object.class != type.getMethod("toString").getDeclaringClass();
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private static final String KEY_SPACER = ":";
+
+	private static final ExpressionParser PARSER = new SpelExpressionParser();
+
+	private static final ParameterNameDiscoverer DISCOVERER = new DefaultParameterNameDiscoverer();
+}
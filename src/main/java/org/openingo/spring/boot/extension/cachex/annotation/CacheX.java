@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.cachex.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * CacheX, caches the method result in redis, the concurrent misses of one key
+ * share one method call, the hot keys are refreshed before they expire.
+ *
+ * @author Qicz
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheX {
+
+	/**
+	 * the cache name, default the class and the method names
+	 */
+	String name() default "";
+
+	/**
+	 * the key spring el, default the text of all the arguments ({@code Arrays.deepToString}),
+	 * required when an argument type does not override {@code toString}: the call fails
+	 * instead of writing a new key per identity
+	 */
+	String keyEl() default "";
+
+	/**
+	 * expire seconds
+	 */
+	long expireSeconds() default 300L;
+
+	/**
+	 * expire seconds of the null results, 0 not caching the null results
+	 */
+	long nullExpireSeconds() default 60L;
+
+	/**
+	 * the early refresh beta, a larger beta refreshes earlier, 0 no early refresh
+	 */
+	double earlyRefreshBeta() default 1.0D;
+}
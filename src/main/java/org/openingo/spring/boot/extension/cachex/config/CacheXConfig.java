@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.cachex.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.openingo.spring.boot.constants.Constants;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.openingo.spring.boot.extension.cachex.CacheXAspect;
+import org.openingo.spring.boot.extension.cachex.store.CacheXStore;
+import org.openingo.spring.boot.extension.data.redis.RedisStringKeyTemplateX;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * CacheXConfig
+ *
+ * @author Qicz
+ */
+@Configuration
+@ConditionalOnClass({ ProceedingJoinPoint.class, RedisTemplate.class })
+@ConditionalOnProperty(
+		prefix = PropertiesConstants.REDIS_CONFIG_PROPERTIES_PREFIX,
+		name = PropertiesConstants.ENABLE,
+		havingValue = Constants.TRUE,
+		matchIfMissing = true // with the redis extension
+)
+public class CacheXConfig {
+
+	@Bean
+	public CacheXAspect cacheXAspect(RedisStringKeyTemplateX<Object> redisStringKeyTemplateX) {
+		return new CacheXAspect(new CacheXStore(redisStringKeyTemplateX));
+	}
+}
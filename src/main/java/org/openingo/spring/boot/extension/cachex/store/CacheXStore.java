@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.cachex.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.extension.data.redis.RedisStringKeyTemplateX;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * CacheXStore, a redis outage is a cache miss, the results are loaded by the methods
+ *
+ * @author Qicz
+ */
+@Slf4j
+public class CacheXStore {
+
+	private final RedisStringKeyTemplateX<Object> redisStringKeyTemplateX;
+
+	public CacheXStore(RedisStringKeyTemplateX<Object> redisStringKeyTemplateX) {
+		this.redisStringKeyTemplateX = redisStringKeyTemplateX;
+	}
+
+	public CacheXValue get(String cacheKey) {
+		try {
+			Object cached = this.redisStringKeyTemplateX.get(key(cacheKey));
+			return cached instanceof CacheXValue ? (CacheXValue) cached : null;
+		} catch (DataAccessException | SerializationException e) {
+			log.warn("get cache key {} error, as a miss, {}", cacheKey, e.getMessage());
+			return null;
+		}
+	}
+
+	public void put(String cacheKey, CacheXValue value, long expireSeconds) {
+		try {
+			this.redisStringKeyTemplateX.setEx(key(cacheKey), expireSeconds, value);
+		} catch (DataAccessException | SerializationException e) {
+			log.warn("put cache key {} error, {}", cacheKey, e.getMessage());
+		}
+	}
+
+	public void evict(String cacheKey) {
+		this.redisStringKeyTemplateX.del(key(cacheKey));
+	}
+
+	private String key(String cacheKey) {
+		return String.format("CacheX:%s", cacheKey);
+	}
+}
@@ -0,0 +1,547 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis;
+
+import org.openingo.spring.boot.extension.data.redis.naming.IKeyNamingPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.geo.*;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * ReactiveRedisTemplateX, the non blocking counterpart of {@link RedisTemplateX},
+ * on the lettuce reactive API through {@link ReactiveRedisTemplate}.
+ *
+ * the keys are named by the {@link IKeyNamingPolicy} when the command is called,
+ * on the caller thread, as {@link RedisTemplateX} does, not when it is subscribed.
+ *
+ * @author Qicz
+ * @since 2021/9/10 16:00
+ */
+@SuppressWarnings("unchecked")
+public class ReactiveRedisTemplateX<K, V> {
+
+    private final ReactiveRedisTemplate<K, V> reactiveRedisTemplate;
+
+    @Autowired
+    private IKeyNamingPolicy keyNamingPolicy;
+
+    public ReactiveRedisTemplateX(ReactiveRedisTemplate<K, V> reactiveRedisTemplate) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+    }
+
+    public ReactiveRedisTemplate<K, V> getReactiveRedisTemplate() {
+        return this.reactiveRedisTemplate;
+    }
+
+    protected K namingKey(K key) {
+        if (Objects.nonNull(this.keyNamingPolicy) && key instanceof String) {
+            return (K) this.keyNamingPolicy.getKeyName(key.toString());
+        }
+        return key;
+    }
+
+    private Collection<K> namingKeys(Collection<K> keys) {
+        List<K> named = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            named.add(this.namingKey(key));
+        }
+        return named;
+    }
+
+    private K[] namingKeys(K... keys) {
+        Object[] named = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            named[i] = this.namingKey(keys[i]);
+        }
+        return (K[]) named;
+    }
+
+    private ReactiveValueOperations<K, V> opsForValue() {
+        return this.reactiveRedisTemplate.opsForValue();
+    }
+
+    private <HK, HV> ReactiveHashOperations<K, HK, HV> opsForHash() {
+        return this.reactiveRedisTemplate.opsForHash();
+    }
+
+    private ReactiveListOperations<K, V> opsForList() {
+        return this.reactiveRedisTemplate.opsForList();
+    }
+
+    private ReactiveSetOperations<K, V> opsForSet() {
+        return this.reactiveRedisTemplate.opsForSet();
+    }
+
+    private ReactiveZSetOperations<K, V> opsForZSet() {
+        return this.reactiveRedisTemplate.opsForZSet();
+    }
+
+    // value, see IValueCommands
+
+    public Mono<Boolean> set(K key, V value) {
+        return this.opsForValue().set(this.namingKey(key), value);
+    }
+
+    public Mono<Boolean> setEx(K key, long timeoutSeconds, V value) {
+        return this.opsForValue().set(this.namingKey(key), value, Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<Boolean> setNx(K key, V value) {
+        return this.opsForValue().setIfAbsent(this.namingKey(key), value);
+    }
+
+    public Mono<Boolean> setNx(K key, V value, long timeoutSeconds) {
+        return this.opsForValue().setIfAbsent(this.namingKey(key), value, Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<Boolean> setXx(K key, V value) {
+        return this.opsForValue().setIfPresent(this.namingKey(key), value);
+    }
+
+    public Mono<Boolean> setXx(K key, V value, long timeoutSeconds) {
+        return this.opsForValue().setIfPresent(this.namingKey(key), value, Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<V> get(K key) {
+        return this.opsForValue().get(this.namingKey(key));
+    }
+
+    public Mono<V> getSet(K key, V value) {
+        return this.opsForValue().getAndSet(this.namingKey(key), value);
+    }
+
+    public Mono<Boolean> mSet(Map<K, V> map) {
+        Map<K, V> named = new HashMap<>((int) (map.size() / 0.75F) + 1);
+        map.forEach((key, value) -> named.put(this.namingKey(key), value));
+        return this.opsForValue().multiSet(named);
+    }
+
+    public Mono<List<V>> mGet(Collection<K> keys) {
+        return this.opsForValue().multiGet(this.namingKeys(keys));
+    }
+
+    public Mono<Long> incr(K key) {
+        return this.opsForValue().increment(this.namingKey(key));
+    }
+
+    public Mono<Long> incrBy(K key, long delta) {
+        return this.opsForValue().increment(this.namingKey(key), delta);
+    }
+
+    public Mono<Long> decr(K key) {
+        return this.opsForValue().decrement(this.namingKey(key));
+    }
+
+    public Mono<Long> decrBy(K key, long delta) {
+        return this.opsForValue().decrement(this.namingKey(key), delta);
+    }
+
+    public Mono<Long> append(K key, String value) {
+        return this.opsForValue().append(this.namingKey(key), value);
+    }
+
+    public Mono<Long> strLen(K key) {
+        return this.opsForValue().size(this.namingKey(key));
+    }
+
+    public Mono<Boolean> setBit(K key, long offset, boolean value) {
+        return this.opsForValue().setBit(this.namingKey(key), offset, value);
+    }
+
+    public Mono<Boolean> getBit(K key, long offset) {
+        return this.opsForValue().getBit(this.namingKey(key), offset);
+    }
+
+    // keys, see IRedisCommands
+
+    public Mono<Boolean> del(K key) {
+        return this.reactiveRedisTemplate.delete(this.namingKey(key)).map(removed -> removed > 0);
+    }
+
+    public Mono<Long> del(Collection<K> keys) {
+        return this.reactiveRedisTemplate.delete(this.namingKeys((K[]) keys.toArray()));
+    }
+
+    public Mono<Boolean> unlink(K key) {
+        return this.reactiveRedisTemplate.unlink(this.namingKey(key)).map(removed -> removed > 0);
+    }
+
+    public Mono<Long> unlink(Collection<K> keys) {
+        return this.reactiveRedisTemplate.unlink(this.namingKeys((K[]) keys.toArray()));
+    }
+
+    public Mono<Boolean> exists(K key) {
+        return this.reactiveRedisTemplate.hasKey(this.namingKey(key));
+    }
+
+    public Mono<Long> countExistingKeys(Collection<K> keys) {
+        return this.reactiveRedisTemplate.countExistingKeys(this.namingKeys(keys));
+    }
+
+    public Mono<Boolean> expire(K key, long timeoutSeconds) {
+        return this.reactiveRedisTemplate.expire(this.namingKey(key), Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<Boolean> pExpire(K key, long timeoutMillis) {
+        return this.reactiveRedisTemplate.expire(this.namingKey(key), Duration.ofMillis(timeoutMillis));
+    }
+
+    public Mono<Boolean> expireAt(K key, Date date) {
+        return this.reactiveRedisTemplate.expireAt(this.namingKey(key), date.toInstant());
+    }
+
+    public Mono<Boolean> persist(K key) {
+        return this.reactiveRedisTemplate.persist(this.namingKey(key));
+    }
+
+    /**
+     * @see ReactiveRedisTemplate#getExpire(Object)
+     */
+    public Mono<Duration> ttl(K key) {
+        return this.reactiveRedisTemplate.getExpire(this.namingKey(key));
+    }
+
+    public Mono<DataType> type(K key) {
+        return this.reactiveRedisTemplate.type(this.namingKey(key));
+    }
+
+    public Mono<Boolean> rename(K oldKey, K newKey) {
+        return this.reactiveRedisTemplate.rename(this.namingKey(oldKey), this.namingKey(newKey));
+    }
+
+    // hash, see IHashCommands
+
+    public Mono<Boolean> hSet(K key, Object hashKey, Object value) {
+        return this.<Object, Object>opsForHash().put(this.namingKey(key), hashKey, value);
+    }
+
+    public Mono<Boolean> hmset(K key, Map<Object, Object> m) {
+        return this.<Object, Object>opsForHash().putAll(this.namingKey(key), m);
+    }
+
+    public <T> Mono<T> hGet(K key, Object hashKey) {
+        return this.<Object, T>opsForHash().get(this.namingKey(key), hashKey);
+    }
+
+    public <T> Mono<List<T>> hMget(K key, Collection<Object> hashKeys) {
+        return this.<Object, T>opsForHash().multiGet(this.namingKey(key), hashKeys);
+    }
+
+    public Mono<Long> hDel(K key, Object... hashKeys) {
+        return this.opsForHash().remove(this.namingKey(key), hashKeys);
+    }
+
+    public Mono<Boolean> hExists(K key, Object hashKey) {
+        return this.opsForHash().hasKey(this.namingKey(key), hashKey);
+    }
+
+    public <HK, HV> Mono<Map<HK, HV>> hGetAll(K key) {
+        return this.<HK, HV>opsForHash().entries(this.namingKey(key)).collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    public <HV> Flux<HV> hVals(K key) {
+        return this.<Object, HV>opsForHash().values(this.namingKey(key));
+    }
+
+    public <HK> Flux<HK> hKeys(K key) {
+        return this.<HK, Object>opsForHash().keys(this.namingKey(key));
+    }
+
+    public Mono<Long> hLen(K key) {
+        return this.opsForHash().size(this.namingKey(key));
+    }
+
+    public Mono<Long> hIncrBy(K key, Object hashKey, long delta) {
+        return this.<Object, Object>opsForHash().increment(this.namingKey(key), hashKey, delta);
+    }
+
+    // list, see IListCommands
+
+    public Mono<V> lIndex(K key, long index) {
+        return this.opsForList().index(this.namingKey(key), index);
+    }
+
+    public Mono<Long> lLen(K key) {
+        return this.opsForList().size(this.namingKey(key));
+    }
+
+    public Mono<V> lPop(K key) {
+        return this.opsForList().leftPop(this.namingKey(key));
+    }
+
+    public Mono<V> blPop(K key, long timeoutSeconds) {
+        return this.opsForList().leftPop(this.namingKey(key), Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<Long> lPush(K key, V value) {
+        return this.opsForList().leftPush(this.namingKey(key), value);
+    }
+
+    public Mono<Long> lPush(K key, V... values) {
+        return this.opsForList().leftPushAll(this.namingKey(key), values);
+    }
+
+    public Mono<Long> lPush(K key, Collection<V> values) {
+        return this.opsForList().leftPushAll(this.namingKey(key), values);
+    }
+
+    public Mono<Long> lPushx(K key, V value) {
+        return this.opsForList().leftPushIfPresent(this.namingKey(key), value);
+    }
+
+    public Mono<Boolean> lSet(K key, long index, V value) {
+        return this.opsForList().set(this.namingKey(key), index, value);
+    }
+
+    public Mono<Long> lRem(K key, long count, V value) {
+        return this.opsForList().remove(this.namingKey(key), count, value);
+    }
+
+    public Flux<V> lRange(K key, long start, long end) {
+        return this.opsForList().range(this.namingKey(key), start, end);
+    }
+
+    public Mono<Boolean> ltrim(K key, long start, long end) {
+        return this.opsForList().trim(this.namingKey(key), start, end);
+    }
+
+    public Mono<V> rPop(K key) {
+        return this.opsForList().rightPop(this.namingKey(key));
+    }
+
+    public Mono<V> brPop(K key, long timeoutSeconds) {
+        return this.opsForList().rightPop(this.namingKey(key), Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<V> rPoplPush(K srcKey, K dstKey) {
+        return this.opsForList().rightPopAndLeftPush(this.namingKey(srcKey), this.namingKey(dstKey));
+    }
+
+    public Mono<V> brPoplPush(K srcKey, K dstKey, long timeoutSeconds) {
+        return this.opsForList().rightPopAndLeftPush(this.namingKey(srcKey), this.namingKey(dstKey), Duration.ofSeconds(timeoutSeconds));
+    }
+
+    public Mono<Long> rPush(K key, V value) {
+        return this.opsForList().rightPush(this.namingKey(key), value);
+    }
+
+    public Mono<Long> rPush(K key, V... values) {
+        return this.opsForList().rightPushAll(this.namingKey(key), values);
+    }
+
+    public Mono<Long> rPush(K key, Collection<V> values) {
+        return this.opsForList().rightPushAll(this.namingKey(key), values);
+    }
+
+    public Mono<Long> rPushx(K key, V value) {
+        return this.opsForList().rightPushIfPresent(this.namingKey(key), value);
+    }
+
+    // set, see ISetCommands
+
+    public Mono<Long> sAdd(K key, V... values) {
+        return this.opsForSet().add(this.namingKey(key), values);
+    }
+
+    public Mono<Long> sCard(K key) {
+        return this.opsForSet().size(this.namingKey(key));
+    }
+
+    public Mono<V> sPop(K key) {
+        return this.opsForSet().pop(this.namingKey(key));
+    }
+
+    public Flux<V> sMembers(K key) {
+        return this.opsForSet().members(this.namingKey(key));
+    }
+
+    public Mono<Boolean> sIsMember(K key, Object member) {
+        return this.opsForSet().isMember(this.namingKey(key), member);
+    }
+
+    public Mono<V> sRandMember(K key) {
+        return this.opsForSet().randomMember(this.namingKey(key));
+    }
+
+    public Mono<Long> sRem(K key, Object... members) {
+        return this.opsForSet().remove(this.namingKey(key), members);
+    }
+
+    public Flux<V> sInter(K key, K otherKey) {
+        return this.opsForSet().intersect(this.namingKey(key), this.namingKey(otherKey));
+    }
+
+    public Flux<V> sInter(K key, Collection<K> otherKeys) {
+        return this.opsForSet().intersect(this.namingKey(key), this.namingKeys(otherKeys));
+    }
+
+    public Mono<Long> sInterStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.opsForSet().intersectAndStore(this.namingKey(key), this.namingKeys(otherKeys), this.namingKey(destKey));
+    }
+
+    public Flux<V> sUnion(K key, K otherKey) {
+        return this.opsForSet().union(this.namingKey(key), this.namingKey(otherKey));
+    }
+
+    public Flux<V> sUnion(K key, Collection<K> otherKeys) {
+        return this.opsForSet().union(this.namingKey(key), this.namingKeys(otherKeys));
+    }
+
+    public Mono<Long> sUnionStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.opsForSet().unionAndStore(this.namingKey(key), this.namingKeys(otherKeys), this.namingKey(destKey));
+    }
+
+    public Flux<V> sDiff(K key, K otherKey) {
+        return this.opsForSet().difference(this.namingKey(key), this.namingKey(otherKey));
+    }
+
+    public Flux<V> sDiff(K key, Collection<K> otherKeys) {
+        return this.opsForSet().difference(this.namingKey(key), this.namingKeys(otherKeys));
+    }
+
+    public Mono<Long> sDiffStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.opsForSet().differenceAndStore(this.namingKey(key), this.namingKeys(otherKeys), this.namingKey(destKey));
+    }
+
+    // zset, see IZSetCommands
+
+    public Mono<Boolean> zAdd(K key, V member, double score) {
+        return this.opsForZSet().add(this.namingKey(key), member, score);
+    }
+
+    public Mono<Long> zAdd(K key, Map<V, Double> scoreMembers) {
+        List<ZSetOperations.TypedTuple<V>> tuples = new ArrayList<>(scoreMembers.size());
+        scoreMembers.forEach((member, score) -> tuples.add(new DefaultTypedTuple<>(member, score)));
+        return this.opsForZSet().addAll(this.namingKey(key), tuples);
+    }
+
+    public Mono<Long> zCard(K key) {
+        return this.opsForZSet().size(this.namingKey(key));
+    }
+
+    public Mono<Long> zCount(K key, double min, double max) {
+        return this.opsForZSet().count(this.namingKey(key), Range.closed(min, max));
+    }
+
+    public Mono<Double> zIncrby(K key, V member, double score) {
+        return this.opsForZSet().incrementScore(this.namingKey(key), member, score);
+    }
+
+    public Flux<V> zRange(K key, long start, long end) {
+        return this.opsForZSet().range(this.namingKey(key), Range.closed(start, end));
+    }
+
+    public Flux<V> zRevRange(K key, long start, long end) {
+        return this.opsForZSet().reverseRange(this.namingKey(key), Range.closed(start, end));
+    }
+
+    public Flux<V> zRangeByScore(K key, double min, double max) {
+        return this.opsForZSet().rangeByScore(this.namingKey(key), Range.closed(min, max));
+    }
+
+    public Flux<V> zRangeByScore(K key, double min, double max, long offset, long count) {
+        return this.opsForZSet().rangeByScore(this.namingKey(key), Range.closed(min, max), RedisZSetCommands.Limit.limit().offset((int) offset).count((int) count));
+    }
+
+    public Flux<V> zRevRangeByScore(K key, double min, double max) {
+        return this.opsForZSet().reverseRangeByScore(this.namingKey(key), Range.closed(min, max));
+    }
+
+    public Flux<V> zRevRangeByScore(K key, double min, double max, long offset, long count) {
+        return this.opsForZSet().reverseRangeByScore(this.namingKey(key), Range.closed(min, max), RedisZSetCommands.Limit.limit().offset((int) offset).count((int) count));
+    }
+
+    public Mono<Long> zRank(K key, Object member) {
+        return this.opsForZSet().rank(this.namingKey(key), member);
+    }
+
+    public Mono<Long> zRevRank(K key, Object member) {
+        return this.opsForZSet().reverseRank(this.namingKey(key), member);
+    }
+
+    public Mono<Long> zRem(K key, Object... members) {
+        return this.opsForZSet().remove(this.namingKey(key), members);
+    }
+
+    public Mono<Double> zScore(K key, Object member) {
+        return this.opsForZSet().score(this.namingKey(key), member);
+    }
+
+    public Mono<Long> zRemRangeByRank(K key, long start, long end) {
+        return this.opsForZSet().removeRange(this.namingKey(key), Range.closed(start, end));
+    }
+
+    public Mono<Long> zRemRangeByScore(K key, double min, double max) {
+        return this.opsForZSet().removeRangeByScore(this.namingKey(key), Range.closed(min, max));
+    }
+
+    // geo, see IGeoCommands
+
+    public Mono<Long> geoAdd(K key, Point point, V member) {
+        return this.reactiveRedisTemplate.opsForGeo().add(this.namingKey(key), point, member);
+    }
+
+    public Mono<Distance> geoDist(K key, V member1, V member2) {
+        return this.reactiveRedisTemplate.opsForGeo().distance(this.namingKey(key), member1, member2);
+    }
+
+    public Mono<Distance> geoDist(K key, V member1, V member2, Metric metric) {
+        return this.reactiveRedisTemplate.opsForGeo().distance(this.namingKey(key), member1, member2, metric);
+    }
+
+    public Mono<List<Point>> geoPos(K key, V... members) {
+        return this.reactiveRedisTemplate.opsForGeo().position(this.namingKey(key), members);
+    }
+
+    public Flux<GeoResult<RedisGeoCommands.GeoLocation<V>>> geoRadius(K key, Circle within) {
+        return this.reactiveRedisTemplate.opsForGeo().radius(this.namingKey(key), within);
+    }
+
+    public Mono<Long> geoRemove(K key, V... members) {
+        return this.reactiveRedisTemplate.opsForGeo().remove(this.namingKey(key), members);
+    }
+
+    // hyper log log, see IHyperLogLogCommands
+
+    public Mono<Long> pfAdd(K key, V... values) {
+        return this.reactiveRedisTemplate.opsForHyperLogLog().add(this.namingKey(key), values);
+    }
+
+    public Mono<Long> pfCount(K... keys) {
+        return this.reactiveRedisTemplate.opsForHyperLogLog().size(this.namingKeys(keys));
+    }
+}
@@ -29,23 +29,36 @@ package org.openingo.spring.boot.extension.data.redis;
 
 import org.openingo.jdkits.collection.ListKit;
 import org.openingo.jdkits.validate.ValidateKit;
+import org.openingo.spring.boot.extension.data.redis.callback.PipelineSessionCallbackX;
 import org.openingo.spring.boot.extension.data.redis.callback.SessionCallbackX;
 import org.openingo.spring.boot.extension.data.redis.commands.IRedisCommands;
 import org.openingo.spring.boot.extension.data.redis.commands.IValueCommands;
 import org.openingo.spring.boot.extension.data.redis.core.DefaultSessionCallback;
+import org.openingo.spring.boot.extension.data.redis.core.PipelineSessionCallback;
 import org.openingo.spring.boot.extension.data.redis.naming.IKeyNamingPolicy;
+import org.openingo.spring.boot.extension.data.redis.pipeline.RedisClusterPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
 import org.springframework.data.geo.*;
 import org.springframework.data.redis.connection.BitFieldSubCommands;
 import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.connection.RedisGeoCommands;
 import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.stream.*;
 import org.springframework.data.redis.core.*;
 import org.springframework.data.redis.core.query.SortQuery;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * RedisTemplateX
@@ -55,12 +68,64 @@ import java.util.concurrent.TimeUnit;
 @SuppressWarnings("all")
 public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
 
+    // the UNLINK commands of one pipeline of unlinkByPattern
+    private static final int UNLINK_PIPELINE_DEPTH = 16;
+
+    // XGROUP CREATE with MKSTREAM, the stream of a new consumer group may not exist yet
+    private static final RedisScript<Long> GROUP_CREATE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('XGROUP', 'CREATE', KEYS[1], ARGV[1], ARGV[2], 'MKSTREAM') return 1", Long.class);
+
+    // the pending records scanned from the ARGV[6] cursor, at most ARGV[7] of them, the ones idle for at least
+    // ARGV[3] millis claimed (ARGV[4] at most) in one round trip, the deleted (trimmed) ones acknowledged, the ones
+    // delivered ARGV[5] times moved to KEYS[2] (if any) and acknowledged. returns the next cursor ('-' once the
+    // end is reached) and the claimed records, so the live records at the head do not hide the idle ones behind
+    private static final RedisScript<List> CLAIM_IDLE_SCRIPT = new DefaultRedisScript<>(
+            "local minIdle = tonumber(ARGV[3]) " +
+            "local count = tonumber(ARGV[4]) " +
+            "local maxDeliveries = tonumber(ARGV[5]) " +
+            "local budget = tonumber(ARGV[7]) " +
+            "local start = ARGV[6] " +
+            "local cursor = '-' " +
+            "local scanned = 0 " +
+            "local ids = {} " +
+            "while true do " +
+            "  local pending = redis.call('XPENDING', KEYS[1], ARGV[1], start, '+', count) " +
+            "  for _, entry in ipairs(pending) do " +
+            "    scanned = scanned + 1 " +
+            "    if entry[3] >= minIdle then " +
+            "      local records = redis.call('XRANGE', KEYS[1], entry[1], entry[1]) " +
+            "      if #records == 0 then " +
+            "        redis.call('XACK', KEYS[1], ARGV[1], entry[1]) " +
+            "      elseif maxDeliveries > 0 and entry[4] >= maxDeliveries then " +
+            "        if #KEYS > 1 then redis.call('XADD', KEYS[2], '*', unpack(records[1][2])) end " +
+            "        redis.call('XACK', KEYS[1], ARGV[1], entry[1]) " +
+            "      else " +
+            "        ids[#ids + 1] = entry[1] " +
+            "      end " +
+            "    end " +
+            "    local ms, seq = string.match(entry[1], '^(%d+)-(%d+)$') " +
+            "    cursor = string.format('%s-%d', ms, tonumber(seq) + 1) " +
+            "    if #ids >= count or scanned >= budget then break end " +
+            "  end " +
+            "  if #ids >= count or scanned >= budget then break end " +
+            "  if #pending < count then cursor = '-' break end " +
+            "  start = cursor " +
+            "end " +
+            "if #ids == 0 then return {cursor, {}} end " +
+            "return {cursor, redis.call('XCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], unpack(ids))}", List.class);
+
+    // the pending records scanned by one xClaimIdle, in counts
+    private static final int CLAIM_SCAN_FACTOR = 10;
+
     private RedisTemplate<K, V> redisTemplate;
 
+    // the xClaimIdle cursors by naming key and group, the first pending id not scanned yet
+    private final Map<String, String> claimCursors = new ConcurrentHashMap<>();
+
     @Autowired
     private IKeyNamingPolicy keyNamingPolicy;
 
-    private K namingKey(K key) {
+    protected K namingKey(K key) {
         if (Objects.nonNull(this.keyNamingPolicy) && key instanceof String) {
             return (K)this.keyNamingPolicy.getKeyName(key.toString());
         }
@@ -68,30 +133,63 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
     }
 
     private Collection<K> namingKeys(Collection<K> keys) {
-        if (Objects.isNull(this.keyNamingPolicy)) {
+        if (Objects.isNull(this.keyNamingPolicy) || Objects.isNull(keys)) {
             return keys;
         }
-        List<K> converted = new ArrayList<>();
-        keys.forEach(key -> {
-            if (key instanceof String) {
-                key = (K)this.keyNamingPolicy.getKeyName(key.toString());
-            }
-            converted.add(key);
-        });
+        List<K> converted = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            converted.add(this.namingKey(key));
+        }
         return converted;
     }
 
     private K[] namingKeys(K... keys) {
-        List<K> converted = new ArrayList<>();
-        if (Objects.nonNull(keys) && keys.length != 0) {
-            for (K key : keys) {
-                if (key instanceof String) {
-                    key = (K)this.keyNamingPolicy.getKeyName(key.toString());
-                }
-                converted.add(key);
+        if (Objects.isNull(keys)) {
+            return (K[])new Object[0];
+        }
+        if (Objects.isNull(this.keyNamingPolicy) || keys.length == 0) {
+            return keys;
+        }
+        // presized and keeps the component type of keys
+        K[] converted = keys.clone();
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = this.namingKey(converted[i]);
+        }
+        return converted;
+    }
+
+    /**
+     * the naming keys written by the {@code keyNamingPolicy} straight as the key serializer output,
+     * without the intermediate naming key strings.
+     *
+     * @return {@literal null} when the keys are not all strings or the key serializer is not {@code RedisSerializer.string()}
+     */
+    private byte[][] rawNamingKeys(Collection<K> keys) {
+        if (Objects.isNull(this.keyNamingPolicy) || Objects.isNull(keys)
+                || this.redisTemplate.getKeySerializer() != RedisSerializer.string()) {
+            return null;
+        }
+        byte[][] rawKeys = new byte[keys.size()][];
+        int i = 0;
+        for (K key : keys) {
+            if (!(key instanceof String)) {
+                return null;
             }
+            rawKeys[i++] = this.keyNamingPolicy.getRawKeyName((String)key);
+        }
+        return rawKeys;
+    }
+
+    private List<V> deserializeValues(List<byte[]> rawValues) {
+        RedisSerializer<V> valueSerializer = (RedisSerializer<V>)this.redisTemplate.getValueSerializer();
+        if (Objects.isNull(rawValues) || Objects.isNull(valueSerializer)) {
+            return (List<V>)rawValues;
+        }
+        List<V> values = new ArrayList<>(rawValues.size());
+        for (byte[] rawValue : rawValues) {
+            values.add(valueSerializer.deserialize(rawValue));
         }
-        return (K[])converted.toArray();
+        return values;
     }
 
     public RedisTemplateX(RedisTemplate<K, V> redisTemplate) {
@@ -122,6 +220,10 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
         return this.redisTemplate.opsForHyperLogLog();
     }
 
+    public <HK, HV> StreamOperations<K, HK, HV> opsForStream() {
+        return this.redisTemplate.opsForStream();
+    }
+
     public ListOperations<K, V> opsForList() {
         return this.redisTemplate.opsForList();
     }
@@ -329,7 +431,14 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public Long del(Collection<K> keys) {
-        return this.opsForValue().getOperations().delete(this.namingKeys(keys));
+        byte[][] rawKeys = this.rawNamingKeys(keys);
+        if (Objects.isNull(rawKeys)) {
+            return this.opsForValue().getOperations().delete(this.namingKeys(keys));
+        }
+        if (rawKeys.length == 0) {
+            return 0L;
+        }
+        return this.redisTemplate.execute((RedisCallback<Long>)connection -> connection.del(rawKeys), true);
     }
 
     /**
@@ -386,7 +495,15 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public List<V> mGet(Collection<K> keys) {
-        return this.opsForValue().multiGet(this.namingKeys(keys));
+        byte[][] rawKeys = this.rawNamingKeys(keys);
+        if (Objects.isNull(rawKeys)) {
+            return this.opsForValue().multiGet(this.namingKeys(keys));
+        }
+        if (rawKeys.length == 0) {
+            return Collections.emptyList();
+        }
+        List<byte[]> rawValues = this.redisTemplate.execute((RedisCallback<List<byte[]>>)connection -> connection.mGet(rawKeys), true);
+        return this.deserializeValues(rawValues);
     }
 
     /**
@@ -557,7 +674,11 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public Long countExistingKeys(Collection<K> keys) {
-        return this.opsForValue().getOperations().countExistingKeys(this.namingKeys(keys));
+        byte[][] rawKeys = this.rawNamingKeys(keys);
+        if (Objects.isNull(rawKeys)) {
+            return this.opsForValue().getOperations().countExistingKeys(this.namingKeys(keys));
+        }
+        return this.redisTemplate.execute((RedisCallback<Long>)connection -> connection.exists(rawKeys), true);
     }
 
     /**
@@ -732,7 +853,7 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
     }
 
     /**
-     * Get entire hash stored at {@code key}.
+     * Get entire hash stored at {@code key}, for the large hashes see {@link #hScanStream(Object, long)}.
      *
      * @param key must not be {@literal null}.
      * @return {@literal null} when used in pipeline / transaction.
@@ -779,6 +900,33 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
         return this.opsForHash().size(this.namingKey(key));
     }
 
+    /**
+     * Iterate over entries in hash at {@code key}. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param key must not be {@literal null}.
+     * @param options must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/hscan">Redis Documentation: HSCAN</a>
+     */
+    @Override
+    public <HK, HV> Cursor<Map.Entry<HK, HV>> hScan(K key, ScanOptions options) {
+        return this.<HK, HV>opsForHash().scan(this.namingKey(key), options);
+    }
+
+    /**
+     * Stream the entries in hash at {@code key}, fetched lazily {@code count} entries (a hint) per HSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one HSCAN.
+     * @see <a href="https://redis.io/commands/hscan">Redis Documentation: HSCAN</a>
+     */
+    @Override
+    public <HK, HV> Stream<Map.Entry<HK, HV>> hScanStream(K key, long count) {
+        return stream(this.<HK, HV>hScan(key, ScanOptions.scanOptions().count(count).build()));
+    }
+
     /**
      * Get element at {@code index} form list at {@code key}.
      *
@@ -1081,7 +1229,7 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
     }
 
     /**
-     * Get all elements of set at {@code key}.
+     * Get all elements of set at {@code key}, for the large sets see {@link #sScanStream(Object, long)}.
      *
      * @param key must not be {@literal null}.
      * @return {@literal null} when used in pipeline / transaction.
@@ -1306,6 +1454,33 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
         return this.opsForSet().differenceAndStore(this.namingKey(key), this.namingKeys(otherKeys), this.namingKey(destKey));
     }
 
+    /**
+     * Iterate over elements in set at {@code key}. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param key must not be {@literal null}.
+     * @param options must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/sscan">Redis Documentation: SSCAN</a>
+     */
+    @Override
+    public Cursor<V> sScan(K key, ScanOptions options) {
+        return this.opsForSet().scan(this.namingKey(key), options);
+    }
+
+    /**
+     * Stream the elements in set at {@code key}, fetched lazily {@code count} elements (a hint) per SSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one SSCAN.
+     * @see <a href="https://redis.io/commands/sscan">Redis Documentation: SSCAN</a>
+     */
+    @Override
+    public Stream<V> sScanStream(K key, long count) {
+        return stream(this.sScan(key, ScanOptions.scanOptions().count(count).build()));
+    }
+
     /**
      * Add {@code member} to a sorted set at {@code key}, or update its {@code score} if it already exists.
      *
@@ -1652,6 +1827,19 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
         return this.opsForZSet().scan(this.namingKey(key), options);
     }
 
+    /**
+     * Stream the elements in zset at {@code key}, fetched lazily {@code count} elements (a hint) per ZSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one ZSCAN.
+     * @see <a href="https://redis.io/commands/zscan">Redis Documentation: ZSCAN</a>
+     */
+    @Override
+    public Stream<ZSetOperations.TypedTuple<V>> zScanStream(K key, long count) {
+        return stream(this.zScan(key, ScanOptions.scanOptions().count(count).build()));
+    }
+
     /**
      * Get all elements with lexicographical ordering from {@literal ZSET} at {@code key} with a value between
      * {@link RedisZSetCommands.Range#getMin()} and {@link RedisZSetCommands.Range#getMax()}.
@@ -1915,6 +2103,265 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
         return this.opsForHyperLogLog().union(this.namingKey(destination), this.namingKeys(sourceKeys));
     }
 
+    /**
+     * Append a record to the stream {@code key}.
+     *
+     * @param key     must not be {@literal null}.
+     * @param content the record fields, must not be {@literal null}.
+     * @return the record id. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xadd">Redis Documentation: XADD</a>
+     */
+    @Override
+    public <HK, HV> RecordId xAdd(K key, Map<HK, HV> content) {
+        return this.<HK, HV>opsForStream().add(this.namingKey(key), content);
+    }
+
+    /**
+     * Append the records to the stream {@code key}, the XADD commands sent in one pipeline.
+     *
+     * @param key      must not be {@literal null}.
+     * @param contents the fields of the records, must not be {@literal null}.
+     * @return the record ids, in the order of the {@code contents}.
+     * @see <a href="https://redis.io/commands/xadd">Redis Documentation: XADD</a>
+     */
+    @Override
+    public <HK, HV> List<RecordId> xAdd(K key, List<Map<HK, HV>> contents) {
+        if (contents.isEmpty()) {
+            return Collections.emptyList();
+        }
+        K namingKey = this.namingKey(key);
+        List<Object> results = this.redisTemplate.executePipelined(new PipelineSessionCallback<>((PipelineSessionCallbackX<Object>)() -> {
+            StreamOperations<K, HK, HV> streamOperations = this.opsForStream();
+            for (Map<HK, HV> content : contents) {
+                streamOperations.add(namingKey, content);
+            }
+        }), null);
+        List<RecordId> recordIds = new ArrayList<>(results.size());
+        for (Object result : results) {
+            recordIds.add(result instanceof RecordId ? (RecordId)result : RecordId.of(String.valueOf(result)));
+        }
+        return recordIds;
+    }
+
+    /**
+     * Get the length of the stream {@code key}.
+     *
+     * @param key must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xlen">Redis Documentation: XLEN</a>
+     */
+    @Override
+    public Long xLen(K key) {
+        return this.opsForStream().size(this.namingKey(key));
+    }
+
+    /**
+     * Read at most {@code count} records of the stream {@code key} within the {@code range} of record ids.
+     *
+     * @param key   must not be {@literal null}.
+     * @param range must not be {@literal null}.
+     * @param count the maximum records.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xrange">Redis Documentation: XRANGE</a>
+     */
+    @Override
+    public <HK, HV> List<MapRecord<K, HK, HV>> xRange(K key, Range<String> range, long count) {
+        List<MapRecord<K, HK, HV>> records = this.<HK, HV>opsForStream().range(this.namingKey(key), range, RedisZSetCommands.Limit.limit().count((int)count));
+        return this.withStreamKey(key, records);
+    }
+
+    /**
+     * Remove the records of {@code recordIds} from the stream {@code key}.
+     *
+     * @param key       must not be {@literal null}.
+     * @param recordIds must not be {@literal null}.
+     * @return the removed records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xdel">Redis Documentation: XDEL</a>
+     */
+    @Override
+    public Long xDel(K key, String... recordIds) {
+        return this.opsForStream().delete(this.namingKey(key), recordIds);
+    }
+
+    /**
+     * Trim the stream {@code key} to {@code count} records.
+     *
+     * @param key   must not be {@literal null}.
+     * @param count the records to keep.
+     * @return the removed records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xtrim">Redis Documentation: XTRIM</a>
+     */
+    @Override
+    public Long xTrim(K key, long count) {
+        return this.opsForStream().trim(this.namingKey(key), count);
+    }
+
+    /**
+     * Create the consumer {@code group} of the stream {@code key}, the stream is created when missing (MKSTREAM).
+     *
+     * @param key    must not be {@literal null}.
+     * @param group  must not be {@literal null}.
+     * @param offset the first record the group reads after, {@link ReadOffset#latest()} for the new records only.
+     * @return {@literal false} when the group exists already.
+     * @see <a href="https://redis.io/commands/xgroup">Redis Documentation: XGROUP CREATE</a>
+     */
+    @Override
+    public Boolean xGroupCreate(K key, String group, ReadOffset offset) {
+        try {
+            this.redisTemplate.execute(GROUP_CREATE_SCRIPT, RedisSerializer.string(), (RedisSerializer)RedisSerializer.string(),
+                    Collections.singletonList(this.namingKey(key)), group, offset.getOffset());
+            return true;
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+                if (Objects.nonNull(cause.getMessage()) && cause.getMessage().contains("BUSYGROUP")) {
+                    return false;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Destroy the consumer {@code group} of the stream {@code key}, its pending records are dropped.
+     *
+     * @param key   must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xgroup">Redis Documentation: XGROUP DESTROY</a>
+     */
+    @Override
+    public Boolean xGroupDestroy(K key, String group) {
+        return this.opsForStream().destroyGroup(this.namingKey(key), group);
+    }
+
+    /**
+     * Read at most {@code count} records of the stream {@code key} as the {@code consumer} of the {@code group},
+     * {@link ReadOffset#lastConsumed()} reads the new records, an id (e.g. {@code 0}) reads the pending records
+     * of the consumer.
+     *
+     * @param key      must not be {@literal null}.
+     * @param group    must not be {@literal null}.
+     * @param consumer must not be {@literal null}.
+     * @param offset   must not be {@literal null}.
+     * @param count    the maximum records.
+     * @param block    the time to wait for the records, {@literal null} or {@link Duration#ZERO} not to block.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xreadgroup">Redis Documentation: XREADGROUP</a>
+     */
+    @Override
+    public <HK, HV> List<MapRecord<K, HK, HV>> xReadGroup(K key, String group, String consumer, ReadOffset offset, long count, Duration block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(count);
+        if (Objects.nonNull(block) && !block.isZero()) {
+            options = options.block(block);
+        }
+        List<MapRecord<K, HK, HV>> records = this.<HK, HV>opsForStream().read(Consumer.from(group, consumer), options,
+                StreamOffset.create(this.namingKey(key), offset));
+        return this.withStreamKey(key, records);
+    }
+
+    /**
+     * Acknowledge the records of {@code recordIds}, removing them from the pending records of the {@code group}.
+     *
+     * @param key       must not be {@literal null}.
+     * @param group     must not be {@literal null}.
+     * @param recordIds must not be {@literal null}.
+     * @return the acknowledged records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xack">Redis Documentation: XACK</a>
+     */
+    @Override
+    public Long xAck(K key, String group, String... recordIds) {
+        return this.opsForStream().acknowledge(this.namingKey(key), group, recordIds);
+    }
+
+    /**
+     * Claim at most {@code count} pending records of the {@code group} idle for at least {@code minIdle} to the
+     * {@code consumer}, XPENDING and XCLAIM in one script. the pending records are scanned from where the last call
+     * stopped, at most {@code 10 * count} of them per call, back from the first one once the end is reached.
+     *
+     * @param key      must not be {@literal null}.
+     * @param group    must not be {@literal null}.
+     * @param consumer must not be {@literal null}.
+     * @param minIdle  the minimum idle time of the claimed records.
+     * @param count    the maximum claimed records.
+     * @return the claimed records.
+     * @see <a href="https://redis.io/commands/xpending">Redis Documentation: XPENDING</a>
+     * @see <a href="https://redis.io/commands/xclaim">Redis Documentation: XCLAIM</a>
+     */
+    @Override
+    public <HK, HV> List<MapRecord<K, HK, HV>> xClaimIdle(K key, String group, String consumer, Duration minIdle, long count) {
+        return this.xClaimIdle(key, group, consumer, minIdle, count, 0L, null);
+    }
+
+    /**
+     * Claim at most {@code count} pending records of the {@code group} idle for at least {@code minIdle} to the
+     * {@code consumer}, in one script, scanned as {@link #xClaimIdle(Object, String, String, Duration, long)}.
+     * the pending records deleted or trimmed from the stream are acknowledged, the records delivered
+     * {@code maxDeliveries} times are moved to the {@code deadLetterKey} stream (acknowledged and dropped
+     * without it), so none of them stays pending forever.
+     *
+     * @param key           must not be {@literal null}.
+     * @param group         must not be {@literal null}.
+     * @param consumer      must not be {@literal null}.
+     * @param minIdle       the minimum idle time of the claimed records.
+     * @param count         the maximum claimed records.
+     * @param maxDeliveries the deliveries of a record before it is dead, 0 for no limit.
+     * @param deadLetterKey the stream of the dead records, in the same cluster slot as the {@code key} (eg: a hash tag).
+     * @return the claimed records.
+     * @see <a href="https://redis.io/commands/xpending">Redis Documentation: XPENDING</a>
+     * @see <a href="https://redis.io/commands/xclaim">Redis Documentation: XCLAIM</a>
+     */
+    @Override
+    public <HK, HV> List<MapRecord<K, HK, HV>> xClaimIdle(K key, String group, String consumer, Duration minIdle, long count,
+                                                          long maxDeliveries, K deadLetterKey) {
+        List<K> keys = Objects.isNull(deadLetterKey) ? Collections.singletonList(this.namingKey(key))
+                : Arrays.asList(this.namingKey(key), this.namingKey(deadLetterKey));
+        String cursorKey = this.namingKey(key) + " " + group;
+        String cursor = this.claimCursors.getOrDefault(cursorKey, "-");
+        // the next cursor and the raw entries: [id, [field, value, ...]], nil for the records deleted meanwhile
+        List<Object> result = this.redisTemplate.execute(CLAIM_IDLE_SCRIPT, RedisSerializer.string(), (RedisSerializer)RedisSerializer.byteArray(),
+                keys, group, consumer, String.valueOf(minIdle.toMillis()), String.valueOf(count), String.valueOf(Math.max(maxDeliveries, 0L)),
+                cursor, String.valueOf(count * CLAIM_SCAN_FACTOR));
+        if (Objects.isNull(result) || result.size() < 2) {
+            return Collections.emptyList();
+        }
+        this.claimCursors.put(cursorKey, new String((byte[])result.get(0), StandardCharsets.UTF_8));
+        List<Object> entries = (List<Object>)result.get(1);
+        if (Objects.isNull(entries) || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        RedisSerializer<HK> hashKeySerializer = (RedisSerializer<HK>)this.redisTemplate.getHashKeySerializer();
+        RedisSerializer<HV> hashValueSerializer = (RedisSerializer<HV>)this.redisTemplate.getHashValueSerializer();
+        List<MapRecord<K, HK, HV>> records = new ArrayList<>(entries.size());
+        for (Object entry : entries) {
+            if (!(entry instanceof List) || ((List<Object>)entry).size() < 2) {
+                continue;
+            }
+            List<Object> idAndFields = (List<Object>)entry;
+            List<byte[]> fields = Objects.isNull(idAndFields.get(1)) ? Collections.emptyList() : (List<byte[]>)idAndFields.get(1);
+            Map<HK, HV> content = new LinkedHashMap<>(fields.size());
+            for (int i = 0; i + 1 < fields.size(); i += 2) {
+                HK field = Objects.isNull(hashKeySerializer) ? (HK)fields.get(i) : hashKeySerializer.deserialize(fields.get(i));
+                HV value = Objects.isNull(hashValueSerializer) ? (HV)fields.get(i + 1) : hashValueSerializer.deserialize(fields.get(i + 1));
+                content.put(field, value);
+            }
+            RecordId recordId = RecordId.of(new String((byte[])idAndFields.get(0), StandardCharsets.UTF_8));
+            records.add(StreamRecords.newRecord().in(key).withId(recordId).ofMap(content));
+        }
+        return records;
+    }
+
+    // the records are read by the naming key, given back with the key of the caller
+    private <HK, HV> List<MapRecord<K, HK, HV>> withStreamKey(K key, List<MapRecord<K, HK, HV>> records) {
+        if (Objects.isNull(records) || Objects.isNull(this.keyNamingPolicy)) {
+            return records;
+        }
+        List<MapRecord<K, HK, HV>> converted = new ArrayList<>(records.size());
+        for (MapRecord<K, HK, HV> record : records) {
+            converted.add(record.withStreamKey(key));
+        }
+        return converted;
+    }
+
     /**
      * Unlink the {@code key} from the keyspace. Unlike with {@link IValueCommands#del(Object)} the actual memory reclaiming here
      * happens asynchronously.
@@ -1940,7 +2387,144 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public Long unlink(Collection<K> keys) {
-        return this.redisTemplate.unlink(this.namingKeys(keys));
+        byte[][] rawKeys = this.rawNamingKeys(keys);
+        if (Objects.isNull(rawKeys)) {
+            return this.redisTemplate.unlink(this.namingKeys(keys));
+        }
+        if (rawKeys.length == 0) {
+            return 0L;
+        }
+        return this.redisTemplate.execute((RedisCallback<Long>)connection -> connection.unlink(rawKeys), true);
+    }
+
+    /**
+     * Iterate over the keys matching the pattern of the {@code options}, named by the key naming policy,
+     * the keys are given back without the naming. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param options must not be {@literal null}.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     */
+    @Override
+    public Cursor<K> scan(ScanOptions options) {
+        ScanOptions namingOptions = this.namingScanOptions(options);
+        String naming = Objects.isNull(this.keyNamingPolicy) ? "" : this.keyNamingPolicy.getKeyName("");
+        RedisSerializer<K> keySerializer = (RedisSerializer<K>)this.redisTemplate.getKeySerializer();
+        return this.redisTemplate.executeWithStickyConnection(connection ->
+                new ConvertingCursor<>(connection.scan(namingOptions), rawKey -> {
+                    K key = Objects.isNull(keySerializer) ? (K)rawKey : keySerializer.deserialize(rawKey);
+                    if (!naming.isEmpty() && key instanceof String && ((String)key).startsWith(naming)) {
+                        key = (K)((String)key).substring(naming.length());
+                    }
+                    return key;
+                }));
+    }
+
+    /**
+     * Stream the keys matching {@code pattern}, fetched lazily {@code count} keys (a hint) per SCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param pattern must not be {@literal null}.
+     * @param count the COUNT hint of one SCAN.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     */
+    @Override
+    public Stream<K> scanStream(K pattern, long count) {
+        return stream(this.scan(ScanOptions.scanOptions().match(pattern.toString()).count(count).build()));
+    }
+
+    /**
+     * Unlink the keys matching {@code pattern}, found by SCAN and unlinked {@code count} keys per UNLINK,
+     * the UNLINK commands pipelined, without blocking redis nor loading all the keys.
+     *
+     * @param pattern must not be {@literal null}.
+     * @param count the COUNT hint of one SCAN and the keys of one UNLINK.
+     * @return The number of keys that were removed.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     * @see <a href="https://redis.io/commands/unlink">Redis Documentation: UNLINK</a>
+     */
+    @Override
+    public Long unlinkByPattern(K pattern, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        ScanOptions namingOptions = this.namingScanOptions(ScanOptions.scanOptions().match(pattern.toString()).count(count).build());
+        // the raw keys, never deserialized
+        Cursor<byte[]> cursor = this.redisTemplate.executeWithStickyConnection(connection -> connection.scan(namingOptions));
+        long unlinked = 0L;
+        try {
+            List<byte[][]> batches = new ArrayList<>(UNLINK_PIPELINE_DEPTH);
+            List<byte[]> batch = new ArrayList<>(count);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == count) {
+                    batches.add(batch.toArray(new byte[0][]));
+                    batch.clear();
+                    if (batches.size() == UNLINK_PIPELINE_DEPTH) {
+                        unlinked += this.unlinkPipelined(batches);
+                        batches.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch.toArray(new byte[0][]));
+            }
+            if (!batches.isEmpty()) {
+                unlinked += this.unlinkPipelined(batches);
+            }
+        } finally {
+            close(cursor);
+        }
+        return unlinked;
+    }
+
+    private long unlinkPipelined(List<byte[][]> batches) {
+        List<Object> results = this.redisTemplate.executePipelined((RedisCallback<Object>)connection -> {
+            for (byte[][] batch : batches) {
+                connection.unlink(batch);
+            }
+            return null;
+        });
+        for (byte[][] batch : batches) {
+            this.unlinked(batch);
+        }
+        long unlinked = 0L;
+        for (Object result : results) {
+            if (result instanceof Number) {
+                unlinked += ((Number)result).longValue();
+            }
+        }
+        return unlinked;
+    }
+
+    /**
+     * called with the raw (named and serialized) keys of every UNLINK of {@link #unlinkByPattern(Object, int)}
+     *
+     * @param rawKeys the unlinked raw keys
+     */
+    protected void unlinked(byte[][] rawKeys) {
+    }
+
+    private ScanOptions namingScanOptions(ScanOptions options) {
+        String pattern = Objects.isNull(options.getPattern()) ? "*" : options.getPattern();
+        ScanOptions.ScanOptionsBuilder builder = ScanOptions.scanOptions().match(String.valueOf(this.namingKey((K)pattern)));
+        if (Objects.nonNull(options.getCount())) {
+            builder.count(options.getCount());
+        }
+        return builder.build();
+    }
+
+    private static <T> Stream<T> stream(Cursor<T> cursor) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(() -> close(cursor));
+    }
+
+    private static void close(Cursor<?> cursor) {
+        try {
+            cursor.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("close the scan cursor error", e);
+        }
     }
 
     /**
@@ -2030,8 +2614,7 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public <T> T execute(SessionCallbackX<T> session) {
-        DefaultSessionCallback<T> defaultSessionCallback = new DefaultSessionCallback<>(session);
-        return this.redisTemplate.execute(defaultSessionCallback);
+        return this.redisTemplate.execute(this.sessionCallback(session));
     }
 
     /**
@@ -2043,8 +2626,7 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public List<Object> executePipelined(SessionCallbackX<?> session) {
-        DefaultSessionCallback<?> defaultSessionCallback = new DefaultSessionCallback<>(session);
-        return this.redisTemplate.executePipelined(defaultSessionCallback);
+        return this.redisTemplate.executePipelined(this.sessionCallback(session));
     }
 
     /**
@@ -2058,8 +2640,25 @@ public class RedisTemplateX<K, V> implements IRedisCommands<K, V> {
      */
     @Override
     public List<Object> executePipelined(SessionCallbackX session, RedisSerializer<?> resultSerializer) {
-        DefaultSessionCallback<?> defaultSessionCallback = new DefaultSessionCallback<>(session);
-        return this.redisTemplate.executePipelined(defaultSessionCallback, resultSerializer);
+        return this.redisTemplate.executePipelined(this.sessionCallback(session), resultSerializer);
+    }
+
+    /**
+     * A pipeline grouping its commands by the cluster node of their keys, the groups pipelined
+     * in parallel on the cluster connection. Works as one plain pipeline on a standalone redis.
+     *
+     * @param executor sends the pipelines of the nodes
+     * @return a new pipeline
+     */
+    public RedisClusterPipeline<K, V> clusterPipeline(Executor executor) {
+        return new RedisClusterPipeline<>(this, this::namingKey, executor);
+    }
+
+    private <T> SessionCallback<T> sessionCallback(SessionCallbackX<T> session) {
+        if (session instanceof PipelineSessionCallbackX) {
+            return new PipelineSessionCallback<>(session);
+        }
+        return new DefaultSessionCallback<>(session);
     }
 
     /**
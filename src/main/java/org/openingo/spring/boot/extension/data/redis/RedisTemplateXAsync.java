@@ -0,0 +1,491 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis;
+
+import org.springframework.data.geo.*;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RedisTemplateXAsync, the {@link CompletableFuture} counterpart of {@link RedisTemplateX},
+ * on the lettuce reactive API of the {@link ReactiveRedisTemplateX}: no thread waits for the replies.
+ *
+ * the keys are named by the key naming policy when the command is called, on the caller thread.
+ * the futures are completed on the lettuce event loop, chain the slow work with the async methods.
+ *
+ * @author Qicz
+ * @since 2021/9/10 16:00
+ */
+@SuppressWarnings("unchecked")
+public class RedisTemplateXAsync<K, V> {
+
+    private final ReactiveRedisTemplateX<K, V> reactiveRedisTemplateX;
+
+    public RedisTemplateXAsync(ReactiveRedisTemplateX<K, V> reactiveRedisTemplateX) {
+        this.reactiveRedisTemplateX = reactiveRedisTemplateX;
+    }
+
+    public ReactiveRedisTemplateX<K, V> getReactiveRedisTemplateX() {
+        return this.reactiveRedisTemplateX;
+    }
+
+    // value, see IValueCommands
+
+    public CompletableFuture<Boolean> set(K key, V value) {
+        return this.reactiveRedisTemplateX.set(key, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setEx(K key, long timeoutSeconds, V value) {
+        return this.reactiveRedisTemplateX.setEx(key, timeoutSeconds, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setNx(K key, V value) {
+        return this.reactiveRedisTemplateX.setNx(key, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setNx(K key, V value, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.setNx(key, value, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setXx(K key, V value) {
+        return this.reactiveRedisTemplateX.setXx(key, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setXx(K key, V value, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.setXx(key, value, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<V> get(K key) {
+        return this.reactiveRedisTemplateX.get(key).toFuture();
+    }
+
+    public CompletableFuture<V> getSet(K key, V value) {
+        return this.reactiveRedisTemplateX.getSet(key, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> mSet(Map<K, V> map) {
+        return this.reactiveRedisTemplateX.mSet(map).toFuture();
+    }
+
+    public CompletableFuture<List<V>> mGet(Collection<K> keys) {
+        return this.reactiveRedisTemplateX.mGet(keys).toFuture();
+    }
+
+    public CompletableFuture<Long> incr(K key) {
+        return this.reactiveRedisTemplateX.incr(key).toFuture();
+    }
+
+    public CompletableFuture<Long> incrBy(K key, long delta) {
+        return this.reactiveRedisTemplateX.incrBy(key, delta).toFuture();
+    }
+
+    public CompletableFuture<Long> decr(K key) {
+        return this.reactiveRedisTemplateX.decr(key).toFuture();
+    }
+
+    public CompletableFuture<Long> decrBy(K key, long delta) {
+        return this.reactiveRedisTemplateX.decrBy(key, delta).toFuture();
+    }
+
+    public CompletableFuture<Long> append(K key, String value) {
+        return this.reactiveRedisTemplateX.append(key, value).toFuture();
+    }
+
+    public CompletableFuture<Long> strLen(K key) {
+        return this.reactiveRedisTemplateX.strLen(key).toFuture();
+    }
+
+    public CompletableFuture<Boolean> setBit(K key, long offset, boolean value) {
+        return this.reactiveRedisTemplateX.setBit(key, offset, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> getBit(K key, long offset) {
+        return this.reactiveRedisTemplateX.getBit(key, offset).toFuture();
+    }
+
+    // keys, see IRedisCommands
+
+    public CompletableFuture<Boolean> del(K key) {
+        return this.reactiveRedisTemplateX.del(key).toFuture();
+    }
+
+    public CompletableFuture<Long> del(Collection<K> keys) {
+        return this.reactiveRedisTemplateX.del(keys).toFuture();
+    }
+
+    public CompletableFuture<Boolean> unlink(K key) {
+        return this.reactiveRedisTemplateX.unlink(key).toFuture();
+    }
+
+    public CompletableFuture<Long> unlink(Collection<K> keys) {
+        return this.reactiveRedisTemplateX.unlink(keys).toFuture();
+    }
+
+    public CompletableFuture<Boolean> exists(K key) {
+        return this.reactiveRedisTemplateX.exists(key).toFuture();
+    }
+
+    public CompletableFuture<Long> countExistingKeys(Collection<K> keys) {
+        return this.reactiveRedisTemplateX.countExistingKeys(keys).toFuture();
+    }
+
+    public CompletableFuture<Boolean> expire(K key, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.expire(key, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<Boolean> pExpire(K key, long timeoutMillis) {
+        return this.reactiveRedisTemplateX.pExpire(key, timeoutMillis).toFuture();
+    }
+
+    public CompletableFuture<Boolean> expireAt(K key, Date date) {
+        return this.reactiveRedisTemplateX.expireAt(key, date).toFuture();
+    }
+
+    public CompletableFuture<Boolean> persist(K key) {
+        return this.reactiveRedisTemplateX.persist(key).toFuture();
+    }
+
+    /**
+     * @see ReactiveRedisTemplateX#ttl(Object)
+     */
+    public CompletableFuture<Duration> ttl(K key) {
+        return this.reactiveRedisTemplateX.ttl(key).toFuture();
+    }
+
+    public CompletableFuture<DataType> type(K key) {
+        return this.reactiveRedisTemplateX.type(key).toFuture();
+    }
+
+    public CompletableFuture<Boolean> rename(K oldKey, K newKey) {
+        return this.reactiveRedisTemplateX.rename(oldKey, newKey).toFuture();
+    }
+
+    // hash, see IHashCommands
+
+    public CompletableFuture<Boolean> hSet(K key, Object hashKey, Object value) {
+        return this.reactiveRedisTemplateX.hSet(key, hashKey, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> hmset(K key, Map<Object, Object> m) {
+        return this.reactiveRedisTemplateX.hmset(key, m).toFuture();
+    }
+
+    public <T> CompletableFuture<T> hGet(K key, Object hashKey) {
+        return this.reactiveRedisTemplateX.hGet(key, hashKey).toFuture();
+    }
+
+    public <T> CompletableFuture<List<T>> hMget(K key, Collection<Object> hashKeys) {
+        return this.reactiveRedisTemplateX.hMget(key, hashKeys).toFuture();
+    }
+
+    public CompletableFuture<Long> hDel(K key, Object... hashKeys) {
+        return this.reactiveRedisTemplateX.hDel(key, hashKeys).toFuture();
+    }
+
+    public CompletableFuture<Boolean> hExists(K key, Object hashKey) {
+        return this.reactiveRedisTemplateX.hExists(key, hashKey).toFuture();
+    }
+
+    public <HK, HV> CompletableFuture<Map<HK, HV>> hGetAll(K key) {
+        return this.reactiveRedisTemplateX.hGetAll(key).toFuture();
+    }
+
+    public <HV> CompletableFuture<List<HV>> hVals(K key) {
+        return this.reactiveRedisTemplateX.hVals(key).collectList().toFuture();
+    }
+
+    public <HK> CompletableFuture<Set<HK>> hKeys(K key) {
+        return this.reactiveRedisTemplateX.hKeys(key).<Set<HK>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Long> hLen(K key) {
+        return this.reactiveRedisTemplateX.hLen(key).toFuture();
+    }
+
+    public CompletableFuture<Long> hIncrBy(K key, Object hashKey, long delta) {
+        return this.reactiveRedisTemplateX.hIncrBy(key, hashKey, delta).toFuture();
+    }
+
+    // list, see IListCommands
+
+    public CompletableFuture<V> lIndex(K key, long index) {
+        return this.reactiveRedisTemplateX.lIndex(key, index).toFuture();
+    }
+
+    public CompletableFuture<Long> lLen(K key) {
+        return this.reactiveRedisTemplateX.lLen(key).toFuture();
+    }
+
+    public CompletableFuture<V> lPop(K key) {
+        return this.reactiveRedisTemplateX.lPop(key).toFuture();
+    }
+
+    public CompletableFuture<V> blPop(K key, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.blPop(key, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<Long> lPush(K key, V value) {
+        return this.reactiveRedisTemplateX.lPush(key, value).toFuture();
+    }
+
+    public CompletableFuture<Long> lPush(K key, V... values) {
+        return this.reactiveRedisTemplateX.lPush(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> lPush(K key, Collection<V> values) {
+        return this.reactiveRedisTemplateX.lPush(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> lPushx(K key, V value) {
+        return this.reactiveRedisTemplateX.lPushx(key, value).toFuture();
+    }
+
+    public CompletableFuture<Boolean> lSet(K key, long index, V value) {
+        return this.reactiveRedisTemplateX.lSet(key, index, value).toFuture();
+    }
+
+    public CompletableFuture<Long> lRem(K key, long count, V value) {
+        return this.reactiveRedisTemplateX.lRem(key, count, value).toFuture();
+    }
+
+    public CompletableFuture<List<V>> lRange(K key, long start, long end) {
+        return this.reactiveRedisTemplateX.lRange(key, start, end).collectList().toFuture();
+    }
+
+    public CompletableFuture<Boolean> ltrim(K key, long start, long end) {
+        return this.reactiveRedisTemplateX.ltrim(key, start, end).toFuture();
+    }
+
+    public CompletableFuture<V> rPop(K key) {
+        return this.reactiveRedisTemplateX.rPop(key).toFuture();
+    }
+
+    public CompletableFuture<V> brPop(K key, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.brPop(key, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<V> rPoplPush(K srcKey, K dstKey) {
+        return this.reactiveRedisTemplateX.rPoplPush(srcKey, dstKey).toFuture();
+    }
+
+    public CompletableFuture<V> brPoplPush(K srcKey, K dstKey, long timeoutSeconds) {
+        return this.reactiveRedisTemplateX.brPoplPush(srcKey, dstKey, timeoutSeconds).toFuture();
+    }
+
+    public CompletableFuture<Long> rPush(K key, V value) {
+        return this.reactiveRedisTemplateX.rPush(key, value).toFuture();
+    }
+
+    public CompletableFuture<Long> rPush(K key, V... values) {
+        return this.reactiveRedisTemplateX.rPush(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> rPush(K key, Collection<V> values) {
+        return this.reactiveRedisTemplateX.rPush(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> rPushx(K key, V value) {
+        return this.reactiveRedisTemplateX.rPushx(key, value).toFuture();
+    }
+
+    // set, see ISetCommands
+
+    public CompletableFuture<Long> sAdd(K key, V... values) {
+        return this.reactiveRedisTemplateX.sAdd(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> sCard(K key) {
+        return this.reactiveRedisTemplateX.sCard(key).toFuture();
+    }
+
+    public CompletableFuture<V> sPop(K key) {
+        return this.reactiveRedisTemplateX.sPop(key).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sMembers(K key) {
+        return this.reactiveRedisTemplateX.sMembers(key).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Boolean> sIsMember(K key, Object member) {
+        return this.reactiveRedisTemplateX.sIsMember(key, member).toFuture();
+    }
+
+    public CompletableFuture<V> sRandMember(K key) {
+        return this.reactiveRedisTemplateX.sRandMember(key).toFuture();
+    }
+
+    public CompletableFuture<Long> sRem(K key, Object... members) {
+        return this.reactiveRedisTemplateX.sRem(key, members).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sInter(K key, K otherKey) {
+        return this.reactiveRedisTemplateX.sInter(key, otherKey).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sInter(K key, Collection<K> otherKeys) {
+        return this.reactiveRedisTemplateX.sInter(key, otherKeys).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Long> sInterStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.reactiveRedisTemplateX.sInterStore(key, otherKeys, destKey).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sUnion(K key, K otherKey) {
+        return this.reactiveRedisTemplateX.sUnion(key, otherKey).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sUnion(K key, Collection<K> otherKeys) {
+        return this.reactiveRedisTemplateX.sUnion(key, otherKeys).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Long> sUnionStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.reactiveRedisTemplateX.sUnionStore(key, otherKeys, destKey).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sDiff(K key, K otherKey) {
+        return this.reactiveRedisTemplateX.sDiff(key, otherKey).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> sDiff(K key, Collection<K> otherKeys) {
+        return this.reactiveRedisTemplateX.sDiff(key, otherKeys).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Long> sDiffStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.reactiveRedisTemplateX.sDiffStore(key, otherKeys, destKey).toFuture();
+    }
+
+    // zset, see IZSetCommands
+
+    public CompletableFuture<Boolean> zAdd(K key, V member, double score) {
+        return this.reactiveRedisTemplateX.zAdd(key, member, score).toFuture();
+    }
+
+    public CompletableFuture<Long> zAdd(K key, Map<V, Double> scoreMembers) {
+        return this.reactiveRedisTemplateX.zAdd(key, scoreMembers).toFuture();
+    }
+
+    public CompletableFuture<Long> zCard(K key) {
+        return this.reactiveRedisTemplateX.zCard(key).toFuture();
+    }
+
+    public CompletableFuture<Long> zCount(K key, double min, double max) {
+        return this.reactiveRedisTemplateX.zCount(key, min, max).toFuture();
+    }
+
+    public CompletableFuture<Double> zIncrby(K key, V member, double score) {
+        return this.reactiveRedisTemplateX.zIncrby(key, member, score).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRange(K key, long start, long end) {
+        return this.reactiveRedisTemplateX.zRange(key, start, end).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRevRange(K key, long start, long end) {
+        return this.reactiveRedisTemplateX.zRevRange(key, start, end).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRangeByScore(K key, double min, double max) {
+        return this.reactiveRedisTemplateX.zRangeByScore(key, min, max).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRangeByScore(K key, double min, double max, long offset, long count) {
+        return this.reactiveRedisTemplateX.zRangeByScore(key, min, max, offset, count).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRevRangeByScore(K key, double min, double max) {
+        return this.reactiveRedisTemplateX.zRevRangeByScore(key, min, max).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Set<V>> zRevRangeByScore(K key, double min, double max, long offset, long count) {
+        return this.reactiveRedisTemplateX.zRevRangeByScore(key, min, max, offset, count).<Set<V>>collect(LinkedHashSet::new, Set::add).toFuture();
+    }
+
+    public CompletableFuture<Long> zRank(K key, Object member) {
+        return this.reactiveRedisTemplateX.zRank(key, member).toFuture();
+    }
+
+    public CompletableFuture<Long> zRevRank(K key, Object member) {
+        return this.reactiveRedisTemplateX.zRevRank(key, member).toFuture();
+    }
+
+    public CompletableFuture<Long> zRem(K key, Object... members) {
+        return this.reactiveRedisTemplateX.zRem(key, members).toFuture();
+    }
+
+    public CompletableFuture<Double> zScore(K key, Object member) {
+        return this.reactiveRedisTemplateX.zScore(key, member).toFuture();
+    }
+
+    public CompletableFuture<Long> zRemRangeByRank(K key, long start, long end) {
+        return this.reactiveRedisTemplateX.zRemRangeByRank(key, start, end).toFuture();
+    }
+
+    public CompletableFuture<Long> zRemRangeByScore(K key, double min, double max) {
+        return this.reactiveRedisTemplateX.zRemRangeByScore(key, min, max).toFuture();
+    }
+
+    // geo, see IGeoCommands
+
+    public CompletableFuture<Long> geoAdd(K key, Point point, V member) {
+        return this.reactiveRedisTemplateX.geoAdd(key, point, member).toFuture();
+    }
+
+    public CompletableFuture<Distance> geoDist(K key, V member1, V member2) {
+        return this.reactiveRedisTemplateX.geoDist(key, member1, member2).toFuture();
+    }
+
+    public CompletableFuture<Distance> geoDist(K key, V member1, V member2, Metric metric) {
+        return this.reactiveRedisTemplateX.geoDist(key, member1, member2, metric).toFuture();
+    }
+
+    public CompletableFuture<List<Point>> geoPos(K key, V... members) {
+        return this.reactiveRedisTemplateX.geoPos(key, members).toFuture();
+    }
+
+    public CompletableFuture<List<GeoResult<RedisGeoCommands.GeoLocation<V>>>> geoRadius(K key, Circle within) {
+        return this.reactiveRedisTemplateX.geoRadius(key, within).collectList().toFuture();
+    }
+
+    public CompletableFuture<Long> geoRemove(K key, V... members) {
+        return this.reactiveRedisTemplateX.geoRemove(key, members).toFuture();
+    }
+
+    // hyper log log, see IHyperLogLogCommands
+
+    public CompletableFuture<Long> pfAdd(K key, V... values) {
+        return this.reactiveRedisTemplateX.pfAdd(key, values).toFuture();
+    }
+
+    public CompletableFuture<Long> pfCount(K... keys) {
+        return this.reactiveRedisTemplateX.pfCount(keys).toFuture();
+    }
+}
@@ -27,12 +27,15 @@
 
 package org.openingo.spring.boot.extension.data.redis.commands;
 
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * IHashCommands
@@ -102,7 +105,7 @@ public interface IHashCommands<K, V> {
     Boolean hExists(K key, Object hashKey);
 
     /**
-     * Get entire hash stored at {@code key}.
+     * Get entire hash stored at {@code key}, for the large hashes see {@link #hScanStream(Object, long)}.
      *
      * @param key must not be {@literal null}.
      * @return {@literal null} when used in pipeline / transaction.
@@ -137,4 +140,25 @@ public interface IHashCommands<K, V> {
      */
     @Nullable
     Long hLen(K key);
+
+    /**
+     * Iterate over entries in hash at {@code key}. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param key must not be {@literal null}.
+     * @param options must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/hscan">Redis Documentation: HSCAN</a>
+     */
+    <HK, HV> Cursor<Map.Entry<HK, HV>> hScan(K key, ScanOptions options);
+
+    /**
+     * Stream the entries in hash at {@code key}, fetched lazily {@code count} entries (a hint) per HSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one HSCAN.
+     * @see <a href="https://redis.io/commands/hscan">Redis Documentation: HSCAN</a>
+     */
+    <HK, HV> Stream<Map.Entry<HK, HV>> hScanStream(K key, long count);
 }
@@ -29,12 +29,15 @@ package org.openingo.spring.boot.extension.data.redis.commands;
 
 import org.openingo.spring.boot.extension.data.redis.callback.SessionCallbackX;
 import org.springframework.data.redis.core.BulkMapper;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.query.SortQuery;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * IRedisCommands
@@ -49,6 +52,7 @@ public interface IRedisCommands<K, V> extends
         IZSetCommands<K, V>,
         IGeoCommands<K, V>,
         IHyperLogLogCommands<K, V>,
+        IStreamCommands<K, V>,
         IRedisTransactionsCommands<K, V> {
 
     /**
@@ -75,6 +79,38 @@ public interface IRedisCommands<K, V> extends
     @Nullable
     Long unlink(Collection<K> keys);
 
+    /**
+     * Iterate over the keys matching the pattern of the {@code options}, named by the key naming policy,
+     * the keys are given back without the naming. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param options must not be {@literal null}.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     */
+    Cursor<K> scan(ScanOptions options);
+
+    /**
+     * Stream the keys matching {@code pattern}, fetched lazily {@code count} keys (a hint) per SCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param pattern must not be {@literal null}.
+     * @param count the COUNT hint of one SCAN.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     */
+    Stream<K> scanStream(K pattern, long count);
+
+    /**
+     * Unlink the keys matching {@code pattern}, found by SCAN and unlinked {@code count} keys per UNLINK,
+     * the UNLINK commands pipelined, without blocking redis nor loading all the keys.
+     *
+     * @param pattern must not be {@literal null}.
+     * @param count the COUNT hint of one SCAN and the keys of one UNLINK.
+     * @return The number of keys that were removed.
+     * @see <a href="https://redis.io/commands/scan">Redis Documentation: SCAN</a>
+     * @see <a href="https://redis.io/commands/unlink">Redis Documentation: UNLINK</a>
+     */
+    Long unlinkByPattern(K pattern, int count);
+
     /**
      * Move given {@code key} to database with {@code index}.
      *
@@ -151,6 +187,8 @@ public interface IRedisCommands<K, V> extends
     /**
      * Executes the given Redis session on a pipelined connection. Allows transactions to be pipelined. Note that the
      * callback <b>cannot</b> return a non-null value as it gets overwritten by the pipeline.
+     * A {@link org.openingo.spring.boot.extension.data.redis.callback.PipelineSessionCallbackX} is only pipelined,
+     * without multi/exec.
      *
      * @param session Session callback
      * @return list of objects returned by the pipeline
@@ -160,7 +198,8 @@ public interface IRedisCommands<K, V> extends
     /**
      * Executes the given Redis session on a pipelined connection, returning the results using a dedicated serializer.
      * Allows transactions to be pipelined. Note that the callback <b>cannot</b> return a non-null value as it gets
-     * overwritten by the pipeline.
+     * overwritten by the pipeline. A {@link org.openingo.spring.boot.extension.data.redis.callback.PipelineSessionCallbackX}
+     * is only pipelined, without multi/exec.
      *
      * @param session Session callback
      * @param resultSerializer
@@ -27,11 +27,14 @@
 
 package org.openingo.spring.boot.extension.data.redis.commands;
 
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.lang.Nullable;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * ISetCommands
@@ -72,7 +75,7 @@ public interface ISetCommands<K, V> {
     V sPop(K key);
 
     /**
-     * Get all elements of set at {@code key}.
+     * Get all elements of set at {@code key}, for the large sets see {@link #sScanStream(Object, long)}.
      *
      * @param key must not be {@literal null}.
      * @return {@literal null} when used in pipeline / transaction.
@@ -261,4 +264,25 @@ public interface ISetCommands<K, V> {
      */
     @Nullable
     Long sDiffStore(K key, Collection<K> otherKeys, K destKey);
+
+    /**
+     * Iterate over elements in set at {@code key}. <br />
+     * <strong>Important:</strong> Call {@link Cursor#close()} when done to avoid resource leak.
+     *
+     * @param key must not be {@literal null}.
+     * @param options must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/sscan">Redis Documentation: SSCAN</a>
+     */
+    Cursor<V> sScan(K key, ScanOptions options);
+
+    /**
+     * Stream the elements in set at {@code key}, fetched lazily {@code count} elements (a hint) per SSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one SSCAN.
+     * @see <a href="https://redis.io/commands/sscan">Redis Documentation: SSCAN</a>
+     */
+    Stream<V> sScanStream(K key, long count);
 }
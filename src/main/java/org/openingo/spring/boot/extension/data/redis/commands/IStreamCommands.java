@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.commands;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IStreamCommands
+ *
+ * @author Qicz
+ */
+public interface IStreamCommands<K, V> {
+
+    /**
+     * Append a record to the stream {@code key}.
+     *
+     * @param key must not be {@literal null}.
+     * @param content the record fields, must not be {@literal null}.
+     * @return the record id. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xadd">Redis Documentation: XADD</a>
+     */
+    @Nullable
+    <HK, HV> RecordId xAdd(K key, Map<HK, HV> content);
+
+    /**
+     * Append the records to the stream {@code key}, the XADD commands sent in one pipeline.
+     *
+     * @param key must not be {@literal null}.
+     * @param contents the fields of the records, must not be {@literal null}.
+     * @return the record ids, in the order of the {@code contents}.
+     * @see <a href="https://redis.io/commands/xadd">Redis Documentation: XADD</a>
+     */
+    <HK, HV> List<RecordId> xAdd(K key, List<Map<HK, HV>> contents);
+
+    /**
+     * Get the length of the stream {@code key}.
+     *
+     * @param key must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xlen">Redis Documentation: XLEN</a>
+     */
+    @Nullable
+    Long xLen(K key);
+
+    /**
+     * Read at most {@code count} records of the stream {@code key} within the {@code range} of record ids.
+     *
+     * @param key must not be {@literal null}.
+     * @param range must not be {@literal null}.
+     * @param count the maximum records.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xrange">Redis Documentation: XRANGE</a>
+     */
+    @Nullable
+    <HK, HV> List<MapRecord<K, HK, HV>> xRange(K key, Range<String> range, long count);
+
+    /**
+     * Remove the records of {@code recordIds} from the stream {@code key}.
+     *
+     * @param key must not be {@literal null}.
+     * @param recordIds must not be {@literal null}.
+     * @return the removed records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xdel">Redis Documentation: XDEL</a>
+     */
+    @Nullable
+    Long xDel(K key, String... recordIds);
+
+    /**
+     * Trim the stream {@code key} to {@code count} records.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the records to keep.
+     * @return the removed records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xtrim">Redis Documentation: XTRIM</a>
+     */
+    @Nullable
+    Long xTrim(K key, long count);
+
+    /**
+     * Create the consumer {@code group} of the stream {@code key}, the stream is created when missing (MKSTREAM).
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @param offset the first record the group reads after, {@link ReadOffset#latest()} for the new records only.
+     * @return {@literal false} when the group exists already.
+     * @see <a href="https://redis.io/commands/xgroup">Redis Documentation: XGROUP CREATE</a>
+     */
+    Boolean xGroupCreate(K key, String group, ReadOffset offset);
+
+    /**
+     * Destroy the consumer {@code group} of the stream {@code key}, its pending records are dropped.
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xgroup">Redis Documentation: XGROUP DESTROY</a>
+     */
+    @Nullable
+    Boolean xGroupDestroy(K key, String group);
+
+    /**
+     * Read at most {@code count} records of the stream {@code key} as the {@code consumer} of the {@code group},
+     * {@link ReadOffset#lastConsumed()} reads the new records, an id (e.g. {@code 0}) reads the pending records
+     * of the consumer.
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @param consumer must not be {@literal null}.
+     * @param offset must not be {@literal null}.
+     * @param count the maximum records.
+     * @param block the time to wait for the records, {@literal null} or {@link Duration#ZERO} not to block.
+     * @return {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xreadgroup">Redis Documentation: XREADGROUP</a>
+     */
+    @Nullable
+    <HK, HV> List<MapRecord<K, HK, HV>> xReadGroup(K key, String group, String consumer, ReadOffset offset, long count, @Nullable Duration block);
+
+    /**
+     * Acknowledge the records of {@code recordIds}, removing them from the pending records of the {@code group}.
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @param recordIds must not be {@literal null}.
+     * @return the acknowledged records. {@literal null} when used in pipeline / transaction.
+     * @see <a href="https://redis.io/commands/xack">Redis Documentation: XACK</a>
+     */
+    @Nullable
+    Long xAck(K key, String group, String... recordIds);
+
+    /**
+     * Claim at most {@code count} pending records of the {@code group} idle for at least {@code minIdle} to the
+     * {@code consumer}, XPENDING and XCLAIM in one script. the pending records are scanned from where the last call
+     * stopped, at most {@code 10 * count} of them per call, back from the first one once the end is reached.
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @param consumer must not be {@literal null}.
+     * @param minIdle the minimum idle time of the claimed records.
+     * @param count the maximum claimed records.
+     * @return the claimed records.
+     * @see <a href="https://redis.io/commands/xpending">Redis Documentation: XPENDING</a>
+     * @see <a href="https://redis.io/commands/xclaim">Redis Documentation: XCLAIM</a>
+     */
+    <HK, HV> List<MapRecord<K, HK, HV>> xClaimIdle(K key, String group, String consumer, Duration minIdle, long count);
+
+    /**
+     * Claim at most {@code count} pending records of the {@code group} idle for at least {@code minIdle} to the
+     * {@code consumer}, in one script, scanned as the other {@code xClaimIdle}.
+     * the pending records deleted or trimmed from the stream are acknowledged, the records delivered
+     * {@code maxDeliveries} times are moved to the {@code deadLetterKey} stream (acknowledged and dropped
+     * without it), so none of them stays pending forever.
+     *
+     * @param key must not be {@literal null}.
+     * @param group must not be {@literal null}.
+     * @param consumer must not be {@literal null}.
+     * @param minIdle the minimum idle time of the claimed records.
+     * @param count the maximum claimed records.
+     * @param maxDeliveries the deliveries of a record before it is dead, 0 for no limit.
+     * @param deadLetterKey the stream of the dead records, in the same cluster slot as the {@code key} (eg: a hash tag).
+     * @return the claimed records.
+     * @see <a href="https://redis.io/commands/xpending">Redis Documentation: XPENDING</a>
+     * @see <a href="https://redis.io/commands/xclaim">Redis Documentation: XCLAIM</a>
+     */
+    <HK, HV> List<MapRecord<K, HK, HV>> xClaimIdle(K key, String group, String consumer, Duration minIdle, long count,
+                                                   long maxDeliveries, @Nullable K deadLetterKey);
+}
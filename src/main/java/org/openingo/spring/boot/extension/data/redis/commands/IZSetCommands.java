@@ -36,6 +36,7 @@ import org.springframework.lang.Nullable;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * IZSetCommands
@@ -362,6 +363,16 @@ public interface IZSetCommands<K, V> {
      */
     Cursor<ZSetOperations.TypedTuple<V>> zScan(K key, ScanOptions options);
 
+    /**
+     * Stream the elements in zset at {@code key}, fetched lazily {@code count} elements (a hint) per ZSCAN. <br />
+     * <strong>Important:</strong> Close the stream when done, e.g. in try-with-resources.
+     *
+     * @param key must not be {@literal null}.
+     * @param count the COUNT hint of one ZSCAN.
+     * @see <a href="https://redis.io/commands/zscan">Redis Documentation: ZSCAN</a>
+     */
+    Stream<ZSetOperations.TypedTuple<V>> zScanStream(K key, long count);
+
     /**
      * Get all elements with lexicographical ordering from {@literal ZSET} at {@code key} with a value between
      * {@link RedisZSetCommands.Range#getMin()} and {@link RedisZSetCommands.Range#getMax()}.
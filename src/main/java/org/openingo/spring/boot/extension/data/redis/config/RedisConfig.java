@@ -27,32 +27,61 @@
 
 package org.openingo.spring.boot.extension.data.redis.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
 import org.openingo.spring.boot.constants.Constants;
 import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.openingo.spring.boot.extension.data.redis.ReactiveRedisTemplateX;
 import org.openingo.spring.boot.extension.data.redis.RedisStringKeyTemplateX;
 import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
-import org.openingo.spring.boot.extension.data.redis.naming.DefaultKeyNamingPolicy;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateXAsync;
+import org.openingo.spring.boot.extension.data.redis.naming.CachedPrefixKeyNamingPolicy;
 import org.openingo.spring.boot.extension.data.redis.naming.IKeyNamingPolicy;
 import org.openingo.spring.boot.extension.data.redis.naming.KeyNamingKit;
+import org.openingo.spring.boot.extension.data.redis.nearcache.*;
+import org.openingo.spring.boot.extension.data.redis.pipeline.RedisAutoPipeline;
+import org.openingo.spring.boot.extension.data.redis.script.RedisScriptRegistry;
+import org.openingo.spring.boot.extension.data.redis.serializer.CompressionMeters;
+import org.openingo.spring.boot.extension.data.redis.serializer.CompressionRedisSerializer;
 import org.openingo.spring.boot.extension.data.redis.serializer.FstRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.ICompressor;
+import org.openingo.spring.boot.extension.data.redis.serializer.JacksonRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.KryoRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.Lz4Compressor;
+import org.openingo.spring.boot.extension.data.redis.serializer.ProtobufRedisSerializer;
+import org.openingo.spring.boot.extension.data.redis.serializer.ZstdCompressor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
 
 import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * RedisConfig
  *
  * @author Qicz
  */
+@Slf4j
 @Configuration
 @ConditionalOnProperty(
         prefix = PropertiesConstants.REDIS_CONFIG_PROPERTIES_PREFIX,
@@ -79,32 +108,105 @@ public class RedisConfig {
         return new RedisStringKeyTemplateX<>(redisStringKeyTemplate);
     }
 
+    /**
+     * @return the auto pipeline of the redisStringKeyTemplateX commands
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "redisAutoPipeline")
+    @ConditionalOnProperty(
+            prefix = PropertiesConstants.REDIS_AUTO_PIPELINE_CONFIG_PROPERTIES_PREFIX,
+            name = "enabled",
+            havingValue = Constants.TRUE
+    )
+    public RedisAutoPipeline<String, Object> redisAutoPipeline(RedisStringKeyTemplateX<Object> redisStringKeyTemplateX,
+                                                               RedisConfigProperties redisConfigProperties) {
+        RedisConfigProperties.AutoPipelineProperties properties = redisConfigProperties.getAutoPipeline();
+        return new RedisAutoPipeline<>(redisStringKeyTemplateX, properties.getMaxBatchSize(), properties.getWindow());
+    }
+
     /**
      * @param redisConnectionFactory redisConnectionFactory
      * @return RedisTemplate using FST for values and StringRedisSerializer for keys
      */
     @Bean
     @ConditionalOnMissingBean(name = "redisStringKeyTemplate")
-    public RedisTemplate<String, Object> redisStringKeyTemplate(RedisConnectionFactory redisConnectionFactory) throws UnknownHostException {
+    public RedisTemplate<String, Object> redisStringKeyTemplate(RedisConnectionFactory redisConnectionFactory,
+                                                                RedisSerializer<Object> valueRedisSerializer) throws UnknownHostException {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(redisConnectionFactory);
         redisTemplate.setKeySerializer(RedisSerializer.string());
-        redisTemplate.setValueSerializer(this.valueRedisSerializer());
+        redisTemplate.setValueSerializer(valueRedisSerializer);
         return redisTemplate;
     }
 
     /**
-     * @return the default value serializer
+     * @param redisStringKeyTemplate redisStringKeyTemplate
+     * @param keyNamingPolicy keyNamingPolicy
+     * @return the lua scripts invoked by EVALSHA, the KEYS named by the key naming policy
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RedisScriptRegistry redisScriptRegistry(RedisTemplate<String, Object> redisStringKeyTemplate,
+                                                   IKeyNamingPolicy keyNamingPolicy) {
+        return new RedisScriptRegistry(redisStringKeyTemplate, keyNamingPolicy);
+    }
+
+    /**
+     * @return the value serializer selected by {@code openingo.redis.serializer}, default fst,
+     * compressing the large values when {@code openingo.redis.compression.enabled}
      */
     @Bean
     @ConditionalOnMissingBean(name = "valueRedisSerializer")
-    public RedisSerializer<Object> valueRedisSerializer() {
-        return new FstRedisSerializer<>();
+    public RedisSerializer<Object> valueRedisSerializer(RedisConfigProperties redisConfigProperties) {
+        RedisSerializer<Object> valueRedisSerializer = selectedSerializer(redisConfigProperties);
+        RedisConfigProperties.CompressionProperties compression = redisConfigProperties.getCompression();
+        if (!compression.isEnabled()) {
+            return valueRedisSerializer;
+        }
+        ICompressor compressor;
+        if (RedisConfigProperties.Compression.ZSTD.equals(compression.getAlgorithm())) {
+            requireClass("the zstd compression", "com.github.luben.zstd.Zstd");
+            compressor = new ZstdCompressor(compression.getLevel());
+        } else {
+            requireClass("the lz4 compression", "net.jpountz.lz4.LZ4Factory");
+            compressor = new Lz4Compressor();
+        }
+        return new CompressionRedisSerializer<>(valueRedisSerializer, compressor,
+                (int) compression.getThreshold().toBytes(), (int) Math.min(compression.getMaxLength().toBytes(), Integer.MAX_VALUE));
+    }
+
+    private static RedisSerializer<Object> selectedSerializer(RedisConfigProperties redisConfigProperties) {
+        RedisConfigProperties.Serializer serializer = redisConfigProperties.getSerializer();
+        List<Class<?>> serializerClasses = redisConfigProperties.getSerializerClasses();
+        String serializerName = "the " + serializer.name().toLowerCase() + " serializer";
+        switch (serializer) {
+            case KRYO:
+                requireClass(serializerName, "com.esotericsoftware.kryo.Kryo");
+                return new KryoRedisSerializer<>(serializerClasses);
+            case SMILE:
+                requireClass(serializerName, "com.fasterxml.jackson.dataformat.smile.SmileFactory");
+                return JacksonRedisSerializer.smile(redisConfigProperties.getSerializerBasePackages());
+            case CBOR:
+                requireClass(serializerName, "com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+                return JacksonRedisSerializer.cbor(redisConfigProperties.getSerializerBasePackages());
+            case PROTOBUF:
+                requireClass(serializerName, "com.google.protobuf.Message");
+                return new ProtobufRedisSerializer<>(serializerClasses);
+            default:
+                return new FstRedisSerializer<>();
+        }
+    }
+
+    private static void requireClass(String feature, String className) {
+        if (!ClassUtils.isPresent(className, RedisConfig.class.getClassLoader())) {
+            throw new IllegalStateException(String.format("%s requires %s on the classpath", feature, className));
+        }
     }
 
     /**
      if {@code KeyNamingKit.getNaming()} is "null" return key,
-     * otherwise return {@code KeyNamingKit.getNaming()}+{@code KeyNamingKit.NAMING_SEPARATOR}+key
+     * otherwise return {@code KeyNamingKit.getNaming()}+{@code KeyNamingKit.NAMING_SEPARATOR}+key,
+     * the prefixes and their bytes are cached per naming.
      *
      * @see KeyNamingKit#get()
      * @return the default key naming policy
@@ -112,6 +214,167 @@ public class RedisConfig {
     @Bean
     @ConditionalOnMissingBean
     public IKeyNamingPolicy keyNamingPolicy() {
-        return new DefaultKeyNamingPolicy();
+        return new CachedPrefixKeyNamingPolicy();
+    }
+
+    @Configuration
+    @ConditionalOnClass({ MeterRegistry.class })
+    @ConditionalOnProperty(
+            prefix = PropertiesConstants.REDIS_CONFIG_PROPERTIES_PREFIX,
+            name = "compression.enabled",
+            havingValue = Constants.TRUE
+    )
+    static class CompressionMetricsConfig {
+
+        /**
+         * @return the value compression meters, bound by the actuator metrics
+         */
+        @Bean
+        public MeterBinder compressionMeters(RedisSerializer<Object> valueRedisSerializer) {
+            if (valueRedisSerializer instanceof CompressionRedisSerializer) {
+                return new CompressionMeters((CompressionRedisSerializer<?>) valueRedisSerializer, "valueRedisSerializer");
+            }
+            // a custom valueRedisSerializer
+            return registry -> { };
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass({ ReactiveRedisTemplate.class, Flux.class, RedisClient.class })
+    @ConditionalOnProperty(
+            prefix = PropertiesConstants.REDIS_REACTIVE_CONFIG_PROPERTIES_PREFIX,
+            name = "enabled",
+            havingValue = Constants.TRUE
+    )
+    static class ReactiveConfig {
+
+        /**
+         * @return ReactiveRedisTemplate serializing as the redisStringKeyTemplate: StringRedisSerializer for keys,
+         * the valueRedisSerializer for values and the jdk serializer for the hashes
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "reactiveRedisStringKeyTemplate")
+        public ReactiveRedisTemplate<String, Object> reactiveRedisStringKeyTemplate(ReactiveRedisConnectionFactory reactiveRedisConnectionFactory,
+                                                                                    RedisSerializer<Object> valueRedisSerializer) {
+            RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                    .<String, Object>newSerializationContext(RedisSerializer.java())
+                    .key(RedisSerializer.string())
+                    .value(valueRedisSerializer)
+                    .build();
+            return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(name = "reactiveRedisTemplateX")
+        public ReactiveRedisTemplateX<String, Object> reactiveRedisTemplateX(ReactiveRedisTemplate<String, Object> reactiveRedisStringKeyTemplate) {
+            return new ReactiveRedisTemplateX<>(reactiveRedisStringKeyTemplate);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(name = "redisTemplateXAsync")
+        public RedisTemplateXAsync<String, Object> redisTemplateXAsync(ReactiveRedisTemplateX<String, Object> reactiveRedisTemplateX) {
+            return new RedisTemplateXAsync<>(reactiveRedisTemplateX);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass({ Caffeine.class })
+    @ConditionalOnProperty(
+            prefix = PropertiesConstants.REDIS_NEAR_CACHE_CONFIG_PROPERTIES_PREFIX,
+            name = "enabled",
+            havingValue = Constants.TRUE
+    )
+    static class NearCacheConfig {
+
+        /**
+         * @return the redisStringKeyTemplate with the near cache on get, hGet, hGetAll and sMembers,
+         * invalidated by the channel, the tracking invalidation is set up by the {@link TrackingConfig}
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "nearCacheRedisTemplateX")
+        public NearCacheRedisTemplateX<String, Object> nearCacheRedisTemplateX(RedisTemplate<String, Object> redisStringKeyTemplate,
+                                                                                RedisConfigProperties redisConfigProperties) {
+            RedisConfigProperties.NearCacheProperties properties = redisConfigProperties.getNearCache();
+            if (RedisConfigProperties.Invalidation.TRACKING.equals(properties.getInvalidation())) {
+                log.warn("near cache tracking needs the lettuce client, fall back to the channel invalidation");
+            }
+            return channelNearCacheRedisTemplateX(redisStringKeyTemplate, properties);
+        }
+
+        private static NearCacheRedisTemplateX<String, Object> channelNearCacheRedisTemplateX(RedisTemplate<String, Object> redisStringKeyTemplate,
+                                                                                               RedisConfigProperties.NearCacheProperties properties) {
+            ChannelNearCacheInvalidator invalidator = new ChannelNearCacheInvalidator(redisStringKeyTemplate.getRequiredConnectionFactory(), properties.getChannel());
+            return new NearCacheRedisTemplateX<>(redisStringKeyTemplate, nearCache(properties), invalidator);
+        }
+
+        private static NearCache nearCache(RedisConfigProperties.NearCacheProperties properties) {
+            return new NearCache(properties.getMaximumSize(), properties.getExpireAfterWrite());
+        }
+
+        /**
+         * the lettuce specific tracking invalidation, not loaded without the lettuce client
+         */
+        @Configuration
+        @ConditionalOnClass({ RedisClient.class })
+        @ConditionalOnProperty(
+                prefix = PropertiesConstants.REDIS_NEAR_CACHE_CONFIG_PROPERTIES_PREFIX,
+                name = "invalidation",
+                havingValue = "tracking",
+                matchIfMissing = true
+        )
+        static class TrackingConfig {
+
+            /**
+             * @return the redisStringKeyTemplate with the near cache on get, hGet, hGetAll and sMembers,
+             * invalidated by the redis 6 client tracking, falls back to the channel invalidation
+             */
+            @Bean
+            @ConditionalOnMissingBean(name = "nearCacheRedisTemplateX")
+            public NearCacheRedisTemplateX<String, Object> nearCacheRedisTemplateX(RedisTemplate<String, Object> redisStringKeyTemplate,
+                                                                                    RedisConfigProperties redisConfigProperties) {
+                RedisConfigProperties.NearCacheProperties properties = redisConfigProperties.getNearCache();
+                RedisConnectionFactory connectionFactory = redisStringKeyTemplate.getRequiredConnectionFactory();
+                if (connectionFactory instanceof LettuceConnectionFactory
+                        && !((LettuceConnectionFactory) connectionFactory).isClusterAware()
+                        && !((LettuceConnectionFactory) connectionFactory).isRedisSentinelAware()) {
+                    TrackingNearCacheInvalidator invalidator = new TrackingNearCacheInvalidator(redisURI((LettuceConnectionFactory) connectionFactory), properties.getPrefixes());
+                    try {
+                        return new NearCacheRedisTemplateX<>(redisStringKeyTemplate, nearCache(properties), invalidator);
+                    } catch (RuntimeException e) {
+                        invalidator.close();
+                        log.warn("near cache tracking is not available, fall back to the channel invalidation, {}", e.getMessage());
+                    }
+                } else {
+                    log.warn("near cache tracking needs a lettuce standalone connection, fall back to the channel invalidation");
+                }
+                return channelNearCacheRedisTemplateX(redisStringKeyTemplate, properties);
+            }
+
+            private static RedisURI redisURI(LettuceConnectionFactory connectionFactory) {
+                RedisURI.Builder builder = RedisURI.builder()
+                        .withHost(connectionFactory.getHostName())
+                        .withPort(connectionFactory.getPort())
+                        .withDatabase(connectionFactory.getDatabase())
+                        .withSsl(connectionFactory.isUseSsl())
+                        .withTimeout(Duration.ofMillis(connectionFactory.getTimeout()));
+                if (Objects.nonNull(connectionFactory.getPassword())) {
+                    builder.withPassword(connectionFactory.getPassword());
+                }
+                return builder.build();
+            }
+        }
+
+        @Configuration
+        @ConditionalOnClass({ MeterRegistry.class })
+        static class NearCacheMetricsConfig {
+
+            /**
+             * @return the near cache meters, bound by the actuator metrics
+             */
+            @Bean
+            public NearCacheMeters nearCacheMeters(NearCacheRedisTemplateX<String, Object> nearCacheRedisTemplateX) {
+                return new NearCacheMeters(nearCacheRedisTemplateX.getNearCache(), "nearCacheRedisTemplateX");
+            }
+        }
     }
 }
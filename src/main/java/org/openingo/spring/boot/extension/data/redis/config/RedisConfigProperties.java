@@ -32,6 +32,11 @@ import lombok.EqualsAndHashCode;
 import org.openingo.spring.boot.config.ExtensionConfigProperties;
 import org.openingo.spring.boot.constants.PropertiesConstants;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * RedisConfigProperties
@@ -43,4 +48,153 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = PropertiesConstants.REDIS_CONFIG_PROPERTIES_PREFIX)
 public class RedisConfigProperties extends ExtensionConfigProperties {
 
+    /**
+     * the value serializer of the {@code valueRedisSerializer}, default fst
+     */
+    private Serializer serializer = Serializer.FST;
+
+    /**
+     * the registered classes of the kryo serializer (in the same order on all the nodes,
+     * the only classes it reads back when set) or the message classes of the protobuf serializer
+     */
+    private List<Class<?>> serializerClasses = new ArrayList<>();
+
+    /**
+     * the packages of the value classes the smile and cbor serializers may read back,
+     * besides the arrays and the plain jdk values
+     */
+    private List<String> serializerBasePackages = new ArrayList<>();
+
+    /**
+     * the compression of the large values, see {@code valueRedisSerializer}
+     */
+    private CompressionProperties compression = new CompressionProperties();
+
+    /**
+     * the client side cache of the hot keys, see {@code nearCacheRedisTemplateX}
+     */
+    private NearCacheProperties nearCache = new NearCacheProperties();
+
+    /**
+     * the batching of the concurrent commands, see {@code redisAutoPipeline}
+     */
+    private AutoPipelineProperties autoPipeline = new AutoPipelineProperties();
+
+    /**
+     * the reactive and async templates, see {@code reactiveRedisTemplateX} and {@code redisTemplateXAsync}
+     */
+    private ReactiveProperties reactive = new ReactiveProperties();
+
+    @Data
+    public static class CompressionProperties {
+
+        /**
+         * enable the value compression or not, default disable
+         */
+        private boolean enabled = false;
+
+        /**
+         * the compression algorithm, lz4 (lz4-java) or zstd (zstd-jni)
+         */
+        private Compression algorithm = Compression.LZ4;
+
+        /**
+         * the minimum length of the compressed serialized values
+         */
+        private DataSize threshold = DataSize.ofKilobytes(1);
+
+        /**
+         * the maximum original length of the compressed values, the larger values are kept raw
+         * and the compressed values claiming more are not decompressed
+         */
+        private DataSize maxLength = DataSize.ofMegabytes(64);
+
+        /**
+         * the zstd compression level
+         */
+        private int level = 3;
+    }
+
+    @Data
+    public static class NearCacheProperties {
+
+        /**
+         * enable the near cache template or not, default disable
+         */
+        private boolean enabled = false;
+
+        /**
+         * the maximum count of the cached keys
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * the time to live of one cached key, the staleness bound when an invalidation is lost
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(1);
+
+        /**
+         * how the changed keys are known, tracking (redis 6 CLIENT TRACKING, lettuce standalone only)
+         * or channel (the writes of the near cache templates are published), tracking falls back to
+         * channel when the server does not support it
+         */
+        private Invalidation invalidation = Invalidation.TRACKING;
+
+        /**
+         * the tracked key prefixes (after the key naming), empty to track all the keys
+         */
+        private List<String> prefixes = new ArrayList<>();
+
+        /**
+         * the channel of the channel invalidation
+         */
+        private String channel = "openingo:near-cache:invalidate";
+    }
+
+    @Data
+    public static class AutoPipelineProperties {
+
+        /**
+         * enable the auto pipeline or not, default disable
+         */
+        private boolean enabled = false;
+
+        /**
+         * the maximum commands of one pipeline
+         */
+        private int maxBatchSize = 256;
+
+        /**
+         * the time to wait for more commands before sending a pipeline, 0 to send at once
+         */
+        private Duration window = Duration.ZERO;
+    }
+
+    @Data
+    public static class ReactiveProperties {
+
+        /**
+         * enable the reactive and async templates or not, default disable,
+         * they need reactor, lettuce and the reactive connection factory
+         */
+        private boolean enabled = false;
+    }
+
+    public enum Serializer {
+        FST,
+        KRYO,
+        SMILE,
+        CBOR,
+        PROTOBUF
+    }
+
+    public enum Compression {
+        LZ4,
+        ZSTD
+    }
+
+    public enum Invalidation {
+        TRACKING,
+        CHANNEL
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.naming;
+
+import org.openingo.jdkits.validate.ValidateKit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CachedPrefixKeyNamingPolicy, names the keys as the {@link DefaultKeyNamingPolicy},
+ * with the {@code naming:} prefix and its UTF-8 bytes cached per naming, so
+ * {@link #getRawKeyName(String)} writes the prefix and the key into one array,
+ * without the intermediate key string.
+ *
+ * @author Qicz
+ */
+public class CachedPrefixKeyNamingPolicy implements IKeyNamingPolicy {
+
+    // the namings are a few business names, more are named without caching
+    private static final int MAX_CACHED_NAMINGS = 1024;
+
+    private final Map<String, NamingPrefix> prefixes = new ConcurrentHashMap<>();
+
+    /**
+     * if {@code KeyNamingKit.getNaming()} is "null" return key,
+     * otherwise return {@code KeyNamingKit.getNaming()}+{@code KeyNamingKit.NAMING_SEPARATOR}+key
+     * @param key
+     * @return wrapper key
+     */
+    @Override
+    public String getKeyName(String key) {
+        NamingPrefix prefix = this.prefix();
+        if (Objects.isNull(prefix)) {
+            return key;
+        }
+        return prefix.name.concat(key);
+    }
+
+    /**
+     * the UTF-8 bytes of {@link #getKeyName(String)}
+     * @param key
+     * @return UTF-8 bytes of the naming key
+     */
+    @Override
+    public byte[] getRawKeyName(String key) {
+        NamingPrefix prefix = this.prefix();
+        if (Objects.isNull(prefix)) {
+            return key.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] rawPrefix = prefix.raw;
+        int offset = rawPrefix.length;
+        int length = key.length();
+        byte[] raw = new byte[offset + length];
+        System.arraycopy(rawPrefix, 0, raw, 0, offset);
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c >= 0x80) {
+                // multi-byte chars, let the jdk encode the key
+                byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                raw = new byte[offset + rawKey.length];
+                System.arraycopy(rawPrefix, 0, raw, 0, offset);
+                System.arraycopy(rawKey, 0, raw, offset, rawKey.length);
+                return raw;
+            }
+            raw[offset + i] = (byte) c;
+        }
+        return raw;
+    }
+
+    private NamingPrefix prefix() {
+        String naming = KeyNamingKit.get();
+        if (ValidateKit.isNull(naming)) {
+            return null;
+        }
+        NamingPrefix prefix = this.prefixes.get(naming);
+        if (Objects.isNull(prefix)) {
+            prefix = new NamingPrefix(naming);
+            if (this.prefixes.size() < MAX_CACHED_NAMINGS) {
+                this.prefixes.putIfAbsent(naming, prefix);
+            }
+        }
+        return prefix;
+    }
+
+    private static final class NamingPrefix {
+
+        private final String name;
+
+        private final byte[] raw;
+
+        private NamingPrefix(String naming) {
+            this.name = naming.endsWith(KeyNamingKit.NAMING_SEPARATOR) ? naming : naming + KeyNamingKit.NAMING_SEPARATOR;
+            this.raw = this.name.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
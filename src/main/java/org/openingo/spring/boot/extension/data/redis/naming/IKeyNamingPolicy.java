@@ -31,6 +31,7 @@ package org.openingo.spring.boot.extension.data.redis.naming;
 import org.openingo.jdkits.collection.ListKit;
 import org.openingo.jdkits.validate.ValidateKit;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +52,15 @@ public interface IKeyNamingPolicy {
      */
     String getKeyName(String key);
 
+    /**
+     * Get naming key as the {@code RedisSerializer.string()} output
+     * @param key
+     * @return UTF-8 bytes of the naming key
+     */
+    default byte[] getRawKeyName(String key) {
+        return this.getKeyName(key).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Get naming keys
      * @param keys
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * ChannelNearCacheInvalidator, the keys written by every client are published
+ * to one pub/sub channel, works with any redis server and any client library.
+ *
+ * only the writes done by the near cache templates are seen, the keys changed
+ * by the other clients or by the expirations live until the near cache ttl.
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+@Slf4j
+public class ChannelNearCacheInvalidator implements INearCacheInvalidator {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final String channel;
+
+    private final byte[] rawChannel;
+
+    private RedisMessageListenerContainer container;
+
+    public ChannelNearCacheInvalidator(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+        this.rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<byte[]> invalidated, Runnable reset) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(this.connectionFactory);
+        container.addMessageListener((message, pattern) -> invalidated.accept(message.getBody()), new ChannelTopic(this.channel));
+        container.afterPropertiesSet();
+        container.start();
+        this.container = container;
+        log.info("near cache invalidations subscribed on channel \"{}\"", this.channel);
+    }
+
+    @Override
+    public void publish(byte[] key) {
+        RedisConnection connection = this.connectionFactory.getConnection();
+        try {
+            connection.publish(this.rawChannel, key);
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        RedisMessageListenerContainer container = this.container;
+        return container != null && container.isRunning();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.container == null) {
+            return;
+        }
+        try {
+            this.container.destroy();
+        } catch (Exception e) {
+            log.warn("near cache invalidations close failure", e);
+        }
+        this.container = null;
+    }
+}
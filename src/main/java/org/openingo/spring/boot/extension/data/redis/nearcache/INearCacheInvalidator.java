@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import java.util.function.Consumer;
+
+/**
+ * INearCacheInvalidator, tells the near cache which redis keys changed.
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+public interface INearCacheInvalidator {
+
+    /**
+     * start receiving the invalidations.
+     *
+     * @param invalidated called with the raw redis key that changed
+     * @param reset called when the invalidations may have been lost, all keys must be dropped
+     */
+    void subscribe(Consumer<byte[]> invalidated, Runnable reset);
+
+    /**
+     * tell the other clients that {@code key} was written by this one,
+     * nothing to do when the server tracks the writes.
+     *
+     * @param key the raw redis key
+     */
+    default void publish(byte[] key) {
+    }
+
+    /**
+     * @return {@literal false} while the invalidations can not be received, the near cache is bypassed
+     */
+    default boolean isActive() {
+        return true;
+    }
+
+    /**
+     * stop receiving the invalidations.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * NearCache, the client side (L1) copy of the hot redis keys.
+ *
+ * the entries are bounded by size (W-TinyLFU admission) and by the time
+ * since they were loaded, one entry holds all the cached views of one
+ * redis key (the value, the hash fields, the set members), so one
+ * invalidation of the key drops all of them.
+ *
+ * a load racing with an invalidation of its key must not be cached, the
+ * loader reads the generation of the key before it goes to redis and the
+ * value is only kept while that generation is still current.
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+public final class NearCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Object, ConcurrentMap<Object, Object>> cache;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maximumSize the maximum count of the cached redis keys
+     * @param expireAfterWrite the time to live of one cached redis key
+     */
+    public NearCache(long maximumSize, Duration expireAfterWrite) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive.");
+        }
+        Objects.requireNonNull(expireAfterWrite, "expireAfterWrite must not be null.");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .removalListener((key, views, cause) -> {
+                    if (cause.wasEvicted()) {
+                        this.evictions.increment();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @param key the redis key
+     * @param view the view of the key
+     * @return the cached view, {@literal null} when not cached
+     */
+    public Object get(Object key, Object view) {
+        ConcurrentMap<Object, Object> views = this.cache.getIfPresent(key);
+        Object value = Objects.isNull(views) ? null : views.get(view);
+        if (Objects.isNull(value)) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @param key the redis key
+     * @return the generation to pass to {@link #put(Object, Object, Object, long)} after the load
+     */
+    public long generation(Object key) {
+        return this.generations.get(stripe(key));
+    }
+
+    /**
+     * cache the view loaded from redis, unless the key was invalidated since {@code generation}.
+     *
+     * @param key the redis key
+     * @param view the view of the key
+     * @param value the loaded value, {@literal null} is never cached
+     * @param generation the generation read before the load
+     */
+    public void put(Object key, Object view, Object value, long generation) {
+        if (Objects.isNull(value)) {
+            return;
+        }
+        ConcurrentMap<Object, Object> views = this.cache.get(key, k -> new ConcurrentHashMap<>(4));
+        views.put(view, value);
+        // checked after the put: an invalidation before it is seen here, one after it drops the entry
+        if (this.generation(key) != generation) {
+            views.remove(view, value);
+        }
+    }
+
+    /**
+     * @param key the redis key to drop
+     */
+    public void invalidate(Object key) {
+        this.generations.incrementAndGet(stripe(key));
+        this.cache.invalidate(key);
+        this.invalidations.increment();
+    }
+
+    /**
+     * drop all the keys, when the invalidations may have been lost.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            this.generations.incrementAndGet(i);
+        }
+        this.cache.invalidateAll();
+        this.invalidations.increment();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return this.invalidations.sum();
+    }
+
+    /**
+     * @return the approximate count of the cached redis keys
+     */
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * NearCacheMeters, the near cache meters, named as the micrometer cache meters.
+ *
+ * cache.gets: the hits (result=hit) and the misses (result=miss)
+ * cache.evictions: the keys evicted by the size or the time to live
+ * cache.invalidations: the keys dropped because they changed
+ * cache.size: the cached keys
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+public class NearCacheMeters implements MeterBinder {
+
+    private final NearCache nearCache;
+
+    private final Tags tags;
+
+    /**
+     * @param nearCache the near cache
+     * @param name the cache tag
+     */
+    public NearCacheMeters(NearCache nearCache, String name) {
+        this.nearCache = nearCache;
+        this.tags = Tags.of("cache", name);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", this.nearCache, NearCache::getHits)
+                .tags(this.tags).tag("result", "hit")
+                .description("the near cache hits")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this.nearCache, NearCache::getMisses)
+                .tags(this.tags).tag("result", "miss")
+                .description("the near cache misses")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this.nearCache, NearCache::getEvictions)
+                .tags(this.tags)
+                .description("the near cache evictions")
+                .register(registry);
+        FunctionCounter.builder("cache.invalidations", this.nearCache, NearCache::getInvalidations)
+                .tags(this.tags)
+                .description("the near cache invalidations")
+                .register(registry);
+        Gauge.builder("cache.size", this.nearCache, NearCache::size)
+                .tags(this.tags)
+                .description("the near cache keys")
+                .register(registry);
+    }
+}
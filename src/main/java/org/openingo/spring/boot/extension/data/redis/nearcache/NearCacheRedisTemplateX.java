@@ -0,0 +1,384 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * NearCacheRedisTemplateX, serves {@code get}, {@code hGet}, {@code hGetAll} and
+ * {@code sMembers} from the {@link NearCache} and goes to redis only on a miss.
+ *
+ * the string, hash and set writes and the unlinks (by pattern too) of this template drop their keys at once,
+ * the writes of the other clients are seen through the {@link INearCacheInvalidator}.
+ * the writes done by {@code execute}, the pipelines or {@link #getRedisTemplate()}
+ * directly are only seen when the server tracks the keys.
+ *
+ * the cached values are shared by the callers and must not be modified,
+ * the hashes and the sets are copied on every hit. {@literal null} is never cached.
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+@SuppressWarnings("unchecked")
+public class NearCacheRedisTemplateX<K, V> extends RedisTemplateX<K, V> implements DisposableBean {
+
+    private static final Object VALUE_VIEW = new Object();
+
+    private static final Object HASH_VIEW = new Object();
+
+    private static final Object MEMBERS_VIEW = new Object();
+
+    private final NearCache nearCache;
+
+    private final INearCacheInvalidator invalidator;
+
+    private final RedisSerializer<K> keySerializer;
+
+    public NearCacheRedisTemplateX(RedisTemplate<K, V> redisTemplate, NearCache nearCache, INearCacheInvalidator invalidator) {
+        super(redisTemplate);
+        this.nearCache = nearCache;
+        this.invalidator = invalidator;
+        this.keySerializer = (RedisSerializer<K>) redisTemplate.getKeySerializer();
+        this.invalidator.subscribe(this::invalidated, this.nearCache::invalidateAll);
+    }
+
+    public NearCache getNearCache() {
+        return this.nearCache;
+    }
+
+    @Override
+    public void destroy() {
+        this.invalidator.close();
+    }
+
+    @Override
+    public V get(K key) {
+        return this.cached(key, VALUE_VIEW, () -> super.get(key));
+    }
+
+    @Override
+    public <T> T hGet(K key, Object hashKey) {
+        return this.cached(key, new HashField(hashKey), () -> super.hGet(key, hashKey));
+    }
+
+    @Override
+    public <HK, HV> Map<HK, HV> hGetAll(K key) {
+        Map<HK, HV> entries = this.cached(key, HASH_VIEW, () -> super.hGetAll(key));
+        return Objects.isNull(entries) ? null : new HashMap<>(entries);
+    }
+
+    @Override
+    public Set<V> sMembers(K key) {
+        Set<V> members = this.cached(key, MEMBERS_VIEW, () -> super.sMembers(key));
+        return Objects.isNull(members) ? null : new LinkedHashSet<>(members);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        super.set(key, value);
+        this.invalidate(key);
+    }
+
+    @Override
+    public void setEx(K key, long timeoutSeconds, V value) {
+        super.setEx(key, timeoutSeconds, value);
+        this.invalidate(key);
+    }
+
+    @Override
+    public void setEx(K key, long timeout, V value, TimeUnit unit) {
+        super.setEx(key, timeout, value, unit);
+        this.invalidate(key);
+    }
+
+    @Override
+    public Boolean setNx(K key, V value) {
+        return this.invalidate(key, super.setNx(key, value));
+    }
+
+    @Override
+    public Boolean setNx(K key, V value, long timeoutSeconds) {
+        return this.invalidate(key, super.setNx(key, value, timeoutSeconds));
+    }
+
+    @Override
+    public Boolean setNx(K key, V value, long timeout, TimeUnit unit) {
+        return this.invalidate(key, super.setNx(key, value, timeout, unit));
+    }
+
+    @Override
+    public Boolean setXx(K key, V value) {
+        return this.invalidate(key, super.setXx(key, value));
+    }
+
+    @Override
+    public Boolean setXx(K key, V value, long timeoutSeconds) {
+        return this.invalidate(key, super.setXx(key, value, timeoutSeconds));
+    }
+
+    @Override
+    public Boolean setXx(K key, V value, long timeout, TimeUnit unit) {
+        return this.invalidate(key, super.setXx(key, value, timeout, unit));
+    }
+
+    @Override
+    public Boolean del(K key) {
+        return this.invalidate(key, super.del(key));
+    }
+
+    @Override
+    public Long del(Collection<K> keys) {
+        Long removed = super.del(keys);
+        keys.forEach(this::invalidate);
+        return removed;
+    }
+
+    @Override
+    public void mSet(Object... keysValues) {
+        super.mSet(keysValues);
+        for (int i = 0; i < keysValues.length; i += 2) {
+            this.invalidate((K) keysValues[i]);
+        }
+    }
+
+    @Override
+    public void mSet(Map<K, V> map) {
+        super.mSet(map);
+        map.keySet().forEach(this::invalidate);
+    }
+
+    @Override
+    public Long decr(K key) {
+        return this.invalidate(key, super.decr(key));
+    }
+
+    @Override
+    public Long decrBy(K key, long delta) {
+        return this.invalidate(key, super.decrBy(key, delta));
+    }
+
+    @Override
+    public Long incr(K key) {
+        return this.invalidate(key, super.incr(key));
+    }
+
+    @Override
+    public Long incrBy(K key, long delta) {
+        return this.invalidate(key, super.incrBy(key, delta));
+    }
+
+    @Override
+    public void rename(K oldKey, K newKey) {
+        super.rename(oldKey, newKey);
+        this.invalidate(oldKey);
+        this.invalidate(newKey);
+    }
+
+    @Override
+    public V getSet(K key, V value) {
+        return this.invalidate(key, super.getSet(key, value));
+    }
+
+    @Override
+    public Integer append(K key, String value) {
+        return this.invalidate(key, super.append(key, value));
+    }
+
+    @Override
+    public void setRange(K key, V value, long offset) {
+        super.setRange(key, value, offset);
+        this.invalidate(key);
+    }
+
+    @Override
+    public Boolean setBit(K key, long offset, boolean value) {
+        return this.invalidate(key, super.setBit(key, offset, value));
+    }
+
+    @Override
+    public List<Long> bitField(K key, BitFieldSubCommands subCommands) {
+        return this.invalidate(key, super.bitField(key, subCommands));
+    }
+
+    @Override
+    public void hSet(K key, Object hashKey, Object value) {
+        super.hSet(key, hashKey, value);
+        this.invalidate(key);
+    }
+
+    @Override
+    public void hmset(K key, Map<Object, Object> m) {
+        super.hmset(key, m);
+        this.invalidate(key);
+    }
+
+    @Override
+    public Long hDel(K key, Object... hashKeys) {
+        return this.invalidate(key, super.hDel(key, hashKeys));
+    }
+
+    @Override
+    public Long sAdd(K key, V... values) {
+        return this.invalidate(key, super.sAdd(key, values));
+    }
+
+    @Override
+    public V sPop(K key) {
+        return this.invalidate(key, super.sPop(key));
+    }
+
+    @Override
+    public Long sRem(K key, Object... members) {
+        return this.invalidate(key, super.sRem(key, members));
+    }
+
+    @Override
+    public Long sInterstore(K key, K otherKey, K destKey) {
+        return this.invalidate(destKey, super.sInterstore(key, otherKey, destKey));
+    }
+
+    @Override
+    public Long sInterStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.invalidate(destKey, super.sInterStore(key, otherKeys, destKey));
+    }
+
+    @Override
+    public Long sUnionStore(K key, K otherKey, K destKey) {
+        return this.invalidate(destKey, super.sUnionStore(key, otherKey, destKey));
+    }
+
+    @Override
+    public Long sUnionStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.invalidate(destKey, super.sUnionStore(key, otherKeys, destKey));
+    }
+
+    @Override
+    public Long sDiffStore(K key, K otherKey, K destKey) {
+        return this.invalidate(destKey, super.sDiffStore(key, otherKey, destKey));
+    }
+
+    @Override
+    public Long sDiffStore(K key, Collection<K> otherKeys, K destKey) {
+        return this.invalidate(destKey, super.sDiffStore(key, otherKeys, destKey));
+    }
+
+    @Override
+    public Boolean unlink(K key) {
+        return this.invalidate(key, super.unlink(key));
+    }
+
+    @Override
+    public Long unlink(Collection<K> keys) {
+        Long removed = super.unlink(keys);
+        keys.forEach(this::invalidate);
+        return removed;
+    }
+
+    @Override
+    public Boolean move(K key, int dbIndex) {
+        return this.invalidate(key, super.move(key, dbIndex));
+    }
+
+    @Override
+    protected void unlinked(byte[][] rawKeys) {
+        for (byte[] rawKey : rawKeys) {
+            this.invalidated(rawKey);
+            this.invalidator.publish(rawKey);
+        }
+    }
+
+    private <T> T cached(K key, Object view, Supplier<T> loader) {
+        if (!this.invalidator.isActive()) {
+            return loader.get();
+        }
+        K namedKey = this.namingKey(key);
+        Object cached = this.nearCache.get(namedKey, view);
+        if (Objects.nonNull(cached)) {
+            return (T) cached;
+        }
+        long generation = this.nearCache.generation(namedKey);
+        T value = loader.get();
+        this.nearCache.put(namedKey, view, value, generation);
+        return value;
+    }
+
+    private <T> T invalidate(K key, T result) {
+        this.invalidate(key);
+        return result;
+    }
+
+    private void invalidate(K key) {
+        K namedKey = this.namingKey(key);
+        this.nearCache.invalidate(namedKey);
+        this.invalidator.publish(this.keySerializer.serialize(namedKey));
+    }
+
+    private void invalidated(byte[] rawKey) {
+        K namedKey;
+        try {
+            namedKey = this.keySerializer.deserialize(rawKey);
+        } catch (SerializationException e) {
+            // not a key of this template
+            return;
+        }
+        if (Objects.nonNull(namedKey)) {
+            this.nearCache.invalidate(namedKey);
+        }
+    }
+
+    /**
+     * the view of one hash field, kept apart from the other views of the key
+     */
+    private static final class HashField {
+
+        private final Object hashKey;
+
+        HashField(Object hashKey) {
+            this.hashKey = hashKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof HashField && Objects.equals(this.hashKey, ((HashField) o).hashKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.hashKey);
+        }
+    }
+}
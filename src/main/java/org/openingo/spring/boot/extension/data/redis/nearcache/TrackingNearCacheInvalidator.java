@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.nearcache;
+
+import io.lettuce.core.*;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * TrackingNearCacheInvalidator, the server tracks the keys (redis 6 CLIENT TRACKING
+ * in BCAST mode) and sends the invalidation of every key changed by any client
+ * or expired, to the "__redis__:invalidate" channel of the subscription connection.
+ *
+ * the RESP2 REDIRECT form is used, it does not need the RESP3 push messages.
+ * the keys invalidated together come in one message whose payload is an array, the lettuce
+ * 5 pub/sub listener only gets one of them, so the payload elements are collected while
+ * the subscription connection decodes them ({@link BatchCodec}), and the whole near cache
+ * is dropped when a message can not be matched with its decoded keys.
+ * the tracking only lives with its connections, when one of them is lost
+ * the near cache is dropped and bypassed until both are established again.
+ *
+ * @author Qicz
+ * @since 2021/9/6 10:20
+ */
+@Slf4j
+public class TrackingNearCacheInvalidator implements INearCacheInvalidator {
+
+    private static final ByteArrayCodec CODEC = ByteArrayCodec.INSTANCE;
+
+    private static final byte[] INVALIDATE_CHANNEL = "__redis__:invalidate".getBytes(StandardCharsets.UTF_8);
+
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final RedisClient client;
+
+    private final List<String> prefixes;
+
+    private final ScheduledExecutorService reconnector;
+
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+
+    private volatile Consumer<byte[]> invalidated;
+
+    private volatile Runnable reset;
+
+    private volatile boolean active;
+
+    private volatile boolean closed;
+
+    private volatile StatefulRedisPubSubConnection<byte[], byte[]> subscription;
+
+    private volatile StatefulRedisConnection<byte[], byte[]> tracking;
+
+    /**
+     * @param redisURI the redis server
+     * @param prefixes the tracked key prefixes, empty to track all the keys
+     */
+    public TrackingNearCacheInvalidator(RedisURI redisURI, List<String> prefixes) {
+        this.client = RedisClient.create(redisURI);
+        this.client.setOptions(ClientOptions.builder().autoReconnect(false).build());
+        this.client.addListener(new RedisConnectionStateAdapter() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                disconnected(connection);
+            }
+        });
+        this.prefixes = prefixes;
+        this.reconnector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "near-cache-tracking");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<byte[]> invalidated, Runnable reset) {
+        this.invalidated = invalidated;
+        this.reset = reset;
+        this.connect();
+        log.info("near cache invalidations tracked by the server, prefixes {}", this.prefixes);
+    }
+
+    @Override
+    public boolean isActive() {
+        return this.active;
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        this.active = false;
+        this.reconnector.shutdownNow();
+        this.disconnect();
+        this.client.shutdown();
+    }
+
+    private synchronized void connect() {
+        if (this.closed) {
+            return;
+        }
+        this.disconnect();
+        try {
+            BatchCodec batchCodec = new BatchCodec();
+            StatefulRedisPubSubConnection<byte[], byte[]> subscription = this.client.connectPubSub(batchCodec);
+            this.subscription = subscription;
+            Long clientId = subscription.sync().dispatch(CommandType.CLIENT, new IntegerOutput<>(CODEC), new CommandArgs<>(CODEC).add("ID"));
+            subscription.addListener(new RedisPubSubAdapter<byte[], byte[]>() {
+                @Override
+                public void message(byte[] channel, byte[] message) {
+                    received(message, batchCodec.keys());
+                }
+            });
+            subscription.sync().subscribe(INVALIDATE_CHANNEL);
+
+            StatefulRedisConnection<byte[], byte[]> tracking = this.client.connect(CODEC);
+            this.tracking = tracking;
+            CommandArgs<byte[], byte[]> args = new CommandArgs<>(CODEC).add("TRACKING").add("on").add("REDIRECT").add(clientId).add("BCAST");
+            this.prefixes.forEach(prefix -> args.add("PREFIX").add(prefix));
+            tracking.sync().dispatch(CommandType.CLIENT, new StatusOutput<>(CODEC), args);
+        } catch (RuntimeException e) {
+            this.disconnect();
+            throw e;
+        }
+        // the keys written while the tracking was off are unknown
+        this.reset.run();
+        this.active = true;
+    }
+
+    private synchronized void disconnect() {
+        StatefulRedisPubSubConnection<byte[], byte[]> subscription = this.subscription;
+        StatefulRedisConnection<byte[], byte[]> tracking = this.tracking;
+        this.subscription = null;
+        this.tracking = null;
+        if (Objects.nonNull(subscription)) {
+            subscription.closeAsync();
+        }
+        if (Objects.nonNull(tracking)) {
+            tracking.closeAsync();
+        }
+    }
+
+    /**
+     * @param message the payload given to the listener, the last key of the message
+     * @param keys all the keys decoded for the message
+     */
+    private void received(byte[] message, List<byte[]> keys) {
+        // the flushdb / flushall invalidation has no key
+        if (Objects.isNull(message) || message.length == 0) {
+            this.reset.run();
+            return;
+        }
+        if (keys.isEmpty() || keys.get(keys.size() - 1) != message) {
+            // the decoded keys are not the ones of this message, a batch may be lost
+            log.warn("near cache invalidation message not decoded, the near cache is dropped");
+            this.reset.run();
+            return;
+        }
+        keys.forEach(this.invalidated);
+    }
+
+    // called on the event loop, must not wait for the lock held by connect()
+    private void disconnected(RedisChannelHandler<?, ?> connection) {
+        if (this.closed || (connection != this.subscription && connection != this.tracking)) {
+            return;
+        }
+        this.active = false;
+        this.reset.run();
+        log.warn("near cache tracking connection lost, the near cache is bypassed until it is established again");
+        this.scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (this.closed || !this.reconnecting.compareAndSet(false, true)) {
+            return;
+        }
+        this.reconnector.schedule(() -> {
+            this.reconnecting.set(false);
+            try {
+                this.connect();
+                log.info("near cache tracking connection established again");
+            } catch (RuntimeException e) {
+                log.warn("near cache tracking reconnect failure, {}", e.getMessage());
+                this.scheduleReconnect();
+            }
+        }, RECONNECT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * the codec of the subscription connection, collects the values decoded for one message:
+     * the channel of a message is decoded as a key, then every element of its payload as a value.
+     * the decoding and the listeners run on the event loop of the connection.
+     */
+    private static final class BatchCodec implements RedisCodec<byte[], byte[]> {
+
+        private List<byte[]> keys = new ArrayList<>();
+
+        @Override
+        public byte[] decodeKey(ByteBuffer bytes) {
+            // a new message
+            this.keys = new ArrayList<>();
+            return CODEC.decodeKey(bytes);
+        }
+
+        @Override
+        public byte[] decodeValue(ByteBuffer bytes) {
+            byte[] value = CODEC.decodeValue(bytes);
+            this.keys.add(value);
+            return value;
+        }
+
+        @Override
+        public ByteBuffer encodeKey(byte[] key) {
+            return CODEC.encodeKey(key);
+        }
+
+        @Override
+        public ByteBuffer encodeValue(byte[] value) {
+            return CODEC.encodeValue(value);
+        }
+
+        List<byte[]> keys() {
+            return this.keys;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.callback.PipelineSessionCallbackX;
+import org.openingo.spring.boot.extension.data.redis.naming.KeyNamingKit;
+import org.openingo.spring.boot.extension.data.redis.core.PipelineSessionCallback;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * RedisAutoPipeline, the commands of the concurrent callers are queued and sent
+ * together, in one pipeline (no MULTI/EXEC) per batch, every caller gets its own future.
+ *
+ * a batch is sent as soon as the previous one is done, with the commands queued
+ * meanwhile (at most {@code maxBatchSize}), so the batches grow with the load and
+ * a lone command is not delayed. a {@code window} waits for more commands before
+ * sending, trading latency for bigger batches.
+ *
+ * one submitted command must issue exactly one redis command with a reply through
+ * the given template, the status only commands (HMSET, RENAME, LSET, LTRIM, MSET...)
+ * have no pipeline reply and can not be auto pipelined.
+ *
+ * the key naming of the caller ({@link KeyNamingKit}) is captured on submit and set on the flusher
+ * thread around its command. the futures are completed on the flusher thread, chain the slow work
+ * with the async methods.
+ *
+ * @author Qicz
+ * @since 2021/9/8 14:10
+ */
+@Slf4j
+@SuppressWarnings("unchecked")
+public class RedisAutoPipeline<K, V> implements DisposableBean {
+
+    private final RedisTemplateX<K, V> templateX;
+
+    private final RedisSerializer<Object> valueSerializer;
+
+    private final RedisSerializer<Object> hashValueSerializer;
+
+    private final int maxBatchSize;
+
+    private final long windowNanos;
+
+    private final BlockingQueue<Command<K, V>> queue = new LinkedBlockingQueue<>();
+
+    private final Thread flusher;
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder commands = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * @param templateX the template the commands are issued with
+     * @param maxBatchSize the maximum commands of one pipeline
+     * @param window the time to wait for more commands before sending, {@link Duration#ZERO} to send at once
+     */
+    public RedisAutoPipeline(RedisTemplateX<K, V> templateX, int maxBatchSize, Duration window) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive.");
+        }
+        this.templateX = templateX;
+        this.valueSerializer = (RedisSerializer<Object>) templateX.getRedisTemplate().getValueSerializer();
+        this.hashValueSerializer = (RedisSerializer<Object>) templateX.getRedisTemplate().getHashValueSerializer();
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.flusher = new Thread(this::flushLoop, "redis-auto-pipeline");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * @param command issues one redis command through the template
+     * @return the reply, the bulk replies are deserialized with the value serializer
+     */
+    public <T> CompletableFuture<T> submit(Consumer<RedisTemplateX<K, V>> command) {
+        return this.submit(command, reply -> (T) this.deserializeValue(reply));
+    }
+
+    /**
+     * @param command issues one redis command through the template
+     * @param converter converts the raw reply, the bulk replies are {@code byte[]}
+     * @return the converted reply
+     */
+    public <T> CompletableFuture<T> submit(Consumer<RedisTemplateX<K, V>> command, Function<Object, T> converter) {
+        Command<K, V> queued = new Command<>(command, (Function<Object, Object>) converter, KeyNamingKit.get());
+        this.queue.add(queued);
+        // closed meanwhile, the queue may have been drained already
+        if (this.closed && this.queue.remove(queued)) {
+            queued.future.completeExceptionally(new IllegalStateException("the auto pipeline is closed."));
+        }
+        return (CompletableFuture<T>) queued.future;
+    }
+
+    public CompletableFuture<V> get(K key) {
+        return this.submit(t -> t.get(key));
+    }
+
+    public CompletableFuture<Boolean> set(K key, V value) {
+        return this.submit(t -> t.set(key, value));
+    }
+
+    public CompletableFuture<Boolean> setEx(K key, long timeoutSeconds, V value) {
+        return this.submit(t -> t.setEx(key, timeoutSeconds, value));
+    }
+
+    public CompletableFuture<Boolean> setNx(K key, V value) {
+        return this.submit(t -> t.setNx(key, value));
+    }
+
+    public CompletableFuture<Long> del(K key) {
+        return this.submit(t -> t.del(key));
+    }
+
+    public CompletableFuture<Boolean> exists(K key) {
+        return this.submit(t -> t.exists(key));
+    }
+
+    public CompletableFuture<Boolean> expire(K key, long timeoutSeconds) {
+        return this.submit(t -> t.expire(key, timeoutSeconds));
+    }
+
+    public CompletableFuture<Long> incr(K key) {
+        return this.submit(t -> t.incr(key));
+    }
+
+    public CompletableFuture<Long> incrBy(K key, long delta) {
+        return this.submit(t -> t.incrBy(key, delta));
+    }
+
+    public <T> CompletableFuture<T> hGet(K key, Object hashKey) {
+        return this.submit(t -> t.hGet(key, hashKey), reply -> (T) this.deserializeHashValue(reply));
+    }
+
+    public CompletableFuture<Boolean> hSet(K key, Object hashKey, Object value) {
+        return this.submit(t -> t.hSet(key, hashKey, value));
+    }
+
+    public CompletableFuture<Long> hDel(K key, Object... hashKeys) {
+        return this.submit(t -> t.hDel(key, hashKeys));
+    }
+
+    public CompletableFuture<Long> sAdd(K key, V... values) {
+        return this.submit(t -> t.sAdd(key, values));
+    }
+
+    public CompletableFuture<Boolean> sIsMember(K key, Object member) {
+        return this.submit(t -> t.sIsMember(key, member));
+    }
+
+    public CompletableFuture<Long> sRem(K key, Object... members) {
+        return this.submit(t -> t.sRem(key, members));
+    }
+
+    public CompletableFuture<Long> lPush(K key, V value) {
+        return this.submit(t -> t.lPush(key, value));
+    }
+
+    public CompletableFuture<Long> rPush(K key, V value) {
+        return this.submit(t -> t.rPush(key, value));
+    }
+
+    public CompletableFuture<Boolean> zAdd(K key, V member, double score) {
+        return this.submit(t -> t.zAdd(key, member, score));
+    }
+
+    public CompletableFuture<Double> zScore(K key, Object member) {
+        return this.submit(t -> t.zScore(key, member));
+    }
+
+    /**
+     * @return the sent pipelines
+     */
+    public long getBatches() {
+        return this.batches.sum();
+    }
+
+    /**
+     * @return the sent commands, divided by {@link #getBatches()} it is the average batch size
+     */
+    public long getCommands() {
+        return this.commands.sum();
+    }
+
+    @Override
+    public void destroy() {
+        this.closed = true;
+        this.flusher.interrupt();
+        try {
+            this.flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Command<K, V>> left = new ArrayList<>();
+        this.queue.drainTo(left);
+        left.forEach(command -> command.future.completeExceptionally(new IllegalStateException("the auto pipeline is closed.")));
+    }
+
+    private void flushLoop() {
+        List<Command<K, V>> batch = new ArrayList<>(this.maxBatchSize);
+        while (!this.closed) {
+            try {
+                batch.add(this.queue.take());
+                if (this.windowNanos > 0) {
+                    long deadline = System.nanoTime() + this.windowNanos;
+                    while (batch.size() < this.maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        Command<K, V> command = remaining > 0 ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (Objects.isNull(command)) {
+                            break;
+                        }
+                        batch.add(command);
+                    }
+                }
+                this.queue.drainTo(batch, this.maxBatchSize - batch.size());
+                this.flush(batch);
+            } catch (InterruptedException e) {
+                // closing, the commands taken are still sent
+                this.flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("auto pipeline flush failure", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Command<K, V>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        this.batches.increment();
+        this.commands.add(batch.size());
+        List<Object> replies;
+        try {
+            // no result serializer: the raw replies, every command converts its own
+            replies = this.templateX.getRedisTemplate().executePipelined(new PipelineSessionCallback<>((PipelineSessionCallbackX<Object>) () ->
+                    batch.forEach(this::issue)), null);
+        } catch (RedisPipelineException e) {
+            // the failed commands are exceptions in the replies
+            replies = e.getResults();
+        } catch (RuntimeException e) {
+            batch.forEach(command -> command.future.completeExceptionally(e));
+            return;
+        }
+        if (replies.size() != batch.size()) {
+            IllegalStateException e = new IllegalStateException(String.format("%d replies for %d auto pipelined commands, one command must issue exactly one redis command with a reply.", replies.size(), batch.size()));
+            batch.forEach(command -> command.future.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(replies.get(i));
+        }
+    }
+
+    private void issue(Command<K, V> command) {
+        if (Objects.isNull(command.naming)) {
+            command.issue.accept(this.templateX);
+            return;
+        }
+        KeyNamingKit.set(command.naming);
+        try {
+            command.issue.accept(this.templateX);
+        } finally {
+            KeyNamingKit.remove();
+        }
+    }
+
+    private Object deserializeValue(Object reply) {
+        return reply instanceof byte[] && Objects.nonNull(this.valueSerializer) ? this.valueSerializer.deserialize((byte[]) reply) : reply;
+    }
+
+    private Object deserializeHashValue(Object reply) {
+        return reply instanceof byte[] && Objects.nonNull(this.hashValueSerializer) ? this.hashValueSerializer.deserialize((byte[]) reply) : reply;
+    }
+
+    private static final class Command<K, V> {
+
+        private final Consumer<RedisTemplateX<K, V>> issue;
+
+        private final Function<Object, Object> converter;
+
+        // the key naming of the submitting thread
+        private final String naming;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        Command(Consumer<RedisTemplateX<K, V>> issue, Function<Object, Object> converter, String naming) {
+            this.issue = issue;
+            this.converter = converter;
+            this.naming = naming;
+        }
+
+        void complete(Object reply) {
+            if (reply instanceof Throwable) {
+                this.future.completeExceptionally((Throwable) reply);
+                return;
+            }
+            try {
+                this.future.complete(this.converter.apply(reply));
+            } catch (RuntimeException e) {
+                this.future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.data.redis.pipeline;
+
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.callback.PipelineSessionCallbackX;
+import org.openingo.spring.boot.extension.data.redis.core.PipelineSessionCallback;
+import org.openingo.spring.boot.extension.data.redis.naming.KeyNamingKit;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * RedisClusterPipeline, a pipeline without multi/exec for the keys spanning the cluster slots.
+ *
+ * the commands are grouped by the master node serving the hash slot of their key and
+ * the groups are sent in parallel, the replies are returned in the order the commands
+ * were added. every group is pipelined on the cluster connection of the template, not
+ * on a connection of its node: the lettuce cluster connection routes each command to
+ * the node of its slot, so one group only reaches one node, and a slot moved since the
+ * grouping is redirected by the client as for any other command.
+ *
+ * one added command must issue exactly one redis command with a reply through the
+ * given template, on the key it was added with. when the connection can not pipeline
+ * (the jedis cluster connection), the commands of a node are sent one by one.
+ *
+ * @author Qicz
+ * @since 2021/9/9 11:00
+ */
+@SuppressWarnings("unchecked")
+public class RedisClusterPipeline<K, V> {
+
+    private final RedisTemplateX<K, V> templateX;
+
+    private final UnaryOperator<K> naming;
+
+    private final Executor executor;
+
+    private final List<K> keys = new ArrayList<>();
+
+    private final List<Function<RedisTemplateX<K, V>, ?>> commands = new ArrayList<>();
+
+    /**
+     * @see RedisTemplateX#clusterPipeline(Executor)
+     */
+    public RedisClusterPipeline(RedisTemplateX<K, V> templateX, UnaryOperator<K> naming, Executor executor) {
+        this.templateX = templateX;
+        this.naming = naming;
+        this.executor = executor;
+    }
+
+    /**
+     * @param key the key of the command
+     * @param command issues one redis command on {@code key} through the template
+     * @return this pipeline
+     */
+    public RedisClusterPipeline<K, V> add(K key, Function<RedisTemplateX<K, V>, ?> command) {
+        this.keys.add(key);
+        this.commands.add(command);
+        return this;
+    }
+
+    /**
+     * send the commands added.
+     *
+     * @return the replies, deserialized with the value serializer, in the order of the commands
+     */
+    public List<Object> execute() {
+        if (this.commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collection<List<Integer>> groups = this.groupByNode();
+        Object[] replies = new Object[this.commands.size()];
+        if (groups.size() == 1) {
+            this.send(groups.iterator().next(), replies);
+            return Arrays.asList(replies);
+        }
+        // the groups were named on this thread, the executor threads send them with the same naming
+        String naming = KeyNamingKit.get();
+        CompletableFuture<?>[] sent = groups.stream()
+                .map(group -> CompletableFuture.runAsync(() -> this.send(group, replies, naming), this.executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sent).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return Arrays.asList(replies);
+    }
+
+    private Collection<List<Integer>> groupByNode() {
+        RedisTemplate<K, V> redisTemplate = this.templateX.getRedisTemplate();
+        RedisConnection connection = redisTemplate.getRequiredConnectionFactory().getConnection();
+        try {
+            if (!(connection instanceof RedisClusterConnection)) {
+                List<Integer> all = new ArrayList<>(this.commands.size());
+                for (int i = 0; i < this.commands.size(); i++) {
+                    all.add(i);
+                }
+                return Collections.singletonList(all);
+            }
+            RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+            RedisSerializer<K> keySerializer = (RedisSerializer<K>) redisTemplate.getKeySerializer();
+            Map<Integer, Object> slotNodes = new HashMap<>();
+            Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < this.keys.size(); i++) {
+                K key = this.naming.apply(this.keys.get(i));
+                byte[] rawKey = Objects.isNull(keySerializer) ? (byte[]) key : keySerializer.serialize(key);
+                Object node = slotNodes.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(rawKey), clusterConnection::clusterGetNodeForSlot);
+                groups.computeIfAbsent(node, n -> new ArrayList<>()).add(i);
+            }
+            return groups.values();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void send(List<Integer> group, Object[] replies, String naming) {
+        // the executor may run the task on the caller thread, its naming is restored
+        String previous = KeyNamingKit.get();
+        setNaming(naming);
+        try {
+            this.send(group, replies);
+        } finally {
+            setNaming(previous);
+        }
+    }
+
+    private static void setNaming(String naming) {
+        if (Objects.isNull(naming)) {
+            KeyNamingKit.remove();
+        } else {
+            KeyNamingKit.set(naming);
+        }
+    }
+
+    private void send(List<Integer> group, Object[] replies) {
+        List<Object> results;
+        try {
+            results = this.templateX.getRedisTemplate().executePipelined(new PipelineSessionCallback<>((PipelineSessionCallbackX<Object>) () ->
+                    group.forEach(i -> this.commands.get(i).apply(this.templateX))));
+        } catch (RedisPipelineException e) {
+            throw e;
+        } catch (InvalidDataAccessApiUsageException | UnsupportedOperationException e) {
+            // the connection can not pipeline, one by one
+            for (Integer i : group) {
+                replies[i] = this.commands.get(i).apply(this.templateX);
+            }
+            return;
+        }
+        if (results.size() != group.size()) {
+            throw new IllegalStateException(String.format("%d replies for %d pipelined commands, one command must issue exactly one redis command with a reply.", results.size(), group.size()));
+        }
+        for (int i = 0; i < group.size(); i++) {
+            replies[group.get(i)] = results.get(i);
+        }
+    }
+}
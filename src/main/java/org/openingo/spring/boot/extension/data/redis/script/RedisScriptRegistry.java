@@ -0,0 +1,210 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.script;
+
+import org.openingo.spring.boot.extension.data.redis.naming.IKeyNamingPolicy;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * RedisScriptRegistry, the lua scripts invoked by EVALSHA, a NOSCRIPT (the server restarted or
+ * flushed its scripts) loads the script by SCRIPT LOAD and invokes it again, so one script body is
+ * sent once per server. the KEYS are named by the key naming policy.
+ *
+ * the String, Number and Boolean ARGV are sent as their UTF-8 text, the others by the value serializer,
+ * the bulk results are read by the value serializer. not for the pipelines and the transactions.
+ *
+ * @author Qicz
+ */
+@SuppressWarnings("unchecked")
+public class RedisScriptRegistry {
+
+    private static final String NO_SCRIPT = "NOSCRIPT";
+
+    private final RedisTemplate<String, ?> redisTemplate;
+
+    private final IKeyNamingPolicy keyNamingPolicy;
+
+    private final ConcurrentMap<String, RedisScript<?>> scripts = new ConcurrentHashMap<>();
+
+    public RedisScriptRegistry(RedisTemplate<String, ?> redisTemplate) {
+        this(redisTemplate, null);
+    }
+
+    /**
+     * @param redisTemplate the template of the connections and the serializers
+     * @param keyNamingPolicy the naming of the KEYS, {@literal null} to keep the KEYS as given
+     */
+    public RedisScriptRegistry(RedisTemplate<String, ?> redisTemplate, IKeyNamingPolicy keyNamingPolicy) {
+        this.redisTemplate = redisTemplate;
+        this.keyNamingPolicy = keyNamingPolicy;
+    }
+
+    /**
+     * Register the script by name
+     * @param name the script name
+     * @param script the lua script
+     * @param resultType the result type, Long, Boolean, List or the value type
+     * @return the registered script
+     */
+    public <T> RedisScript<T> register(String name, String script, Class<T> resultType) {
+        return this.register(name, new DefaultRedisScript<>(script, resultType));
+    }
+
+    /**
+     * Register the script by name, the same name with another script body is rejected
+     * @param name the script name
+     * @param script the script
+     * @return the registered script
+     */
+    public <T> RedisScript<T> register(String name, RedisScript<T> script) {
+        RedisScript<?> registered = this.scripts.putIfAbsent(name, script);
+        if (Objects.isNull(registered)) {
+            return script;
+        }
+        if (!registered.getSha1().equals(script.getSha1())) {
+            throw new IllegalArgumentException(String.format("the script `%s` is registered with another body", name));
+        }
+        return (RedisScript<T>) registered;
+    }
+
+    /**
+     * @param name the script name
+     * @return the registered script
+     */
+    public <T> RedisScript<T> getScript(String name) {
+        RedisScript<?> script = this.scripts.get(name);
+        if (Objects.isNull(script)) {
+            throw new IllegalArgumentException(String.format("the script `%s` is not registered", name));
+        }
+        return (RedisScript<T>) script;
+    }
+
+    /**
+     * Execute the registered script
+     * @param name the script name
+     * @param keys the KEYS, named by the key naming policy
+     * @param args the ARGV
+     * @return the script result
+     */
+    public <T> T execute(String name, List<String> keys, Object... args) {
+        return this.execute(this.<T>getScript(name), keys, args);
+    }
+
+    /**
+     * Execute the script by EVALSHA, loading it on NOSCRIPT
+     * @param script the script
+     * @param keys the KEYS, named by the key naming policy
+     * @param args the ARGV
+     * @return the script result
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+        int numKeys = keys.size();
+        byte[][] keysAndArgs = new byte[numKeys + args.length][];
+        int i = 0;
+        for (String key : keys) {
+            keysAndArgs[i++] = this.rawKey(key);
+        }
+        for (Object arg : args) {
+            keysAndArgs[i++] = this.rawArg(arg);
+        }
+        return this.redisTemplate.execute((RedisCallback<T>) connection -> {
+            Object result;
+            try {
+                result = connection.evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!noScript(e)) {
+                    throw e;
+                }
+                connection.scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                result = connection.evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+            }
+            return (T) this.deserializeResult(result);
+        });
+    }
+
+    private byte[] rawKey(String key) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) this.redisTemplate.getKeySerializer();
+        if (Objects.isNull(this.keyNamingPolicy)) {
+            return Objects.isNull(keySerializer) ? key.getBytes(StandardCharsets.UTF_8) : keySerializer.serialize(key);
+        }
+        if (Objects.isNull(keySerializer) || keySerializer == RedisSerializer.string()) {
+            return this.keyNamingPolicy.getRawKeyName(key);
+        }
+        return keySerializer.serialize(this.keyNamingPolicy.getKeyName(key));
+    }
+
+    private byte[] rawArg(Object arg) {
+        if (arg instanceof byte[]) {
+            return (byte[]) arg;
+        }
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) this.redisTemplate.getValueSerializer();
+        if (Objects.isNull(valueSerializer) || arg instanceof String || arg instanceof Number || arg instanceof Boolean) {
+            return String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+        }
+        return valueSerializer.serialize(arg);
+    }
+
+    private Object deserializeResult(Object result) {
+        if (result instanceof byte[]) {
+            RedisSerializer<?> valueSerializer = this.redisTemplate.getValueSerializer();
+            return Objects.isNull(valueSerializer) ? result : valueSerializer.deserialize((byte[]) result);
+        }
+        if (result instanceof List) {
+            List<?> results = (List<?>) result;
+            List<Object> values = new ArrayList<>(results.size());
+            for (Object each : results) {
+                values.add(this.deserializeResult(each));
+            }
+            return values;
+        }
+        return result;
+    }
+
+    private static boolean noScript(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (Objects.nonNull(cause.getMessage()) && cause.getMessage().contains(NO_SCRIPT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
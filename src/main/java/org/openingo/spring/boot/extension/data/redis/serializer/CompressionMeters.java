@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompressionMeters, the value compression meters.
+ *
+ * redis.serializer.compression.values: the compressed values (result=compressed) and the raw ones (result=skipped)
+ * redis.serializer.compression.bytes: the original (stage=raw) and the compressed (stage=compressed) bytes
+ * redis.serializer.compression.ratio: raw bytes / compressed bytes of the compressed values
+ * redis.serializer.compression.time: the cpu time compressing (operation=compress) and decompressing (operation=decompress)
+ *
+ * @author Qicz
+ */
+public class CompressionMeters implements MeterBinder {
+
+    private final CompressionRedisSerializer<?> serializer;
+
+    private final Tags tags;
+
+    /**
+     * @param serializer the compression serializer
+     * @param name the serializer tag
+     */
+    public CompressionMeters(CompressionRedisSerializer<?> serializer, String name) {
+        this.serializer = serializer;
+        this.tags = Tags.of("serializer", name, "algorithm", serializer.getCompressor().name());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("redis.serializer.compression.values", this.serializer, CompressionRedisSerializer::getCompressedValues)
+                .tags(this.tags).tag("result", "compressed")
+                .description("the compressed values")
+                .register(registry);
+        FunctionCounter.builder("redis.serializer.compression.values", this.serializer, CompressionRedisSerializer::getSkippedValues)
+                .tags(this.tags).tag("result", "skipped")
+                .description("the values under the threshold or incompressible")
+                .register(registry);
+        FunctionCounter.builder("redis.serializer.compression.bytes", this.serializer, CompressionRedisSerializer::getRawBytes)
+                .tags(this.tags).tag("stage", "raw")
+                .baseUnit("bytes")
+                .description("the original bytes of the compressed values")
+                .register(registry);
+        FunctionCounter.builder("redis.serializer.compression.bytes", this.serializer, CompressionRedisSerializer::getCompressedBytes)
+                .tags(this.tags).tag("stage", "compressed")
+                .baseUnit("bytes")
+                .description("the bytes of the compressed values")
+                .register(registry);
+        Gauge.builder("redis.serializer.compression.ratio", this.serializer, CompressionRedisSerializer::getCompressionRatio)
+                .tags(this.tags)
+                .description("raw bytes / compressed bytes of the compressed values")
+                .register(registry);
+        FunctionTimer.builder("redis.serializer.compression.time", this.serializer,
+                        CompressionRedisSerializer::getCompressions, CompressionRedisSerializer::getCompressNanos, TimeUnit.NANOSECONDS)
+                .tags(this.tags).tag("operation", "compress")
+                .description("the time compressing the values")
+                .register(registry);
+        FunctionTimer.builder("redis.serializer.compression.time", this.serializer,
+                        CompressionRedisSerializer::getDecompressedValues, CompressionRedisSerializer::getDecompressNanos, TimeUnit.NANOSECONDS)
+                .tags(this.tags).tag("operation", "decompress")
+                .description("the time decompressing the values")
+                .register(registry);
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import org.openingo.jdkits.validate.ValidateKit;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * CompressionRedisSerializer, compresses the values of the delegate serializer
+ * from the threshold length, when the compression saves bytes.
+ *
+ * the compressed values: the marker of the compressor (1 byte), the original length (4 bytes)
+ * and the compressed bytes. the other values are the delegate bytes, as before the compression,
+ * so the values written before the rollout are still read. only when the delegate bytes start
+ * with a marker byte (0xC0, 0xC1 or 0xF5) the raw marker 0xC0 is put in front.
+ *
+ * the markers are never the first byte of a UTF-8 text (string, json), but the binary delegates
+ * (fst, kryo, cbor, where 0xF5 is {@code true} and 0xC0, 0xC1 are tags) may start with them, so a
+ * value written before the rollout can look marked. a marked value is read through the delegate as
+ * it is when its header does not hold (the original length not above the value length, compression
+ * always saves bytes) or when it does not decompress.
+ *
+ * both the lz4 and the zstd values are read whichever compressor writes, so the algorithm can be
+ * switched, the other decompressor is created on the first value (its library on the classpath).
+ * the original length is capped, a corrupted header does not allocate up to 2 GB.
+ *
+ * the compression buffers are reused per thread, the counters give the compression ratio and the time spent.
+ *
+ * @author Qicz
+ */
+public class CompressionRedisSerializer<T> implements ISerializer<T> {
+
+    private static final byte RAW_MARKER = (byte) 0xC0;
+
+    static final byte LZ4_MARKER = (byte) 0xC1;
+
+    static final byte ZSTD_MARKER = (byte) 0xF5;
+
+    private static final int HEADER_LENGTH = 5;
+
+    /**
+     * the default maximum original length of the compressed values
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64 << 20;
+
+    // the larger buffers are not kept by the threads
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final RedisSerializer<T> delegate;
+
+    private final ICompressor compressor;
+
+    private final int threshold;
+
+    private final int maxLength;
+
+    private volatile ICompressor lz4;
+
+    private volatile ICompressor zstd;
+
+    private final LongAdder compressedValues = new LongAdder();
+
+    private final LongAdder skippedValues = new LongAdder();
+
+    private final LongAdder rawBytes = new LongAdder();
+
+    private final LongAdder compressedBytes = new LongAdder();
+
+    private final LongAdder compressions = new LongAdder();
+
+    private final LongAdder compressNanos = new LongAdder();
+
+    private final LongAdder decompressedValues = new LongAdder();
+
+    private final LongAdder decompressNanos = new LongAdder();
+
+    /**
+     * @param delegate the serializer of the values
+     * @param compressor the compressor
+     * @param threshold the minimum length of the compressed values
+     */
+    public CompressionRedisSerializer(RedisSerializer<T> delegate, ICompressor compressor, int threshold) {
+        this(delegate, compressor, threshold, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param delegate the serializer of the values
+     * @param compressor the compressor
+     * @param threshold the minimum length of the compressed values
+     * @param maxLength the maximum original length of the compressed values, larger are neither written nor read
+     */
+    public CompressionRedisSerializer(RedisSerializer<T> delegate, ICompressor compressor, int threshold, int maxLength) {
+        Assert.notNull(delegate, "delegate must not be null");
+        Assert.notNull(compressor, "compressor must not be null");
+        Assert.isTrue(maxLength > 0, "maxLength must be positive");
+        this.delegate = delegate;
+        this.compressor = compressor;
+        this.threshold = Math.max(threshold, HEADER_LENGTH + 1);
+        this.maxLength = maxLength;
+        if (compressor.marker() == LZ4_MARKER) {
+            this.lz4 = compressor;
+        } else if (compressor.marker() == ZSTD_MARKER) {
+            this.zstd = compressor;
+        }
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        byte[] bytes = this.delegate.serialize(t);
+        if (ValidateKit.isNull(bytes) || bytes.length == 0) {
+            return bytes;
+        }
+        if (bytes.length < this.threshold || bytes.length > this.maxLength) {
+            this.skippedValues.increment();
+            return this.raw(bytes);
+        }
+
+        long start = System.nanoTime();
+        int maxLength = HEADER_LENGTH + this.compressor.maxCompressedLength(bytes.length);
+        byte[] buffer = BUFFER.get();
+        if (buffer.length < maxLength) {
+            buffer = new byte[maxLength];
+            if (maxLength <= MAX_POOLED_BUFFER) {
+                BUFFER.set(buffer);
+            }
+        }
+        int compressedLength;
+        try {
+            compressedLength = this.compressor.compress(bytes, buffer, HEADER_LENGTH);
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+        if (HEADER_LENGTH + compressedLength >= bytes.length) {
+            // incompressible
+            this.compressNanos.add(System.nanoTime() - start);
+            this.compressions.increment();
+            this.skippedValues.increment();
+            return this.raw(bytes);
+        }
+        buffer[0] = this.compressor.marker();
+        writeLength(buffer, bytes.length);
+        byte[] compressed = Arrays.copyOf(buffer, HEADER_LENGTH + compressedLength);
+        this.compressNanos.add(System.nanoTime() - start);
+        this.compressions.increment();
+        this.compressedValues.increment();
+        this.rawBytes.add(bytes.length);
+        this.compressedBytes.add(compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (ValidateKit.isNull(bytes) || bytes.length == 0) {
+            return this.delegate.deserialize(bytes);
+        }
+        byte marker = bytes[0];
+        if (marker == RAW_MARKER) {
+            try {
+                return this.delegate.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+            } catch (SerializationException e) {
+                return this.unmarked(bytes, e);
+            }
+        }
+        if (marker != LZ4_MARKER && marker != ZSTD_MARKER) {
+            return this.delegate.deserialize(bytes);
+        }
+        if (bytes.length <= HEADER_LENGTH) {
+            return this.delegate.deserialize(bytes);
+        }
+        int length = readLength(bytes);
+        if (length <= bytes.length) {
+            // not a compressed value, the compression saves bytes
+            return this.delegate.deserialize(bytes);
+        }
+        if (length > this.maxLength) {
+            return this.unmarked(bytes, new SerializationException(String.format("the compressed value of %d bytes exceeds the maximum length %d", length, this.maxLength)));
+        }
+
+        long start = System.nanoTime();
+        byte[] decompressed = new byte[length];
+        try {
+            this.decompressor(marker).decompress(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, decompressed);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            return this.unmarked(bytes, new SerializationException(e.toString(), e));
+        }
+        this.decompressNanos.add(System.nanoTime() - start);
+        this.decompressedValues.increment();
+        return this.delegate.deserialize(decompressed);
+    }
+
+    /**
+     * read a marked value through the delegate as it is, a value written before the rollout
+     * @param bytes the marked value
+     * @param cause the failure reading it as a marked value, thrown when the delegate cannot read it either
+     */
+    private T unmarked(byte[] bytes, SerializationException cause) {
+        try {
+            return this.delegate.deserialize(bytes);
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+            throw cause;
+        }
+    }
+
+    private ICompressor decompressor(byte marker) {
+        if (marker == LZ4_MARKER) {
+            ICompressor lz4 = this.lz4;
+            if (ValidateKit.isNull(lz4)) {
+                this.lz4 = lz4 = this.create("lz4", "net.jpountz.lz4.LZ4Factory", Lz4Compressor::new);
+            }
+            return lz4;
+        }
+        ICompressor zstd = this.zstd;
+        if (ValidateKit.isNull(zstd)) {
+            this.zstd = zstd = this.create("zstd", "com.github.luben.zstd.Zstd", () -> new ZstdCompressor(3));
+        }
+        return zstd;
+    }
+
+    private ICompressor create(String name, String className, Supplier<ICompressor> supplier) {
+        if (!ClassUtils.isPresent(className, CompressionRedisSerializer.class.getClassLoader())) {
+            throw new SerializationException(String.format("the value is compressed by %s, %s is not on the classpath", name, className));
+        }
+        return supplier.get();
+    }
+
+    private byte[] raw(byte[] bytes) {
+        byte first = bytes[0];
+        if (first != RAW_MARKER && first != LZ4_MARKER && first != ZSTD_MARKER) {
+            return bytes;
+        }
+        byte[] raw = new byte[bytes.length + 1];
+        raw[0] = RAW_MARKER;
+        System.arraycopy(bytes, 0, raw, 1, bytes.length);
+        return raw;
+    }
+
+    private static void writeLength(byte[] buffer, int length) {
+        buffer[1] = (byte) (length >>> 24);
+        buffer[2] = (byte) (length >>> 16);
+        buffer[3] = (byte) (length >>> 8);
+        buffer[4] = (byte) length;
+    }
+
+    private static int readLength(byte[] bytes) {
+        return ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16) | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+    }
+
+    public ICompressor getCompressor() {
+        return this.compressor;
+    }
+
+    /**
+     * @return the count of the compressed values
+     */
+    public long getCompressedValues() {
+        return this.compressedValues.sum();
+    }
+
+    /**
+     * @return the count of the values kept raw, under the threshold or incompressible
+     */
+    public long getSkippedValues() {
+        return this.skippedValues.sum();
+    }
+
+    /**
+     * @return the original bytes of the compressed values
+     */
+    public long getRawBytes() {
+        return this.rawBytes.sum();
+    }
+
+    /**
+     * @return the bytes of the compressed values, with the headers
+     */
+    public long getCompressedBytes() {
+        return this.compressedBytes.sum();
+    }
+
+    /**
+     * @return raw bytes / compressed bytes of the compressed values, 1 before any compression
+     */
+    public double getCompressionRatio() {
+        long compressed = this.getCompressedBytes();
+        return compressed == 0 ? 1.0 : (double) this.getRawBytes() / compressed;
+    }
+
+    /**
+     * @return the count of the compression attempts, the incompressible values included
+     */
+    public long getCompressions() {
+        return this.compressions.sum();
+    }
+
+    /**
+     * @return the nanoseconds spent compressing
+     */
+    public long getCompressNanos() {
+        return this.compressNanos.sum();
+    }
+
+    /**
+     * @return the count of the decompressed values
+     */
+    public long getDecompressedValues() {
+        return this.decompressedValues.sum();
+    }
+
+    /**
+     * @return the nanoseconds spent decompressing
+     */
+    public long getDecompressNanos() {
+        return this.decompressNanos.sum();
+    }
+}
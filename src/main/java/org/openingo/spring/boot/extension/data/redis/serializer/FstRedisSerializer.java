@@ -27,29 +27,24 @@
 
 package org.openingo.spring.boot.extension.data.redis.serializer;
 
-import org.nustaq.serialization.FSTObjectInput;
-import org.nustaq.serialization.FSTObjectOutput;
+import org.nustaq.serialization.FSTConfiguration;
 import org.openingo.jdkits.validate.ValidateKit;
 import org.springframework.data.redis.serializer.SerializationException;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-
 /**
- * FstRedisSerializer
+ * FstRedisSerializer, the streams are reused per thread by the shared
+ * {@link FSTConfiguration}, the same default configuration as the {@code FSTObjectOutput}.
  *
  * @author Qicz
  */
 public class FstRedisSerializer<T> implements ISerializer<T> {
 
+    private static final FSTConfiguration CONFIGURATION = FSTConfiguration.createDefaultConfiguration();
+
     @Override
     public byte[] serialize(T t) throws SerializationException {
         try {
-            ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-            FSTObjectOutput fstOut = new FSTObjectOutput(bytesOut);
-            fstOut.writeObject(t);
-            fstOut.flush();
-            return bytesOut.toByteArray();
+            return CONFIGURATION.asByteArray(t);
         } catch (Exception e) {
             throw new SerializationException(e.toString(), e);
         }
@@ -62,8 +57,7 @@ public class FstRedisSerializer<T> implements ISerializer<T> {
         }
 
         try {
-            FSTObjectInput fstInput = new FSTObjectInput(new ByteArrayInputStream(bytes));
-            return (T)fstInput.readObject();
+            return (T)CONFIGURATION.asObject(bytes);
         } catch (Exception e) {
             throw new SerializationException(e.toString(), e);
         }
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+/**
+ * ICompressor, the block compression of the {@link CompressionRedisSerializer}
+ *
+ * @author Qicz
+ */
+public interface ICompressor {
+
+    /**
+     * @return the header byte of the values compressed by this compressor
+     */
+    byte marker();
+
+    /**
+     * @return the algorithm name
+     */
+    String name();
+
+    /**
+     * @param length the length of the bytes to compress
+     * @return the maximum compressed length
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compress {@code src} into {@code dst} from {@code dstOffset}
+     * @param src the bytes to compress
+     * @param dst the buffer, at least {@code dstOffset + maxCompressedLength(src.length)}
+     * @param dstOffset the offset of the compressed bytes in {@code dst}
+     * @return the compressed length
+     */
+    int compress(byte[] src, byte[] dst, int dstOffset);
+
+    /**
+     * Decompress {@code src[srcOffset, srcOffset + srcLength)} into the whole {@code dst}
+     * @param src the compressed bytes
+     * @param srcOffset the offset of the compressed bytes in {@code src}
+     * @param srcLength the compressed length
+     * @param dst the decompressed bytes, sized as the original length
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst);
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openingo.jdkits.validate.ValidateKit;
+import org.openingo.spring.boot.extension.cachex.store.CacheXValue;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+
+/**
+ * JacksonRedisSerializer, a binary jackson format (Smile or CBOR), the class names are written
+ * with the values so the {@code Object} values read back as their types, the buffers are
+ * recycled per thread by jackson.
+ *
+ * only the classes of the given base packages, the value classes of this library (the
+ * {@link CacheXValue} of the cachex), the arrays and the plain jdk values (numbers, strings,
+ * booleans, characters, {@code java.util} and {@code java.time}) are read back, a class name
+ * written to redis by anyone else can not pick any other class to instantiate.
+ *
+ * @author Qicz
+ */
+public class JacksonRedisSerializer<T> implements ISerializer<T> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+
+    private final Class<T> type;
+
+    public JacksonRedisSerializer(ObjectMapper objectMapper, Class<T> type) {
+        Assert.notNull(objectMapper, "objectMapper must not be null");
+        Assert.notNull(type, "type must not be null");
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    /**
+     * @param basePackages the packages of the value classes, eg: {@code com.example.model}
+     * @return the Smile serializer of the values
+     */
+    public static JacksonRedisSerializer<Object> smile(Collection<String> basePackages) {
+        return new JacksonRedisSerializer<>(typedObjectMapper(new SmileFactory(), basePackages), Object.class);
+    }
+
+    /**
+     * @param basePackages the packages of the value classes, eg: {@code com.example.model}
+     * @return the CBOR serializer of the values
+     */
+    public static JacksonRedisSerializer<Object> cbor(Collection<String> basePackages) {
+        return new JacksonRedisSerializer<>(typedObjectMapper(new CBORFactory(), basePackages), Object.class);
+    }
+
+    private static ObjectMapper typedObjectMapper(JsonFactory jsonFactory, Collection<String> basePackages) {
+        BasicPolymorphicTypeValidator.Builder validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubTypeIsArray()
+                .allowIfSubType(Number.class)
+                .allowIfSubType(String.class)
+                .allowIfSubType(Boolean.class)
+                .allowIfSubType(Character.class)
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType(CacheXValue.class);
+        for (String basePackage : basePackages) {
+            Assert.hasText(basePackage, "the base package must not be empty");
+            validator.allowIfSubType(basePackage.endsWith(".") ? basePackage : basePackage + ".");
+        }
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
+        objectMapper.findAndRegisterModules();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        // the final types too, so a Long does not read back as an Integer
+        objectMapper.activateDefaultTyping(validator.build(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        return objectMapper;
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        if (ValidateKit.isNull(t)) {
+            return EMPTY;
+        }
+
+        try {
+            return this.objectMapper.writeValueAsBytes(t);
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (ValidateKit.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+
+        try {
+            return this.objectMapper.readValue(bytes, this.type);
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+    }
+}
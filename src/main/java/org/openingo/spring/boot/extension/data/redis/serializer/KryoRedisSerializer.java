@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.Pool;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.openingo.jdkits.validate.ValidateKit;
+import org.openingo.spring.boot.extension.cachex.store.CacheXValue;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * KryoRedisSerializer, the {@link Kryo} instances and their buffers are pooled,
+ * the registered classes are written as ids instead of the class names,
+ * the ids follow the order of the registered classes, keep it the same on all the nodes.
+ *
+ * with registered classes the registration is required: only those classes (and the kryo
+ * defaults, the primitives and {@code String}) are written and read back, the {@link CacheXValue}
+ * of the cachex is registered after them. without any registered class every class is written
+ * by name and any class named in redis is instantiated, so register the value classes when
+ * redis may be written by others.
+ *
+ * @author Qicz
+ */
+public class KryoRedisSerializer<T> implements ISerializer<T> {
+
+    private static final int POOL_SIZE = 64;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    // the larger output buffers are not kept by the pool
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Pool<Kryo> kryoPool;
+
+    private final Pool<Output> outputPool = new Pool<Output>(true, false, POOL_SIZE) {
+        @Override
+        protected Output create() {
+            // grows without limit, the buffer is reused by the next writes up to MAX_POOLED_BUFFER
+            return new Output(BUFFER_SIZE, -1);
+        }
+    };
+
+    private final Pool<Input> inputPool = new Pool<Input>(true, false, POOL_SIZE) {
+        @Override
+        protected Input create() {
+            return new Input();
+        }
+    };
+
+    public KryoRedisSerializer() {
+        this(Collections.emptyList());
+    }
+
+    public KryoRedisSerializer(Collection<Class<?>> registeredClasses) {
+        List<Class<?>> classes = new ArrayList<>(registeredClasses);
+        boolean registrationRequired = !classes.isEmpty();
+        if (registrationRequired && !classes.contains(CacheXValue.class)) {
+            classes.add(CacheXValue.class);
+        }
+        this.kryoPool = new Pool<Kryo>(true, false, POOL_SIZE) {
+            @Override
+            protected Kryo create() {
+                Kryo kryo = new Kryo();
+                kryo.setRegistrationRequired(registrationRequired);
+                kryo.setReferences(true);
+                kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+                classes.forEach(kryo::register);
+                return kryo;
+            }
+        };
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        Kryo kryo = this.kryoPool.obtain();
+        Output output = this.outputPool.obtain();
+        try {
+            output.reset();
+            kryo.writeClassAndObject(output, t);
+            return output.toBytes();
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        } finally {
+            if (output.getBuffer().length <= MAX_POOLED_BUFFER) {
+                this.outputPool.free(output);
+            }
+            this.kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (ValidateKit.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+
+        Kryo kryo = this.kryoPool.obtain();
+        Input input = this.inputPool.obtain();
+        try {
+            input.setBuffer(bytes);
+            return (T)kryo.readClassAndObject(input);
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        } finally {
+            // not holding the value bytes in the pool
+            input.setBuffer(EMPTY);
+            this.inputPool.free(input);
+            this.kryoPool.free(kryo);
+        }
+    }
+}
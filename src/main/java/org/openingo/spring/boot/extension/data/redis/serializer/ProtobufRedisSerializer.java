@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Internal;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import org.openingo.jdkits.validate.ValidateKit;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ProtobufRedisSerializer, the values are the registered protobuf messages,
+ * written as a {@code google.protobuf.Any}: the type url and the message bytes,
+ * the type url picks the parser of the registered message when reading.
+ *
+ * @author Qicz
+ */
+public class ProtobufRedisSerializer<T> implements ISerializer<T> {
+
+    private static final String TYPE_URL_PREFIX = "type.googleapis.com/";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Map<Class<?>, String> typeUrls = new HashMap<>();
+
+    private final Map<String, Parser<? extends Message>> parsers = new HashMap<>();
+
+    public ProtobufRedisSerializer(Collection<Class<?>> messageClasses) {
+        for (Class<?> messageClass : messageClasses) {
+            if (!Message.class.isAssignableFrom(messageClass)) {
+                throw new IllegalArgumentException(String.format("%s is not a protobuf message", messageClass.getName()));
+            }
+            Message defaultInstance = Internal.getDefaultInstance((Class<? extends Message>)messageClass);
+            String typeUrl = TYPE_URL_PREFIX + defaultInstance.getDescriptorForType().getFullName();
+            this.typeUrls.put(messageClass, typeUrl);
+            this.parsers.put(typeUrl, defaultInstance.getParserForType());
+        }
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        if (ValidateKit.isNull(t)) {
+            return EMPTY;
+        }
+
+        String typeUrl = this.typeUrls.get(t.getClass());
+        if (ValidateKit.isNull(typeUrl)) {
+            throw new SerializationException(String.format("%s is not a registered protobuf message", t.getClass().getName()));
+        }
+        Message message = (Message)t;
+        try {
+            // the Any fields written in place, without packing a copy of the message bytes
+            byte[] bytes = new byte[CodedOutputStream.computeStringSize(Any.TYPE_URL_FIELD_NUMBER, typeUrl)
+                    + CodedOutputStream.computeMessageSize(Any.VALUE_FIELD_NUMBER, message)];
+            CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+            output.writeString(Any.TYPE_URL_FIELD_NUMBER, typeUrl);
+            output.writeMessage(Any.VALUE_FIELD_NUMBER, message);
+            output.checkNoSpaceLeft();
+            return bytes;
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (ValidateKit.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+
+        Any any;
+        try {
+            any = Any.parseFrom(bytes);
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+        Parser<? extends Message> parser = this.parsers.get(any.getTypeUrl());
+        if (ValidateKit.isNull(parser)) {
+            throw new SerializationException(String.format("%s is not a registered protobuf message", any.getTypeUrl()));
+        }
+        try {
+            return (T)parser.parseFrom(any.getValue());
+        } catch (Exception e) {
+            throw new SerializationException(e.toString(), e);
+        }
+    }
+}
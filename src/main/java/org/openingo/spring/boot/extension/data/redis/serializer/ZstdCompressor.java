@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.serializer;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * ZstdCompressor, the zstd compressor, better ratio than lz4 for more cpu
+ *
+ * @author Qicz
+ */
+public class ZstdCompressor implements ICompressor {
+
+    private final int level;
+
+    /**
+     * @param level the compression level, 1 (fastest) to 22, 3 as the zstd default
+     */
+    public ZstdCompressor(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte marker() {
+        return CompressionRedisSerializer.ZSTD_MARKER;
+    }
+
+    @Override
+    public String name() {
+        return "zstd";
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return (int) Zstd.compressBound(length);
+    }
+
+    @Override
+    public int compress(byte[] src, byte[] dst, int dstOffset) {
+        long size = Zstd.compressByteArray(dst, dstOffset, dst.length - dstOffset, src, 0, src.length, this.level);
+        if (Zstd.isError(size)) {
+            throw new IllegalStateException(Zstd.getErrorName(size));
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst) {
+        long size = Zstd.decompressByteArray(dst, 0, dst.length, src, srcOffset, srcLength);
+        if (Zstd.isError(size)) {
+            throw new IllegalStateException(Zstd.getErrorName(size));
+        }
+        if (size != dst.length) {
+            throw new IllegalStateException(String.format("malformed zstd value, %d of %d bytes decompressed", size, dst.length));
+        }
+    }
+}
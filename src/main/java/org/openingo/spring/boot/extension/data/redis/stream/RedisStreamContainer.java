@@ -0,0 +1,323 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.openingo.spring.boot.extension.data.redis.stream;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * RedisStreamContainer, one consumer of a consumer group reading a stream by XREADGROUP
+ * with COUNT and BLOCK, the records are handled in parallel on {@code concurrency} threads.
+ *
+ * the handled records are acknowledged together, one XACK before every read. a failed
+ * record is not acknowledged, it stays pending and is claimed again (by this or another
+ * consumer) once idle for {@code minIdle}, so a record is handled at least once, keep
+ * {@code minIdle} above the longest handling.
+ *
+ * a record delivered {@code maxDeliveries} times (a poison record) is moved to the dead
+ * letter stream, or acknowledged and dropped without one, the pending records deleted or
+ * trimmed from the stream are acknowledged, on the reclaim.
+ *
+ * at most {@code concurrency * batchSize} records are in flight, the reads wait meanwhile.
+ *
+ * @author Qicz
+ * @since 2021/9/27 10:20
+ */
+@Slf4j
+public class RedisStreamContainer<K, HK, HV> implements DisposableBean {
+
+    private final RedisTemplateX<K, ?> templateX;
+
+    private final K key;
+
+    private final String group;
+
+    private final String consumer;
+
+    private final Consumer<MapRecord<K, HK, HV>> handler;
+
+    private final Options options;
+
+    private final K deadLetterKey;
+
+    private final Semaphore inFlight;
+
+    private final Queue<String> acks = new ConcurrentLinkedQueue<>();
+
+    private final ExecutorService workers;
+
+    private final Thread poller;
+
+    private final LongAdder handled = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder reclaimed = new LongAdder();
+
+    private volatile boolean closed;
+
+    public RedisStreamContainer(RedisTemplateX<K, ?> templateX,
+                                K key,
+                                String group,
+                                String consumer,
+                                Consumer<MapRecord<K, HK, HV>> handler) {
+        this(templateX, key, group, consumer, handler, new Options());
+    }
+
+    public RedisStreamContainer(RedisTemplateX<K, ?> templateX,
+                                K key,
+                                String group,
+                                String consumer,
+                                Consumer<MapRecord<K, HK, HV>> handler,
+                                Options options) {
+        this(templateX, key, group, consumer, handler, options, null);
+    }
+
+    /**
+     * @param templateX the template the stream is read with
+     * @param key the stream key
+     * @param group the consumer group, created when missing
+     * @param consumer the consumer name, unique in the group
+     * @param handler handles one record, throws to leave it pending
+     * @param options the container options
+     * @param deadLetterKey the stream of the records delivered {@code maxDeliveries} times, in the same
+     *                      cluster slot as the {@code key}, {@literal null} to drop them
+     */
+    public RedisStreamContainer(RedisTemplateX<K, ?> templateX,
+                                K key,
+                                String group,
+                                String consumer,
+                                Consumer<MapRecord<K, HK, HV>> handler,
+                                Options options,
+                                K deadLetterKey) {
+        if (options.getConcurrency() <= 0 || options.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("concurrency and batchSize must be positive.");
+        }
+        this.templateX = templateX;
+        this.key = key;
+        this.group = group;
+        this.consumer = consumer;
+        this.handler = handler;
+        this.options = options;
+        this.deadLetterKey = deadLetterKey;
+        this.inFlight = new Semaphore(options.getConcurrency() * options.getBatchSize());
+        AtomicInteger index = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(options.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, String.format("redis-stream-%s-%d", group, index.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller = new Thread(this::pollLoop, String.format("redis-stream-%s-poller", group));
+        this.poller.setDaemon(true);
+    }
+
+    /**
+     * Create the consumer group when missing and start reading.
+     */
+    public void start() {
+        if (Boolean.TRUE.equals(this.templateX.xGroupCreate(this.key, this.group, this.options.getGroupOffset()))) {
+            log.info("the consumer group `{}` of stream `{}` is created", this.group, this.key);
+        }
+        this.poller.start();
+    }
+
+    /**
+     * @return the handled records
+     */
+    public long getHandled() {
+        return this.handled.sum();
+    }
+
+    /**
+     * @return the failed records, left pending
+     */
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    /**
+     * @return the pending records claimed from the idle consumers
+     */
+    public long getReclaimed() {
+        return this.reclaimed.sum();
+    }
+
+    @Override
+    public void destroy() {
+        this.closed = true;
+        this.poller.interrupt();
+        try {
+            this.poller.join(TimeUnit.SECONDS.toMillis(5));
+            this.workers.shutdown();
+            this.workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flushAcks();
+    }
+
+    private void pollLoop() {
+        int batchSize = this.options.getBatchSize();
+        long reclaimIntervalNanos = this.options.getReclaimInterval().toNanos();
+        long nextReclaim = System.nanoTime();
+        while (!this.closed) {
+            try {
+                this.flushAcks();
+                // wait for a free slot, then read as many records as there are free slots
+                if (!this.inFlight.tryAcquire(this.options.getBlock().toMillis(), TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+                this.inFlight.release();
+                int capacity = Math.min(batchSize, this.inFlight.availablePermits());
+                if (System.nanoTime() - nextReclaim >= 0) {
+                    nextReclaim = System.nanoTime() + reclaimIntervalNanos;
+                    List<MapRecord<K, HK, HV>> claimed = this.templateX.xClaimIdle(this.key, this.group, this.consumer,
+                            this.options.getMinIdle(), capacity, this.options.getMaxDeliveries(), this.deadLetterKey);
+                    this.reclaimed.add(claimed.size());
+                    this.dispatch(claimed);
+                    continue;
+                }
+                List<MapRecord<K, HK, HV>> records = this.templateX.xReadGroup(this.key, this.group, this.consumer,
+                        ReadOffset.lastConsumed(), capacity, this.options.getBlock());
+                this.dispatch(records);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (this.closed) {
+                    return;
+                }
+                log.error("the stream `{}` read failure of consumer `{}`", this.key, this.consumer, e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(this.options.getBlock().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<MapRecord<K, HK, HV>> records) {
+        if (Objects.isNull(records) || records.isEmpty()) {
+            return;
+        }
+        this.inFlight.acquireUninterruptibly(records.size());
+        for (MapRecord<K, HK, HV> record : records) {
+            this.workers.execute(() -> this.handle(record));
+        }
+    }
+
+    private void handle(MapRecord<K, HK, HV> record) {
+        try {
+            this.handler.accept(record);
+            this.acks.add(record.getId().getValue());
+            this.handled.increment();
+        } catch (Throwable throwable) {
+            this.failed.increment();
+            log.error("the stream `{}` record `{}` handle failure, left pending", this.key, record.getId(), throwable);
+        } finally {
+            this.inFlight.release();
+        }
+    }
+
+    private void flushAcks() {
+        if (this.acks.isEmpty()) {
+            return;
+        }
+        List<String> recordIds = new ArrayList<>();
+        for (String recordId = this.acks.poll(); Objects.nonNull(recordId); recordId = this.acks.poll()) {
+            recordIds.add(recordId);
+        }
+        try {
+            this.templateX.xAck(this.key, this.group, recordIds.toArray(new String[0]));
+        } catch (RuntimeException e) {
+            // not acknowledged, claimed again once idle
+            log.error("the stream `{}` ack failure of {} records", this.key, recordIds.size(), e);
+        }
+    }
+
+    /**
+     * the container options
+     */
+    @Data
+    public static class Options {
+
+        /**
+         * the handler threads
+         */
+        private int concurrency = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * the COUNT of one XREADGROUP
+         */
+        private int batchSize = 100;
+
+        /**
+         * the BLOCK of one XREADGROUP
+         */
+        private Duration block = Duration.ofSeconds(2);
+
+        /**
+         * the idle time of a pending record before it is claimed
+         */
+        private Duration minIdle = Duration.ofMinutes(1);
+
+        /**
+         * the interval of claiming the idle pending records
+         */
+        private Duration reclaimInterval = Duration.ofSeconds(30);
+
+        /**
+         * the deliveries of a record before it is moved to the dead letter stream, 0 for no limit
+         */
+        private long maxDeliveries = 16;
+
+        /**
+         * the offset a new consumer group starts after
+         */
+        private ReadOffset groupOffset = ReadOffset.latest();
+    }
+}
@@ -30,8 +30,12 @@ package org.openingo.spring.boot.extension.distributedlock.store;
 import lombok.extern.slf4j.Slf4j;
 import org.openingo.jdkits.http.RespData;
 import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
+import org.openingo.spring.boot.extension.data.redis.script.RedisScriptRegistry;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -44,8 +48,18 @@ import java.util.Objects;
 @Slf4j
 public class DistributedLockStore extends RedisTemplateX<String, String> {
 
+	// compare the token and delete in one round trip, no other owner's lock is deleted
+	private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+	private static final RedisScript<Long> EXTEND_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+	private final RedisScriptRegistry scriptRegistry;
+
 	public DistributedLockStore(StringRedisTemplate stringRedisTemplate) {
 		super(stringRedisTemplate);
+		this.scriptRegistry = new RedisScriptRegistry(stringRedisTemplate);
 	}
 
 	/**
@@ -76,13 +90,9 @@ public class DistributedLockStore extends RedisTemplateX<String, String> {
 	 * @param lockToken token
 	 */
 	public RespData unlock(String resource, String lockToken) {
-		final String token = this.get(key(resource));
-		if (!Objects.equals(token, lockToken)) {
-			return RespData.failure("unlock failure");
-		}
 		try {
-			final Boolean ret = this.del(key(resource));
-			if (Objects.nonNull(ret) && ret) {
+			final Long ret = this.scriptRegistry.execute(UNLOCK_SCRIPT, Collections.singletonList(key(resource)), lockToken);
+			if (Objects.equals(ret, 1L)) {
 				return RespData.success();
 			}
 			return RespData.failure("unlock failure");
@@ -102,13 +112,12 @@ public class DistributedLockStore extends RedisTemplateX<String, String> {
 	public RespData extendedLockExpireTime(String resource,
 										   String lockToken,
 										   Integer expireTimeInSecond) {
-		final String token = this.get(key(resource));
-		if (!Objects.equals(token, lockToken)) {
-			return RespData.failure("extended lock failure");
-		}
 		try {
-			this.setEx(key(resource), expireTimeInSecond, lockToken);
-			return RespData.success();
+			final Long ret = this.scriptRegistry.execute(EXTEND_SCRIPT, Collections.singletonList(key(resource)), lockToken, expireTimeInSecond);
+			if (Objects.equals(ret, 1L)) {
+				return RespData.success();
+			}
+			return RespData.failure("extended lock failure");
 		} catch (Throwable throwable) {
 			log.error("extended lock error", throwable);
 			return RespData.failure("extended lock failure");
@@ -60,4 +60,9 @@ public class EtcdIdEngineConfigProperties {
      * config etcd auth password.
      */
     private String password;
+
+    /**
+     * the `etcd-segment` engine properties.
+     */
+    private final SegmentProperties segment = new SegmentProperties();
 }
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.config;
+
+import lombok.Data;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FailoverIdEngineConfigProperties
+ *
+ * @author Qicz
+ * @since 2021/9/1 14:10
+ */
+@Data
+@ConfigurationProperties(prefix = PropertiesConstants.GEDID_ENGINE_FAILOVER_CONFIG_PROPERTIES_PREFIX)
+public class FailoverIdEngineConfigProperties {
+
+    /**
+     * enable the `failover` engine.
+     */
+    private boolean enabled = false;
+
+    /**
+     * the ordered engine names of every business.
+     *
+     * orders: redis-segment, zookeeper, snowflake
+     */
+    private Map<String, List<String>> chains = new HashMap<>();
+
+    /**
+     * the ordered engine names of the businesses without chain.
+     */
+    private List<String> defaultChain = Collections.emptyList();
+
+    /**
+     * the consecutive failures to open the circuit of one engine.
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * the duration of the open circuit, then one probe call closes or reopens it.
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * the calls slower than it count as failures.
+     */
+    private Duration slowCallDuration = Duration.ofMillis(100);
+
+    /**
+     * the id space of one chain position, the position {@code i} serves {@code i * memberIdSpan + id},
+     * the ids of the engines not at the last position must stay below it.
+     */
+    private long memberIdSpan = 1_000_000_000_000_000L;
+}
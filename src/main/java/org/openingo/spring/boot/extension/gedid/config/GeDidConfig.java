@@ -31,22 +31,42 @@ import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.ClientBuilder;
 import io.lettuce.core.RedisClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
 import org.openingo.spring.boot.extension.gedid.engine.etcd.EtcdIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.etcd.EtcdSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.failover.FailoverIdEngine;
 import org.openingo.spring.boot.extension.gedid.engine.redis.RedisIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.redis.RedisSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.segment.AbstractSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint.IHighWaterMarkStore;
+import org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint.JdbcHighWaterMarkStore;
+import org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint.MappedFileHighWaterMarkStore;
 import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeLayout;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.worker.IWorkerIdAssigner;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.worker.RedisWorkerIdAssigner;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.worker.ZookeeperWorkerIdAssigner;
 import org.openingo.spring.boot.extension.gedid.engine.uuid.UuidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.uuid.UuidV7Engine;
 import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperIdEngine;
 import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperIdEngineMode;
+import org.openingo.spring.boot.extension.gedid.engine.zookeeper.ZookeeperSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.metrics.MeteredDidEngine;
+import org.openingo.spring.boot.extension.gedid.loader.DidEngineDecorator;
 import org.openingo.spring.boot.extension.gedid.loader.DidLoader;
 import org.openingo.spring.boot.extension.gedid.loader.DidLoaderConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.zookeeper.ZookeeperAutoConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -54,8 +74,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import javax.sql.DataSource;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * GeDidConfig
@@ -65,6 +92,7 @@ import java.nio.charset.StandardCharsets;
  */
 @Configuration
 @Import(DidLoaderConfiguration.class)
+@EnableConfigurationProperties({ SnowflakeIdEngineConfigProperties.class, HighWaterMarkConfigProperties.class })
 public class GeDidConfig {
 
 	@Bean
@@ -72,6 +100,38 @@ public class GeDidConfig {
 		return new DidLoader();
 	}
 
+	@Configuration
+	@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_HIGH_WATER_MARK_CONFIG_PROPERTIES_PREFIX, name = "store", havingValue = "file")
+	static class FileHighWaterMarkConfig {
+
+		@Bean(destroyMethod = "close")
+		MappedFileHighWaterMarkStore mappedFileHighWaterMarkStore(HighWaterMarkConfigProperties properties) {
+			return new MappedFileHighWaterMarkStore(properties.getDirectory());
+		}
+	}
+
+	@Configuration
+	@ConditionalOnClass({ JdbcTemplate.class })
+	@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_HIGH_WATER_MARK_CONFIG_PROPERTIES_PREFIX, name = "store", havingValue = "jdbc")
+	static class JdbcHighWaterMarkConfig {
+
+		@Bean
+		JdbcHighWaterMarkStore jdbcHighWaterMarkStore(DataSource dataSource, HighWaterMarkConfigProperties properties) {
+			return new JdbcHighWaterMarkStore(dataSource, properties.getTable(), properties.getDataSourceKey());
+		}
+	}
+
+	/**
+	 * checkpoint the segment engine with the high-water mark store if any
+	 */
+	private static <E extends AbstractSegmentIdEngine> E checkpoint(E engine, ObjectProvider<IHighWaterMarkStore> highWaterMarkStore, HighWaterMarkConfigProperties properties) {
+		IHighWaterMarkStore store = highWaterMarkStore.getIfAvailable();
+		if (Objects.nonNull(store)) {
+			engine.setHighWaterMarkStore(store, properties.getInterval(), properties.getSafetyGap());
+		}
+		return engine;
+	}
+
 	@Configuration
 	@ConditionalOnClass({ RedisOperations.class, RedisClient.class })
 	@Import({LettuceConnectionConfiguration.class, JedisConnectionConfiguration.class})
@@ -84,6 +144,20 @@ public class GeDidConfig {
 			template.afterPropertiesSet();
 			return new RedisIdEngine(template);
 		}
+
+		@Bean(destroyMethod = "close")
+		RedisSegmentIdEngine redisSegmentIdEngine(RedisIdEngine redisIdEngine, RedisIdEngineConfigProperties properties,
+												  ObjectProvider<IHighWaterMarkStore> highWaterMarkStore, HighWaterMarkConfigProperties highWaterMarkProperties) {
+			SegmentProperties segment = properties.getSegment();
+			return checkpoint(new RedisSegmentIdEngine(redisIdEngine, segment.getStep(), segment.getMaxStep(), segment.getPrefetchRatio(), segment.getSegmentDuration()),
+					highWaterMarkStore, highWaterMarkProperties);
+		}
+
+		@Bean(destroyMethod = "close")
+		@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_ENGINE_SNOWFLAKE_CONFIG_PROPERTIES_PREFIX, name = "worker-id-assigner", havingValue = "redis")
+		RedisWorkerIdAssigner redisWorkerIdAssigner(RedisIdEngine redisIdEngine, SnowflakeIdEngineConfigProperties properties) {
+			return new RedisWorkerIdAssigner(redisIdEngine.getRedisTemplate(), properties.getLeaseTtl());
+		}
 	}
 
 	@Slf4j
@@ -112,6 +186,20 @@ public class GeDidConfig {
 			return new ZookeeperIdEngine(curator, mode);
 		}
 
+		@Bean(destroyMethod = "close")
+		ZookeeperSegmentIdEngine zookeeperSegmentIdEngine(ZookeeperIdEngine zookeeperIdEngine, ZookeeperIdEngineConfigProperties properties,
+														  ObjectProvider<IHighWaterMarkStore> highWaterMarkStore, HighWaterMarkConfigProperties highWaterMarkProperties) {
+			SegmentProperties segment = properties.getSegment();
+			return checkpoint(new ZookeeperSegmentIdEngine(zookeeperIdEngine, segment.getStep(), segment.getMaxStep(), segment.getPrefetchRatio(), segment.getSegmentDuration()),
+					highWaterMarkStore, highWaterMarkProperties);
+		}
+
+		@Bean(destroyMethod = "close")
+		@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_ENGINE_SNOWFLAKE_CONFIG_PROPERTIES_PREFIX, name = "worker-id-assigner", havingValue = "zookeeper")
+		ZookeeperWorkerIdAssigner zookeeperWorkerIdAssigner(ZookeeperIdEngine zookeeperIdEngine) {
+			return new ZookeeperWorkerIdAssigner(zookeeperIdEngine.getCurator());
+		}
+
 		private RetryPolicy exponentialBackoffRetry(ZookeeperIdEngineConfigProperties properties) {
 			return new ExponentialBackoffRetry(properties.getBaseSleepTimeMs(), properties.getMaxRetries(), properties.getMaxSleepMs());
 		}
@@ -130,6 +218,11 @@ public class GeDidConfig {
 		UuidEngine uuidEngine() {
 			return new UuidEngine();
 		}
+
+		@Bean
+		UuidV7Engine uuidV7Engine() {
+			return new UuidV7Engine();
+		}
 	}
 
 	@Configuration
@@ -137,8 +230,70 @@ public class GeDidConfig {
 
 		@Bean
 		@ConditionalOnMissingBean
-		SnowflakeIdEngine snowflakeIdEngine() {
-			return new SnowflakeIdEngine();
+		SnowflakeIdEngine snowflakeIdEngine(SnowflakeIdEngineConfigProperties properties, ObjectProvider<IWorkerIdAssigner> workerIdAssigner) {
+			SnowflakeLayout layout = properties.toLayout();
+			IWorkerIdAssigner assigner = workerIdAssigner.getIfAvailable();
+			if (Objects.nonNull(assigner)) {
+				return new SnowflakeIdEngine(layout, assigner, properties.getMaxBorrowMillis());
+			}
+			String assignerName = properties.getWorkerIdAssigner();
+			if (Objects.nonNull(assignerName) && !assignerName.trim().isEmpty()) {
+				// never fall back to the fixed node id silently, the nodes would share it
+				throw new IllegalArgumentException(String.format("the snowflake worker id assigner `%s` is not available, " +
+						"expected `redis` or `zookeeper` with its id engine configured.", assignerName));
+			}
+			return new SnowflakeIdEngine(layout, properties.getWorkerId(), properties.getDataCenterId(), properties.getMaxBorrowMillis());
+		}
+	}
+
+	@Configuration
+	@ConditionalOnClass({ MeterRegistry.class })
+	@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_METRICS_CONFIG_PROPERTIES_PREFIX, name = "enabled", havingValue = "true", matchIfMissing = true)
+	@EnableConfigurationProperties(GeDidMetricsConfigProperties.class)
+	static class MetricsConfig {
+
+		@Bean
+		DidEngineDecorator meteredDidEngineDecorator(ObjectProvider<MeterRegistry> meterRegistry, GeDidMetricsConfigProperties properties) {
+			double[] percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+			return engine -> {
+				MeterRegistry registry = meterRegistry.getIfAvailable();
+				if (Objects.isNull(registry)) {
+					return engine;
+				}
+				return new MeteredDidEngine(engine, registry, percentiles, properties.isPercentileHistogram());
+			};
+		}
+	}
+
+	@Configuration
+	@ConditionalOnProperty(prefix = PropertiesConstants.GEDID_ENGINE_FAILOVER_CONFIG_PROPERTIES_PREFIX, name = "enabled", havingValue = "true")
+	@EnableConfigurationProperties(FailoverIdEngineConfigProperties.class)
+	static class FailoverConfig {
+
+		@Bean
+		FailoverIdEngine failoverIdEngine(FailoverIdEngineConfigProperties properties, List<IDidEngine> engines) {
+			Map<String, IDidEngine> engineMapping = new HashMap<>();
+			engines.forEach(engine -> engineMapping.put(engine.engineName(), engine));
+			Map<String, List<IDidEngine>> chains = new HashMap<>();
+			properties.getChains().forEach((businessName, engineNames) -> chains.put(businessName, this.toChain(engineMapping, engineNames)));
+			return new FailoverIdEngine(chains,
+					this.toChain(engineMapping, properties.getDefaultChain()),
+					properties.getFailureThreshold(),
+					properties.getOpenDuration(),
+					properties.getSlowCallDuration(),
+					properties.getMemberIdSpan());
+		}
+
+		private List<IDidEngine> toChain(Map<String, IDidEngine> engineMapping, List<String> engineNames) {
+			List<IDidEngine> chain = new ArrayList<>(engineNames.size());
+			for (String engineName : engineNames) {
+				IDidEngine engine = engineMapping.get(engineName);
+				if (Objects.isNull(engine)) {
+					throw new IllegalArgumentException(String.format("the failover chain engine `%s` is not exist.", engineName));
+				}
+				chain.add(engine);
+			}
+			return chain;
 		}
 	}
 
@@ -161,5 +316,13 @@ public class GeDidConfig {
 			Client etcdClient = clientBuilder.build();
 			return new EtcdIdEngine(etcdClient);
 		}
+
+		@Bean(destroyMethod = "close")
+		EtcdSegmentIdEngine etcdSegmentIdEngine(EtcdIdEngine etcdIdEngine, EtcdIdEngineConfigProperties properties,
+												ObjectProvider<IHighWaterMarkStore> highWaterMarkStore, HighWaterMarkConfigProperties highWaterMarkProperties) {
+			SegmentProperties segment = properties.getSegment();
+			return checkpoint(new EtcdSegmentIdEngine(etcdIdEngine, segment.getStep(), segment.getMaxStep(), segment.getPrefetchRatio(), segment.getSegmentDuration()),
+					highWaterMarkStore, highWaterMarkProperties);
+		}
 	}
 }
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.config;
+
+import lombok.Data;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GeDidMetricsConfigProperties
+ *
+ * @author Qicz
+ * @since 2021/9/2 11:05
+ */
+@Data
+@ConfigurationProperties(prefix = PropertiesConstants.GEDID_METRICS_CONFIG_PROPERTIES_PREFIX)
+public class GeDidMetricsConfigProperties {
+
+    /**
+     * enable the micrometer metrics of the engines followed by the did loader.
+     */
+    private boolean enabled = true;
+
+    /**
+     * the client side percentiles of the timers, eg: 0.5, 0.99, 0.999, default none,
+     * every percentile records every id into a histogram.
+     */
+    private List<Double> percentiles = new ArrayList<>();
+
+    /**
+     * publish the histogram buckets of the timers, for the server side percentiles (eg: prometheus).
+     */
+    private boolean percentileHistogram = false;
+}
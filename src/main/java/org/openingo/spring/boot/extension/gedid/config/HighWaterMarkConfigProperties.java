@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.config;
+
+import lombok.Data;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * HighWaterMarkConfigProperties, the checkpoint of the segment engines
+ *
+ * @author Qicz
+ * @since 2021/9/3 14:20
+ */
+@Data
+@ConfigurationProperties(prefix = PropertiesConstants.GEDID_HIGH_WATER_MARK_CONFIG_PROPERTIES_PREFIX)
+public class HighWaterMarkConfigProperties {
+
+    /**
+     * the high-water mark store of the segment engines, off if absent.
+     *
+     * file: the local memory-mapped files, jdbc: the table shared by all the nodes.
+     */
+    private String store;
+
+    /**
+     * the directory of the memory-mapped files.
+     */
+    private String directory = System.getProperty("user.home") + "/.gedid";
+
+    /**
+     * the table of the high-water marks.
+     */
+    private String table = "gedid_high_water_mark";
+
+    /**
+     * the routing data source key of the table, the current data source if absent.
+     */
+    private String dataSourceKey;
+
+    /**
+     * the checkpoint interval.
+     */
+    private Duration interval = Duration.ofSeconds(1);
+
+    /**
+     * the ids skipped over the checkpoint when resuming, also the max ids
+     * reserved over the last checkpoint before saving it at once.
+     */
+    private long safetyGap = 100000L;
+}
@@ -86,6 +86,11 @@ public class RedisIdEngineConfigProperties {
 
 	private final Lettuce lettuce = new Lettuce();
 
+	/**
+	 * The `redis-segment` engine properties.
+	 */
+	private final SegmentProperties segment = new SegmentProperties();
+
 	public int getDatabase() {
 		return this.database;
 	}
@@ -166,6 +171,10 @@ public class RedisIdEngineConfigProperties {
 		return this.lettuce;
 	}
 
+	public SegmentProperties getSegment() {
+		return this.segment;
+	}
+
 	/**
 	 * Pool properties.
 	 */
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.config;
+
+import java.time.Duration;
+
+/**
+ * SegmentProperties, the id segment engine properties
+ *
+ * @author Qicz
+ * @since 2021/8/20 10:12
+ */
+public class SegmentProperties {
+
+	/**
+	 * Initial (and min) count of ids reserved by one segment.
+	 */
+	private int step = 1000;
+
+	/**
+	 * Max count of ids reserved by one segment.
+	 */
+	private int maxStep = 100000;
+
+	/**
+	 * Consumed ratio of the current segment to prefetch the next one.
+	 */
+	private double prefetchRatio = 0.8D;
+
+	/**
+	 * Expected duration of one segment, the step doubles when one segment is
+	 * consumed faster and halves when it lasts more than twice of the duration.
+	 */
+	private Duration segmentDuration = Duration.ofMinutes(15);
+
+	public int getStep() {
+		return this.step;
+	}
+
+	public void setStep(int step) {
+		this.step = step;
+	}
+
+	public int getMaxStep() {
+		return this.maxStep;
+	}
+
+	public void setMaxStep(int maxStep) {
+		this.maxStep = maxStep;
+	}
+
+	public double getPrefetchRatio() {
+		return this.prefetchRatio;
+	}
+
+	public void setPrefetchRatio(double prefetchRatio) {
+		this.prefetchRatio = prefetchRatio;
+	}
+
+	public Duration getSegmentDuration() {
+		return this.segmentDuration;
+	}
+
+	public void setSegmentDuration(Duration segmentDuration) {
+		this.segmentDuration = segmentDuration;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.config;
+
+import lombok.Data;
+import org.openingo.spring.boot.constants.PropertiesConstants;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeLayout;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SnowflakeIdEngineConfigProperties
+ *
+ * @author Qicz
+ * @since 2021/8/24 11:20
+ */
+@Data
+@ConfigurationProperties(prefix = PropertiesConstants.GEDID_ENGINE_SNOWFLAKE_CONFIG_PROPERTIES_PREFIX)
+public class SnowflakeIdEngineConfigProperties {
+
+    /**
+     * worker id (0 ~ 2^workerIdBits - 1), ignored with the worker id assigner.
+     */
+    private long workerId = 0L;
+
+    /**
+     * data center id (0 ~ 2^dataCenterIdBits - 1), ignored with the worker id assigner.
+     */
+    private long dataCenterId = 0L;
+
+    /**
+     * lease the worker id and data center id at startup.
+     *
+     * redis: lease from the redis id engine server, zookeeper: lease from the zookeeper id engine server.
+     */
+    private String workerIdAssigner;
+
+    /**
+     * the ttl of the redis worker id lease, renewed every third of it.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * max millis the id timestamp may run ahead of the system clock,
+     * absorbs small clock rollbacks and sequence overflow by borrowing future millis.
+     *
+     * 0: refuse clock rollbacks and wait for the next millis when the sequence overflows.
+     */
+    private long maxBorrowMillis = 0L;
+
+    /**
+     * the epoch millis of the id timestamp, default 2015-01-01.
+     */
+    private long epoch = SnowflakeLayout.DEFAULT.getEpoch();
+
+    /**
+     * the time unit of the id timestamp, eg: 1ms, 10ms,
+     * a coarser unit trades timestamp precision for years of timestamp bits.
+     */
+    private Duration timestampUnit = Duration.ofMillis(SnowflakeLayout.DEFAULT.getTimeUnitMillis());
+
+    /**
+     * the bits of data center id.
+     */
+    private int dataCenterIdBits = SnowflakeLayout.DEFAULT.getDataCenterIdBits();
+
+    /**
+     * the bits of worker id.
+     */
+    private int workerIdBits = SnowflakeLayout.DEFAULT.getWorkerIdBits();
+
+    /**
+     * the bits of sequence per time unit, eg: 12 bits for 4096 ids per unit.
+     */
+    private int sequenceBits = SnowflakeLayout.DEFAULT.getSequenceBits();
+
+    /**
+     * the bit layout, validated at startup
+     * @return snowflake layout
+     */
+    public SnowflakeLayout toLayout() {
+        return new SnowflakeLayout(this.epoch, this.timestampUnit.toMillis(), this.dataCenterIdBits, this.workerIdBits, this.sequenceBits);
+    }
+}
@@ -80,6 +80,11 @@ public class ZookeeperIdEngineConfigProperties {
 	 */
 	private TimeUnit blockUntilConnectedUnit = TimeUnit.SECONDS;
 
+	/**
+	 * The `zookeeper-segment` engine properties.
+	 */
+	private final SegmentProperties segment = new SegmentProperties();
+
 	public String getConnectString() {
 		return this.connectString;
 	}
@@ -108,6 +113,10 @@ public class ZookeeperIdEngineConfigProperties {
 		return this.blockUntilConnectedUnit;
 	}
 
+	public SegmentProperties getSegment() {
+		return this.segment;
+	}
+
 	public void setConnectString(String connectString) {
 		this.connectString = connectString;
 	}
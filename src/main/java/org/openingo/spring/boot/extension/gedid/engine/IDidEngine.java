@@ -27,6 +27,8 @@
 
 package org.openingo.spring.boot.extension.gedid.engine;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * IDidEngine
  *
@@ -70,6 +72,63 @@ public interface IDidEngine<T> {
 	 */
 	T next(String businessName);
 
+	/**
+	 * the next id without blocking the caller on the remote round trip,
+	 * the local engines complete immediately
+	 * @param businessName the business name
+	 * @return the future of next id
+	 */
+	default CompletableFuture<T> nextAsync(String businessName) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			future.complete(this.next(businessName));
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * the next id without boxing, only for the numeric ids
+	 * @param businessName the business name
+	 * @return Next id.
+	 */
+	default long nextLongId(String businessName) {
+		T id = this.next(businessName);
+		if (!(id instanceof Number)) {
+			this.unsupportedOperation("nextLongId");
+		}
+		return ((Number) id).longValue();
+	}
+
+	/**
+	 * the next n ids, only for the numeric ids
+	 * @param businessName the business name
+	 * @param n the count of ids
+	 * @return next n ids
+	 */
+	default long[] nextBatch(String businessName, int n) {
+		long[] ids = new long[Math.max(n, 0)];
+		for (int i = 0; i < ids.length; i++) {
+			T id = this.next(businessName);
+			if (!(id instanceof Number)) {
+				this.unsupportedOperation("nextBatch");
+			}
+			ids[i] = ((Number) id).longValue();
+		}
+		return ids;
+	}
+
+	/**
+	 * the engine serving one followed business, asked once after the follow, the decorators
+	 * bind their per business state to it out of the per id path
+	 * @param businessName the business name
+	 * @return the engine of the business, default this engine
+	 */
+	default IDidEngine<T> forBusiness(String businessName) {
+		return this;
+	}
+
 	/**
 	 * throw onw unsupportedOperationException
 	 * @param operation unsupported operation
@@ -38,6 +38,8 @@ import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * EtcdIdEngine
@@ -82,12 +84,7 @@ public class EtcdIdEngine implements IDidEngine<Long> {
     public Long next(String businessName) {
         long id = -1L;
         try {
-            PutOption putOption = PutOption.newBuilder().withPrevKV().build();
-            PutResponse putResponse = kvClient.put(
-                    this.toByteSequence(this.getEmbellishedName(businessName)),
-                    this.toByteSequence(""),
-                    putOption).get();
-            id = putResponse.getPrevKv().getVersion() + this.startId;
+            id = this.toId(this.put(businessName).get());
         } catch (Exception e) {
             e.printStackTrace();
             log.error(e.getLocalizedMessage());
@@ -96,11 +93,47 @@ public class EtcdIdEngine implements IDidEngine<Long> {
         return id;
     }
 
+    @Override
+    public CompletableFuture<Long> nextAsync(String businessName) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        try {
+            this.put(businessName).whenComplete((putResponse, e) -> {
+                if (Objects.nonNull(e)) {
+                    Throwable cause = e instanceof CompletionException && Objects.nonNull(e.getCause()) ? e.getCause() : e;
+                    log.error(cause.getLocalizedMessage());
+                    future.completeExceptionally(new DidException(cause.getLocalizedMessage()));
+                    return;
+                }
+                future.complete(this.toId(putResponse));
+            });
+        } catch (Exception e) {
+            log.error(e.getLocalizedMessage());
+            future.completeExceptionally(new DidException(e.getLocalizedMessage()));
+        }
+        return future;
+    }
+
     @Override
     public String engineName() {
         return "etcd";
     }
 
+    KV getKvClient() {
+        return this.kvClient;
+    }
+
+    private CompletableFuture<PutResponse> put(String businessName) {
+        PutOption putOption = PutOption.newBuilder().withPrevKV().build();
+        return kvClient.put(
+                this.toByteSequence(this.getEmbellishedName(businessName)),
+                this.toByteSequence(""),
+                putOption);
+    }
+
+    private long toId(PutResponse putResponse) {
+        return putResponse.getPrevKv().getVersion() + this.startId;
+    }
+
     private ByteSequence toByteSequence(String data) {
         return ByteSequence.from(data.getBytes(StandardCharsets.UTF_8));
     }
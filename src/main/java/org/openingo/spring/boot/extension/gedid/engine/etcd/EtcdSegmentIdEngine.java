@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.etcd;
+
+import io.etcd.jetcd.ByteSequence;
+import io.etcd.jetcd.KV;
+import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.kv.GetResponse;
+import io.etcd.jetcd.op.Cmp;
+import io.etcd.jetcd.op.CmpTarget;
+import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.PutOption;
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.exception.DidException;
+import org.openingo.spring.boot.extension.gedid.engine.segment.AbstractSegmentIdEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * EtcdSegmentIdEngine, the key value keeps the last reserved id,
+ * one segment is reserved by one `txn` comparing the mod revision (compare-and-set).
+ * a business followed by the etcd engine before is seeded after its issued ids.
+ *
+ * @author Qicz
+ * @since 2021/8/21 14:36
+ */
+@Slf4j
+public class EtcdSegmentIdEngine extends AbstractSegmentIdEngine {
+
+    private final KV kvClient;
+
+    private final EtcdIdEngine etcdIdEngine;
+
+    public EtcdSegmentIdEngine(EtcdIdEngine etcdIdEngine, int step, int maxStep, double prefetchRatio, Duration segmentDuration) {
+        super(step, maxStep, prefetchRatio, segmentDuration);
+        this.kvClient = etcdIdEngine.getKvClient();
+        this.etcdIdEngine = etcdIdEngine;
+    }
+
+    @Override
+    protected void initialize(String businessName, Long startId) throws Exception {
+        ByteSequence key = this.toByteSequence(this.getEmbellishedName(businessName));
+        // create the key only if absent
+        this.kvClient.txn()
+                .If(new Cmp(key, Cmp.Op.EQUAL, CmpTarget.version(0L)))
+                .Then(Op.put(key, this.toByteSequence(String.valueOf(this.seed(businessName, startId))), PutOption.DEFAULT))
+                .commit()
+                .get();
+    }
+
+    /**
+     * the first reserved id, after the ids already issued by the etcd engine for this business
+     */
+    private long seed(String businessName, Long startId) throws Exception {
+        ByteSequence baseKey = this.toByteSequence(this.etcdIdEngine.getEmbellishedName(businessName));
+        List<KeyValue> kvs = this.kvClient.get(baseKey).get().getKvs();
+        if (kvs.isEmpty()) {
+            return startId - 1L;
+        }
+        log.info("the business `{}` segment is seeded from the etcd engine key", businessName);
+        // one put per issued id
+        return Math.max(startId - 1L, kvs.get(0).getVersion() + startId);
+    }
+
+    @Override
+    protected long reserve(String businessName, int step) throws Exception {
+        ByteSequence key = this.toByteSequence(this.getEmbellishedName(businessName));
+        while (true) {
+            GetResponse getResponse = this.kvClient.get(key).get();
+            List<KeyValue> kvs = getResponse.getKvs();
+            if (kvs.isEmpty()) {
+                throw new DidException(String.format("the business `%s` is not initialized", businessName));
+            }
+            KeyValue kv = kvs.get(0);
+            long max = Long.parseLong(kv.getValue().toString(StandardCharsets.UTF_8)) + step;
+            boolean succeeded = this.kvClient.txn()
+                    .If(new Cmp(key, Cmp.Op.EQUAL, CmpTarget.modRevision(kv.getModRevision())))
+                    .Then(Op.put(key, this.toByteSequence(String.valueOf(max)), PutOption.DEFAULT))
+                    .commit()
+                    .get()
+                    .isSucceeded();
+            if (succeeded) {
+                return max;
+            }
+            log.debug("the business `{}` segment is reserved by others, retrying", businessName);
+        }
+    }
+
+    @Override
+    public String getEmbellishedName(String businessName) {
+        return String.format("%s-segment-%s", GEDID, businessName);
+    }
+
+    @Override
+    public String engineName() {
+        return "etcd-segment";
+    }
+
+    private ByteSequence toByteSequence(String data) {
+        return ByteSequence.from(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
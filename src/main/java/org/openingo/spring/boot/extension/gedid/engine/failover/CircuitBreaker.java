@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.failover;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CircuitBreaker, consecutive failures open it for a while,
+ * then one probe call decides to close or reopen it
+ *
+ * @author Qicz
+ * @since 2021/9/1 10:20
+ */
+class CircuitBreaker {
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private final AtomicInteger failures = new AtomicInteger();
+
+	private final AtomicBoolean probing = new AtomicBoolean();
+
+	private volatile boolean open;
+
+	private volatile long openUntilNanos;
+
+	CircuitBreaker(int failureThreshold, long openNanos) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openNanos;
+	}
+
+	/**
+	 * a closed breaker allows all the calls, an open one allows one probe after the open duration
+	 * @return true allowed
+	 */
+	boolean allow() {
+		if (!this.open) {
+			return true;
+		}
+		if (System.nanoTime() - this.openUntilNanos < 0L) {
+			return false;
+		}
+		return this.probing.compareAndSet(false, true);
+	}
+
+	void onSuccess() {
+		if (this.open) {
+			this.open = false;
+			this.probing.set(false);
+		}
+		if (this.failures.get() != 0) {
+			this.failures.set(0);
+		}
+	}
+
+	void onFailure() {
+		if (this.open) {
+			// the probe failed
+			this.trip();
+			return;
+		}
+		if (this.failures.incrementAndGet() >= this.failureThreshold) {
+			this.trip();
+		}
+	}
+
+	boolean isOpen() {
+		return this.open;
+	}
+
+	private void trip() {
+		this.openUntilNanos = System.nanoTime() + this.openNanos;
+		this.open = true;
+		this.probing.set(false);
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.failover;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.exception.DidException;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FailoverIdEngine, every business follows an ordered chain of engines,
+ * eg: redis-segment, zookeeper, snowflake.
+ *
+ * the first engine with a closed circuit serves the id, the failed or slow
+ * engines trip their circuit and are skipped without any remote call until
+ * the open duration elapsed.
+ *
+ * every position of a chain owns a disjoint id space: the position {@code i} serves
+ * {@code i * memberIdSpan + id}, the ids of an engine not at the last position must
+ * stay below {@code memberIdSpan}, the last position is only bounded by the long range
+ * (put the time based engines, eg: snowflake, last). so two engines never serve the same
+ * id, whatever the processes, the restarts and the switches.
+ *
+ * the ids of one business never go backwards in one process: switching to another
+ * engine only accepts ids above the high-water mark of the business, the engines
+ * whose spaces are below it are skipped without any remote call.
+ *
+ * @author Qicz
+ * @since 2021/9/1 11:02
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class FailoverIdEngine implements IDidEngine<Long> {
+
+	private final Map<String, List<FailoverMember>> chains = new HashMap<>();
+
+	private final List<FailoverMember> defaultChain;
+
+	private final Map<IDidEngine, FailoverMember> members = new LinkedHashMap<>();
+
+	private final Map<String, BusinessState> businessStates = new ConcurrentHashMap<>();
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private final long slowCallNanos;
+
+	private final long memberIdSpan;
+
+	/**
+	 * @param chains the chain of every business
+	 * @param defaultChain the chain of the other businesses
+	 * @param failureThreshold the consecutive failures to open the circuit
+	 * @param openDuration the duration of the open circuit
+	 * @param slowCallDuration the calls slower than it count as failures
+	 * @param memberIdSpan the id space of one chain position
+	 */
+	public FailoverIdEngine(Map<String, List<IDidEngine>> chains,
+							List<IDidEngine> defaultChain,
+							int failureThreshold,
+							Duration openDuration,
+							Duration slowCallDuration,
+							long memberIdSpan) {
+		if (failureThreshold <= 0) {
+			throw new IllegalArgumentException("the failure threshold must be greater than 0");
+		}
+		if (memberIdSpan <= 0) {
+			throw new IllegalArgumentException("the member id span must be greater than 0");
+		}
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openDuration.toNanos();
+		this.slowCallNanos = slowCallDuration.toNanos();
+		this.memberIdSpan = memberIdSpan;
+		chains.forEach((businessName, engines) -> this.chains.put(businessName, this.toMembers(engines)));
+		this.defaultChain = this.toMembers(defaultChain);
+		this.chains.forEach((businessName, chain) -> this.checkIdSpace(businessName, chain));
+		this.checkIdSpace("default", this.defaultChain);
+	}
+
+	/**
+	 * the offset of the last position must not overflow
+	 */
+	private void checkIdSpace(String chainName, List<FailoverMember> chain) {
+		if (chain.size() <= 1) {
+			return;
+		}
+		try {
+			Math.multiplyExact(this.memberIdSpan, (long) chain.size() - 1);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException(String.format("the member id span `%d` overflows the `%s` failover chain of %d engines",
+					this.memberIdSpan, chainName, chain.size()));
+		}
+	}
+
+	@Override
+	public void follow(String businessName, Long startId) {
+		List<FailoverMember> chain = this.chains.getOrDefault(businessName, this.defaultChain);
+		if (chain.isEmpty()) {
+			throw new DidException(String.format("the business `%s` has no failover chain", businessName));
+		}
+		this.businessStates.put(businessName, new BusinessState(chain, startId, this.memberIdSpan));
+		for (FailoverMember member : chain) {
+			this.follow(member, businessName, startId);
+		}
+	}
+
+	@Override
+	public Long next(String businessName) {
+		return this.nextLongId(businessName);
+	}
+
+	@Override
+	public long nextLongId(String businessName) {
+		BusinessState state = this.businessStates.get(businessName);
+		if (Objects.isNull(state)) {
+			throw new DidException(String.format("the business `%s` is not followed by `%s`", businessName, this.engineName()));
+		}
+		List<FailoverMember> chain = state.chain;
+		for (int i = 0; i < chain.size(); i++) {
+			FailoverMember member = chain.get(i);
+			if (state.isBelowHighWater(i)) {
+				// its whole space is below the served ids, no remote call
+				member.outOfOrder().increment();
+				continue;
+			}
+			CircuitBreaker circuitBreaker = member.getCircuitBreaker();
+			if (!circuitBreaker.allow()) {
+				member.rejected().increment();
+				continue;
+			}
+			long rawId;
+			long start = System.nanoTime();
+			try {
+				if (!member.getFollowedBusinesses().contains(businessName) && !this.follow(member, businessName, state.startId)) {
+					circuitBreaker.onFailure();
+					continue;
+				}
+				rawId = member.getEngine().nextLongId(businessName);
+			} catch (Exception e) {
+				member.failures().increment();
+				circuitBreaker.onFailure();
+				log.warn("the `{}` engine failed for the business `{}`: {}", member.getEngineName(), businessName, e.getLocalizedMessage());
+				continue;
+			}
+			if (System.nanoTime() - start > this.slowCallNanos) {
+				member.slowCalls().increment();
+				circuitBreaker.onFailure();
+			} else {
+				circuitBreaker.onSuccess();
+			}
+			if (!state.inSpace(i, rawId)) {
+				member.failures().increment();
+				circuitBreaker.onFailure();
+				log.error("the `{}` engine id `{}` of the business `{}` is out of its failover id space", member.getEngineName(), rawId, businessName);
+				continue;
+			}
+			long id = state.toId(i, rawId);
+			if (state.accept(i, id)) {
+				member.served().increment();
+				return id;
+			}
+			member.outOfOrder().increment();
+		}
+		throw new DidException(String.format("all the engines of the business `%s` are unavailable", businessName));
+	}
+
+	@Override
+	public String engineName() {
+		return "failover";
+	}
+
+	/**
+	 * the engines of all the chains with their health and counters
+	 * @return failover members
+	 */
+	public Collection<FailoverMember> getMembers() {
+		return Collections.unmodifiableCollection(this.members.values());
+	}
+
+	private boolean follow(FailoverMember member, String businessName, Long startId) {
+		IDidEngine engine = member.getEngine();
+		try {
+			engine.follow(businessName, engine.getFixedStartId(startId));
+			member.getFollowedBusinesses().add(businessName);
+			return true;
+		} catch (Exception e) {
+			member.failures().increment();
+			log.warn("the `{}` engine failed to follow the business `{}`: {}", member.getEngineName(), businessName, e.getLocalizedMessage());
+			return false;
+		}
+	}
+
+	private List<FailoverMember> toMembers(List<IDidEngine> engines) {
+		List<FailoverMember> chain = new ArrayList<>(engines.size());
+		for (IDidEngine engine : engines) {
+			if (engine == this) {
+				throw new IllegalArgumentException("the failover engine can't be one of its chain");
+			}
+			chain.add(this.members.computeIfAbsent(engine, e -> new FailoverMember(e, new CircuitBreaker(this.failureThreshold, this.openNanos))));
+		}
+		return Collections.unmodifiableList(chain);
+	}
+
+	/**
+	 * the chain, the id spaces, the high-water mark and the serving engine of one business
+	 */
+	private static final class BusinessState {
+
+		private final List<FailoverMember> chain;
+
+		private final AtomicLong highWater = new AtomicLong(Long.MIN_VALUE);
+
+		private volatile int serving = -1;
+
+		private final Long startId;
+
+		private final long memberIdSpan;
+
+		BusinessState(List<FailoverMember> chain, Long startId, long memberIdSpan) {
+			this.chain = chain;
+			this.startId = startId;
+			this.memberIdSpan = memberIdSpan;
+		}
+
+		boolean isLast(int index) {
+			return index == this.chain.size() - 1;
+		}
+
+		/**
+		 * the engine ids of a position, the last one is only bounded by the long range
+		 */
+		boolean inSpace(int index, long rawId) {
+			if (rawId < 0 || rawId > Long.MAX_VALUE - index * this.memberIdSpan) {
+				return false;
+			}
+			return this.isLast(index) || rawId < this.memberIdSpan;
+		}
+
+		long toId(int index, long rawId) {
+			return index * this.memberIdSpan + rawId;
+		}
+
+		/**
+		 * the largest id of a position is not above the high-water mark
+		 */
+		boolean isBelowHighWater(int index) {
+			if (this.isLast(index) || index == this.serving) {
+				return false;
+			}
+			return (index + 1) * this.memberIdSpan - 1 <= this.highWater.get();
+		}
+
+		/**
+		 * the serving engine keeps its own order, another engine takes over
+		 * only with an id above the high-water mark
+		 */
+		boolean accept(int index, long id) {
+			if (index == this.serving) {
+				this.highWater.accumulateAndGet(id, Math::max);
+				return true;
+			}
+			long current;
+			do {
+				current = this.highWater.get();
+				if (id <= current) {
+					return false;
+				}
+			} while (!this.highWater.compareAndSet(current, id));
+			this.serving = index;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.failover;
+
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FailoverMember, one engine of the failover chains with its health and counters
+ *
+ * @author Qicz
+ * @since 2021/9/1 10:35
+ */
+@SuppressWarnings("rawtypes")
+public final class FailoverMember {
+
+	private final IDidEngine engine;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final Set<String> followedBusinesses = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder served = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	private final LongAdder slowCalls = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder outOfOrder = new LongAdder();
+
+	FailoverMember(IDidEngine engine, CircuitBreaker circuitBreaker) {
+		this.engine = engine;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	IDidEngine getEngine() {
+		return this.engine;
+	}
+
+	CircuitBreaker getCircuitBreaker() {
+		return this.circuitBreaker;
+	}
+
+	Set<String> getFollowedBusinesses() {
+		return this.followedBusinesses;
+	}
+
+	LongAdder served() {
+		return this.served;
+	}
+
+	LongAdder failures() {
+		return this.failures;
+	}
+
+	LongAdder slowCalls() {
+		return this.slowCalls;
+	}
+
+	LongAdder rejected() {
+		return this.rejected;
+	}
+
+	LongAdder outOfOrder() {
+		return this.outOfOrder;
+	}
+
+	public String getEngineName() {
+		return this.engine.engineName();
+	}
+
+	/**
+	 * the circuit is open, the engine is skipped
+	 * @return true open
+	 */
+	public boolean isOpen() {
+		return this.circuitBreaker.isOpen();
+	}
+
+	/**
+	 * the count of ids served by the engine
+	 * @return served ids
+	 */
+	public long getServed() {
+		return this.served.sum();
+	}
+
+	/**
+	 * the count of failed calls
+	 * @return failures
+	 */
+	public long getFailures() {
+		return this.failures.sum();
+	}
+
+	/**
+	 * the count of calls slower than the slow call duration
+	 * @return slow calls
+	 */
+	public long getSlowCalls() {
+		return this.slowCalls.sum();
+	}
+
+	/**
+	 * the count of calls skipped by the open circuit
+	 * @return rejected calls
+	 */
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * the count of ids dropped for being under the high-water mark of the business
+	 * @return out of order ids
+	 */
+	public long getOutOfOrder() {
+		return this.outOfOrder.sum();
+	}
+}
@@ -27,11 +27,19 @@
 
 package org.openingo.spring.boot.extension.gedid.engine.redis;
 
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.openingo.spring.boot.exception.DidException;
 import org.openingo.spring.boot.extension.data.redis.RedisTemplateX;
 import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
 
 /**
  * RedisIdEngine
@@ -74,6 +82,50 @@ public class RedisIdEngine extends RedisTemplateX<String, String> implements IDi
 		return this.incr(this.getEmbellishedName(businessName));
 	}
 
+	/**
+	 * the lettuce connection sends the INCR without blocking the caller,
+	 * other clients complete on the caller thread
+	 * @param businessName the business name
+	 * @return the future of next id
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public CompletableFuture<Long> nextAsync(String businessName) {
+		RedisConnectionFactory connectionFactory = this.getRedisTemplate().getRequiredConnectionFactory();
+		if (!(connectionFactory instanceof LettuceConnectionFactory)) {
+			return IDidEngine.super.nextAsync(businessName);
+		}
+		RedisSerializer<String> keySerializer = (RedisSerializer<String>) this.getRedisTemplate().getKeySerializer();
+		byte[] key = keySerializer.serialize(this.namingKey(this.getEmbellishedName(businessName)));
+		RedisConnection connection = connectionFactory.getConnection();
+		CompletableFuture<Long> future = new CompletableFuture<>();
+		try {
+			RedisClusterAsyncCommands<byte[], byte[]> commands = (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+			commands.incr(key).whenComplete((id, e) -> {
+				// the shared native connection stays open, a pooled one goes back to the pool
+				connection.close();
+				if (Objects.nonNull(e)) {
+					future.completeExceptionally(new DidException(e.getLocalizedMessage()));
+					return;
+				}
+				future.complete(id);
+			});
+		} catch (RuntimeException e) {
+			connection.close();
+			future.completeExceptionally(new DidException(e.getLocalizedMessage()));
+		}
+		return future;
+	}
+
+	@Override
+	public long[] nextBatch(String businessName, int n) {
+		if (n <= 0) {
+			return new long[0];
+		}
+		long max = this.incrBy(this.getEmbellishedName(businessName), n);
+		return LongStream.rangeClosed(max - n + 1, max).toArray();
+	}
+
 	@Override
 	public String engineName() {
 		return "redis";
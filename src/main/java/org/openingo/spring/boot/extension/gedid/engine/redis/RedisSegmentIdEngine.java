@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.redis;
+
+import org.openingo.spring.boot.extension.gedid.engine.segment.AbstractSegmentIdEngine;
+
+import java.time.Duration;
+
+/**
+ * RedisSegmentIdEngine, reserves id segments with `INCRBY` on the
+ * {@link RedisIdEngine} counter, the key is compatible with the `redis` engine.
+ *
+ * @author Qicz
+ * @since 2021/8/20 10:12
+ */
+public class RedisSegmentIdEngine extends AbstractSegmentIdEngine {
+
+	private final RedisIdEngine redisIdEngine;
+
+	public RedisSegmentIdEngine(RedisIdEngine redisIdEngine, int step, int maxStep, double prefetchRatio, Duration segmentDuration) {
+		super(step, maxStep, prefetchRatio, segmentDuration);
+		this.redisIdEngine = redisIdEngine;
+	}
+
+	@Override
+	protected void initialize(String businessName, Long startId) {
+		this.redisIdEngine.follow(businessName, startId);
+	}
+
+	@Override
+	protected long reserve(String businessName, int step) {
+		return this.redisIdEngine.incrBy(this.getEmbellishedName(businessName), step);
+	}
+
+	@Override
+	public String getEmbellishedName(String businessName) {
+		return this.redisIdEngine.getEmbellishedName(businessName);
+	}
+
+	@Override
+	public String engineName() {
+		return "redis-segment";
+	}
+}
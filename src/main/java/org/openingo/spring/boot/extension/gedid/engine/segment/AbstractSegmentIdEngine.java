@@ -0,0 +1,408 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.exception.DidException;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint.IHighWaterMarkStore;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * AbstractSegmentIdEngine
+ *
+ * reserves one id range (segment) per remote call and hands the ids out
+ * from a local counter, the next segment is prefetched asynchronously once
+ * the current one is consumed to the prefetch ratio.
+ *
+ * @author Qicz
+ * @since 2021/8/20 10:12
+ */
+@Slf4j
+public abstract class AbstractSegmentIdEngine implements IDidEngine<Long> {
+
+	private final Map<String, SegmentBuffer> buffers = new ConcurrentHashMap<>();
+
+	private final ExecutorService loader;
+
+	private final int minStep;
+
+	private final int maxStep;
+
+	private final double prefetchRatio;
+
+	private final long segmentDurationNanos;
+
+	private final LongAdder refillWaits = new LongAdder();
+
+	private final LongAdder refillWaitNanos = new LongAdder();
+
+	private IHighWaterMarkStore highWaterMarkStore;
+
+	private long safetyGap;
+
+	private ScheduledExecutorService checkpointer;
+
+	/**
+	 * @param step the initial (and min) size of one segment
+	 * @param maxStep the max size of one segment
+	 * @param prefetchRatio the consumed ratio of current segment to prefetch the next one, (0, 1]
+	 * @param segmentDuration expected duration of one segment, used to adapt the step
+	 */
+	protected AbstractSegmentIdEngine(int step, int maxStep, double prefetchRatio, Duration segmentDuration) {
+		if (step <= 0 || maxStep < step) {
+			throw new IllegalArgumentException(String.format("segment step must be greater than 0 and not greater than max step %d", maxStep));
+		}
+		if (prefetchRatio <= 0D || prefetchRatio > 1D) {
+			throw new IllegalArgumentException("segment prefetch ratio must be in (0, 1]");
+		}
+		this.minStep = step;
+		this.maxStep = maxStep;
+		this.prefetchRatio = prefetchRatio;
+		this.segmentDurationNanos = segmentDuration.toNanos();
+		AtomicInteger threads = new AtomicInteger();
+		this.loader = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, String.format("%s-%s-segment-%d", GEDID, this.engineName(), threads.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * initialize the remote counter of the business
+	 * @param businessName the business name
+	 * @param startId the first id
+	 * @throws Exception any remote exception
+	 */
+	protected abstract void initialize(String businessName, Long startId) throws Exception;
+
+	/**
+	 * reserve {@code step} ids from the remote counter
+	 * @param businessName the business name
+	 * @param step the count of ids
+	 * @return the last id of the reserved range
+	 * @throws Exception any remote exception
+	 */
+	protected abstract long reserve(String businessName, int step) throws Exception;
+
+	/**
+	 * checkpoint the reserved high-water mark of every business to the store,
+	 * the businesses followed later resume from (checkpoint + safety gap) and
+	 * a remote counter found lost or gone backwards is moved above it.
+	 *
+	 * the mark is saved every interval, and at once when a reservation passes the
+	 * last saved mark by more than the safety gap, so no handed out id is above
+	 * (checkpoint + safety gap).
+	 *
+	 * call it before following any business.
+	 *
+	 * @param highWaterMarkStore the checkpoint store
+	 * @param interval the checkpoint interval
+	 * @param safetyGap the ids skipped over the checkpoint when resuming
+	 */
+	public void setHighWaterMarkStore(IHighWaterMarkStore highWaterMarkStore, Duration interval, long safetyGap) {
+		if (safetyGap < 0L) {
+			throw new IllegalArgumentException("the safety gap can't be less than 0");
+		}
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("the checkpoint interval must be positive");
+		}
+		this.highWaterMarkStore = highWaterMarkStore;
+		this.safetyGap = safetyGap;
+		this.checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, String.format("%s-%s-checkpoint", GEDID, this.engineName()));
+			thread.setDaemon(true);
+			return thread;
+		});
+		long intervalMillis = interval.toMillis();
+		this.checkpointer.scheduleWithFixedDelay(this::checkpoint, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void follow(String businessName, Long startId) {
+		long checkpoint = this.loadCheckpoint(businessName);
+		if (checkpoint > 0L) {
+			startId = Math.max(startId, checkpoint + this.safetyGap + 1L);
+		}
+		try {
+			this.initialize(businessName, startId);
+		} catch (Exception e) {
+			log.error(e.getLocalizedMessage());
+			throw new DidException(e.getLocalizedMessage());
+		}
+		SegmentBuffer buffer = new SegmentBuffer(businessName, this.minStep);
+		buffer.highWater.set(checkpoint);
+		buffer.checkpointed = checkpoint;
+		this.buffers.put(businessName, buffer);
+		// load the first segment eagerly, keeps the remote call out of the first `next`
+		this.switchSegment(buffer, buffer.current);
+	}
+
+	@Override
+	public Long getFixedStartId(Long startId) {
+		if (Objects.isNull(startId) || startId < 0) {
+			return 1L;
+		}
+		return startId;
+	}
+
+	@Override
+	public Long next(String businessName) {
+		return this.nextLongId(businessName);
+	}
+
+	/**
+	 * the next id without boxing
+	 * @param businessName the business name
+	 * @return next id
+	 */
+	public long nextLongId(String businessName) {
+		return this.nextLongId(this.getBuffer(businessName));
+	}
+
+	/**
+	 * the next n ids, a batch not smaller than the current step
+	 * reserves one dedicated range from the remote counter.
+	 *
+	 * @param businessName the business name
+	 * @param n the count of ids
+	 * @return next n ids
+	 */
+	@Override
+	public long[] nextBatch(String businessName, int n) {
+		if (n <= 0) {
+			return new long[0];
+		}
+		SegmentBuffer buffer = this.getBuffer(businessName);
+		if (n >= buffer.step) {
+			long max = this.reserveRange(buffer, n);
+			return LongStream.rangeClosed(max - n + 1, max).toArray();
+		}
+		long[] ids = new long[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = this.nextLongId(buffer);
+		}
+		return ids;
+	}
+
+	private SegmentBuffer getBuffer(String businessName) {
+		SegmentBuffer buffer = this.buffers.get(businessName);
+		if (Objects.isNull(buffer)) {
+			throw new DidException(String.format("the business `%s` is not followed by the `%s` engine.", businessName, this.engineName()));
+		}
+		return buffer;
+	}
+
+	private long nextLongId(SegmentBuffer buffer) {
+		while (true) {
+			Segment segment = buffer.current;
+			long id = segment.cursor.getAndIncrement();
+			if (id <= segment.max) {
+				// only one thread gets this id
+				if (id == segment.prefetchAt) {
+					this.prefetch(buffer, segment);
+				}
+				return id;
+			}
+			this.switchSegment(buffer, segment);
+		}
+	}
+
+	private void prefetch(SegmentBuffer buffer, Segment segment) {
+		synchronized (buffer) {
+			if (buffer.current != segment || Objects.nonNull(buffer.standby)) {
+				return;
+			}
+			buffer.standby = CompletableFuture.supplyAsync(() -> this.load(buffer), this.loader);
+		}
+	}
+
+	private void switchSegment(SegmentBuffer buffer, Segment exhausted) {
+		synchronized (buffer) {
+			// switched by another thread
+			if (buffer.current != exhausted) {
+				return;
+			}
+			CompletableFuture<Segment> standby = buffer.standby;
+			buffer.standby = null;
+			long start = System.nanoTime();
+			boolean prefetched = Objects.nonNull(standby) && standby.isDone();
+			Segment segment = null;
+			if (Objects.nonNull(standby)) {
+				try {
+					segment = standby.join();
+				} catch (Exception e) {
+					log.error("the `{}` engine prefetch segment for business `{}` failure, {}", this.engineName(), buffer.businessName, e.getLocalizedMessage());
+				}
+			}
+			if (Objects.isNull(segment)) {
+				prefetched = false;
+				segment = this.load(buffer);
+			}
+			buffer.current = segment;
+			// the callers waited for the remote call, not counting the first segment of follow
+			if (!prefetched && exhausted.max >= 0L) {
+				this.refillWaits.increment();
+				this.refillWaitNanos.add(System.nanoTime() - start);
+			}
+		}
+	}
+
+	private Segment load(SegmentBuffer buffer) {
+		int step = buffer.nextStep(this.minStep, this.maxStep, this.segmentDurationNanos);
+		long max = this.reserveRange(buffer, step);
+		log.debug("the `{}` engine loaded segment [{}, {}] for business `{}`", this.engineName(), max - step + 1, max, buffer.businessName);
+		return new Segment(max - step + 1, max, this.prefetchRatio);
+	}
+
+	private long reserveRange(SegmentBuffer buffer, int step) {
+		try {
+			long max = this.reserveChecked(buffer, step);
+			buffer.highWater.accumulateAndGet(max, Math::max);
+			if (Objects.nonNull(this.highWaterMarkStore) && max > buffer.checkpointed + this.safetyGap) {
+				this.saveCheckpoint(buffer, max);
+			}
+			return max;
+		} catch (DidException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DidException(e.getLocalizedMessage());
+		}
+	}
+
+	private long reserveChecked(SegmentBuffer buffer, int step) throws Exception {
+		String businessName = buffer.businessName;
+		if (Objects.isNull(this.highWaterMarkStore)) {
+			return this.reserve(businessName, step);
+		}
+		// the ranges reserved before this call, the concurrent reservations (nextBatch, prefetch) may raise it meanwhile
+		long reservedBefore = buffer.highWater.get();
+		long max;
+		try {
+			max = this.reserve(businessName, step);
+		} catch (Exception e) {
+			// the remote counter may be lost, initialize it again above the high-water mark and retry once
+			long floor = this.recoveryFloor(buffer);
+			log.warn("the `{}` engine reserve for business `{}` failure, {}, initializing from {}", this.engineName(), businessName, e.getLocalizedMessage(), floor + 1L);
+			this.initialize(businessName, floor + 1L);
+			max = this.reserve(businessName, step);
+		}
+		if (max - step < reservedBefore) {
+			// the remote counter went backwards, drop the range and move the counter above the high-water mark
+			long floor = this.recoveryFloor(buffer);
+			log.warn("the `{}` engine counter of business `{}` went backwards to {}, resuming from {}", this.engineName(), businessName, max, floor + 1L);
+			while (max < floor) {
+				max = this.reserve(businessName, (int) Math.min(floor - max, Integer.MAX_VALUE));
+			}
+			max = this.reserve(businessName, step);
+		}
+		return max;
+	}
+
+	private long recoveryFloor(SegmentBuffer buffer) {
+		return Math.max(buffer.highWater.get(), buffer.checkpointed) + this.safetyGap;
+	}
+
+	private long loadCheckpoint(String businessName) {
+		if (Objects.isNull(this.highWaterMarkStore)) {
+			return 0L;
+		}
+		try {
+			return this.highWaterMarkStore.load(this.engineName(), businessName);
+		} catch (Exception e) {
+			log.error("the `{}` engine load checkpoint for business `{}` failure, {}", this.engineName(), businessName, e.getLocalizedMessage());
+			throw new DidException(e.getLocalizedMessage());
+		}
+	}
+
+	private void checkpoint() {
+		for (SegmentBuffer buffer : this.buffers.values()) {
+			long highWater = buffer.highWater.get();
+			if (highWater > buffer.checkpointed) {
+				try {
+					this.saveCheckpoint(buffer, highWater);
+				} catch (Exception e) {
+					log.error("the `{}` engine checkpoint for business `{}` failure, {}", this.engineName(), buffer.businessName, e.getLocalizedMessage());
+				}
+			}
+		}
+	}
+
+	private void saveCheckpoint(SegmentBuffer buffer, long highWater) throws Exception {
+		synchronized (buffer.highWater) {
+			if (highWater <= buffer.checkpointed) {
+				return;
+			}
+			this.highWaterMarkStore.save(this.engineName(), buffer.businessName, highWater);
+			buffer.checkpointed = highWater;
+		}
+	}
+
+	/**
+	 * the count of segment switches waiting for the remote call,
+	 * the standby segment was missing, not loaded yet or failed
+	 * @return refill waits
+	 */
+	public long getRefillWaits() {
+		return this.refillWaits.sum();
+	}
+
+	/**
+	 * the total nanos of segment switches waiting for the remote call
+	 * @return refill wait nanos
+	 */
+	public long getRefillWaitNanos() {
+		return this.refillWaitNanos.sum();
+	}
+
+	/**
+	 * will auto call when destroy
+	 */
+	protected void close() {
+		String name = this.engineName();
+		log.info("the `{}` engine is closing...", name);
+		this.loader.shutdownNow();
+		if (Objects.nonNull(this.checkpointer)) {
+			this.checkpointer.shutdownNow();
+			this.checkpoint();
+		}
+		log.info("the `{}` engine is closed", name);
+	}
+}
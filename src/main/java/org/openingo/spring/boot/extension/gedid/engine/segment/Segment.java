@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Segment, one reserved id range [min, max] served from local memory
+ *
+ * @author Qicz
+ * @since 2021/8/20 10:12
+ */
+final class Segment {
+
+	/**
+	 * the cursor of the next id to hand out
+	 */
+	final AtomicLong cursor;
+
+	/**
+	 * the last id of this segment (inclusive)
+	 */
+	final long max;
+
+	/**
+	 * the thread which gets this id triggers the standby segment loading
+	 */
+	final long prefetchAt;
+
+	Segment(long min, long max, double prefetchRatio) {
+		this.cursor = new AtomicLong(min);
+		this.max = max;
+		this.prefetchAt = Math.min(max, min + (long) ((max - min + 1) * prefetchRatio));
+	}
+
+	/**
+	 * an exhausted segment, forcing the first call to load a real one
+	 */
+	static Segment empty() {
+		return new Segment(0L, -1L, 1D);
+	}
+}
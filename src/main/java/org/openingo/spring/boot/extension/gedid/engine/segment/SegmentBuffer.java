@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SegmentBuffer, the double buffer (current and standby segment) of one business
+ *
+ * @author Qicz
+ * @since 2021/8/20 10:12
+ */
+final class SegmentBuffer {
+
+	final String businessName;
+
+	/**
+	 * the segment serving ids
+	 */
+	volatile Segment current = Segment.empty();
+
+	/**
+	 * the segment loading or loaded in background, guarded by this buffer
+	 */
+	CompletableFuture<Segment> standby;
+
+	/**
+	 * the size of the next segment, adapted to the consumption rate
+	 */
+	volatile int step;
+
+	/**
+	 * the last time (nanos) one segment was loaded
+	 */
+	volatile long lastLoadNanos;
+
+	/**
+	 * the max id reserved from the remote counter
+	 */
+	final AtomicLong highWater = new AtomicLong();
+
+	/**
+	 * the high-water mark saved to the checkpoint store
+	 */
+	volatile long checkpointed;
+
+	SegmentBuffer(String businessName, int step) {
+		this.businessName = businessName;
+		this.step = step;
+	}
+
+	/**
+	 * adapt the step with the consumption rate of the previous segment,
+	 * if it was consumed within the segment duration the step doubles,
+	 * if it lasted more than twice of the duration the step halves.
+	 *
+	 * @param minStep the min step
+	 * @param maxStep the max step
+	 * @param segmentDurationNanos expected duration of one segment
+	 * @return the step for the next segment
+	 */
+	int nextStep(int minStep, int maxStep, long segmentDurationNanos) {
+		long now = System.nanoTime();
+		int step = this.step;
+		if (this.lastLoadNanos != 0L) {
+			long elapsed = now - this.lastLoadNanos;
+			if (elapsed < segmentDurationNanos) {
+				step = (int) Math.min((long) step << 1, maxStep);
+			} else if (elapsed > segmentDurationNanos << 1) {
+				step = Math.max(step >> 1, minStep);
+			}
+		}
+		this.step = step;
+		this.lastLoadNanos = now;
+		return step;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint;
+
+/**
+ * IHighWaterMarkStore, keeps the max id reserved by the segment engines,
+ * the engines resume above it when the remote counter is lost
+ *
+ * @author Qicz
+ * @since 2021/9/3 10:12
+ */
+public interface IHighWaterMarkStore {
+
+	/**
+	 * load the high-water mark
+	 * @param engineName the engine name
+	 * @param businessName the business name
+	 * @return the high-water mark, 0 if absent
+	 * @throws Exception any store exception
+	 */
+	long load(String engineName, String businessName) throws Exception;
+
+	/**
+	 * save the high-water mark, a lower mark than the saved one is ignored
+	 * @param engineName the engine name
+	 * @param businessName the business name
+	 * @param highWater the high-water mark
+	 * @throws Exception any store exception
+	 */
+	void save(String engineName, String businessName, long highWater) throws Exception;
+
+	/**
+	 * release the store
+	 */
+	default void close() {
+
+	}
+}
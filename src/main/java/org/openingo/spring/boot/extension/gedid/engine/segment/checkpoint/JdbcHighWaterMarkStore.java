@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint;
+
+import org.openingo.spring.boot.extension.datasource.holder.RoutingDataSourceHolder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * JdbcHighWaterMarkStore, the high-water marks in one table shared by all the nodes.
+ *
+ * <pre>
+ * create table gedid_high_water_mark (
+ *     engine_name   varchar(64)  not null,
+ *     business_name varchar(128) not null,
+ *     high_water    bigint       not null,
+ *     primary key (engine_name, business_name)
+ * );
+ * </pre>
+ *
+ * with the {@link org.openingo.spring.boot.extension.datasource.routing.RoutingDataSource}
+ * the {@code dataSourceKey} picks the target data source.
+ *
+ * @author Qicz
+ * @since 2021/9/3 11:05
+ */
+public class JdbcHighWaterMarkStore implements IHighWaterMarkStore {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Object dataSourceKey;
+
+	private final String selectSql;
+
+	private final String updateSql;
+
+	private final String insertSql;
+
+	/**
+	 * @param dataSource the data source
+	 * @param table the table name
+	 * @param dataSourceKey the routing data source key, null for the current one
+	 */
+	public JdbcHighWaterMarkStore(DataSource dataSource, String table, Object dataSourceKey) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.dataSourceKey = dataSourceKey;
+		this.selectSql = String.format("select high_water from %s where engine_name = ? and business_name = ?", table);
+		this.updateSql = String.format("update %s set high_water = ? where engine_name = ? and business_name = ? and high_water < ?", table);
+		this.insertSql = String.format("insert into %s (engine_name, business_name, high_water) values (?, ?, ?)", table);
+	}
+
+	@Override
+	public long load(String engineName, String businessName) {
+		return this.routing(() -> {
+			List<Long> highWaters = this.jdbcTemplate.queryForList(this.selectSql, Long.class, engineName, businessName);
+			return highWaters.isEmpty() ? 0L : highWaters.get(0);
+		});
+	}
+
+	@Override
+	public void save(String engineName, String businessName, long highWater) {
+		this.routing(() -> {
+			if (this.jdbcTemplate.update(this.updateSql, highWater, engineName, businessName, highWater) > 0) {
+				return null;
+			}
+			try {
+				this.jdbcTemplate.update(this.insertSql, engineName, businessName, highWater);
+			} catch (DuplicateKeyException e) {
+				// existed with a higher mark or inserted by another node
+				this.jdbcTemplate.update(this.updateSql, highWater, engineName, businessName, highWater);
+			}
+			return null;
+		});
+	}
+
+	private <T> T routing(Supplier<T> supplier) {
+		if (Objects.isNull(this.dataSourceKey)) {
+			return supplier.get();
+		}
+		Object current = RoutingDataSourceHolder.getCurrentUsingDataSourceKey();
+		RoutingDataSourceHolder.setCurrentUsingDataSourceKey(this.dataSourceKey);
+		try {
+			return supplier.get();
+		} finally {
+			if (Objects.isNull(current)) {
+				RoutingDataSourceHolder.clearCurrentUsingDataSourceKey();
+			} else {
+				RoutingDataSourceHolder.setCurrentUsingDataSourceKey(current);
+			}
+		}
+	}
+}
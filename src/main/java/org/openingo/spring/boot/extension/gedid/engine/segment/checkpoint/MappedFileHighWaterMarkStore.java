@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.segment.checkpoint;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MappedFileHighWaterMarkStore, one memory-mapped file of 8 bytes per engine and business,
+ * {@code <directory>/<engine>/<business>.hwm}.
+ *
+ * a save writes the mapped memory and forces it to the disk, no file system call
+ * but the msync, a load reads the mapped memory.
+ *
+ * @author Qicz
+ * @since 2021/9/3 10:30
+ */
+@Slf4j
+public class MappedFileHighWaterMarkStore implements IHighWaterMarkStore {
+
+	private static final int SIZE = Long.BYTES;
+
+	private final Path directory;
+
+	private final Map<String, MappedByteBuffer> mappedFiles = new ConcurrentHashMap<>();
+
+	public MappedFileHighWaterMarkStore(String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	@Override
+	public long load(String engineName, String businessName) throws Exception {
+		MappedByteBuffer mapped = this.mapped(engineName, businessName);
+		synchronized (mapped) {
+			return mapped.getLong(0);
+		}
+	}
+
+	@Override
+	public void save(String engineName, String businessName, long highWater) throws Exception {
+		MappedByteBuffer mapped = this.mapped(engineName, businessName);
+		synchronized (mapped) {
+			if (highWater <= mapped.getLong(0)) {
+				return;
+			}
+			mapped.putLong(0, highWater);
+			mapped.force();
+		}
+	}
+
+	@Override
+	public void close() {
+		this.mappedFiles.values().forEach(MappedByteBuffer::force);
+		this.mappedFiles.clear();
+	}
+
+	private MappedByteBuffer mapped(String engineName, String businessName) throws IOException {
+		String name = String.format("%s/%s", engineName, businessName);
+		MappedByteBuffer mapped = this.mappedFiles.get(name);
+		if (Objects.nonNull(mapped)) {
+			return mapped;
+		}
+		synchronized (this.mappedFiles) {
+			mapped = this.mappedFiles.get(name);
+			if (Objects.isNull(mapped)) {
+				mapped = this.map(engineName, businessName);
+				this.mappedFiles.put(name, mapped);
+			}
+			return mapped;
+		}
+	}
+
+	private MappedByteBuffer map(String engineName, String businessName) throws IOException {
+		Path engineDirectory = this.directory.resolve(this.toFileName(engineName));
+		Files.createDirectories(engineDirectory);
+		Path file = engineDirectory.resolve(this.toFileName(businessName) + ".hwm");
+		log.info("mapping the high-water mark file `{}`", file);
+		// the mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+		}
+	}
+
+	private String toFileName(String name) {
+		return name.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.snowflake;
+
+import org.openingo.jdkits.sys.SystemClockKit;
+import org.openingo.spring.boot.exception.DidException;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LockFreeSnowflake
+ *
+ * the last timestamp and the sequence are packed into one {@link AtomicLong}
+ * (timestamp << sequenceBits | sequence) and updated with CAS, no lock and no boxing.
+ * the bit layout is pluggable with {@link SnowflakeLayout}.
+ *
+ * with {@code maxBorrowMillis} the id timestamp may run ahead of the system clock:
+ * small clock rollbacks continue from the last timestamp, and an exhausted
+ * sequence borrows the next time unit; otherwise it parks with bounded backoff.
+ *
+ * @author Qicz
+ * @since 2021/8/23 16:05
+ */
+public class LockFreeSnowflake {
+
+    /**
+     * 序列耗尽时退避等待的最小/最大纳秒数
+     */
+    private final static long MIN_BACKOFF_NANOS = 20_000L;
+
+    private final static long MAX_BACKOFF_NANOS = 200_000L;
+
+    /**
+     * ID位布局
+     */
+    private final SnowflakeLayout layout;
+
+    /**
+     * 生成序列的掩码
+     */
+    private final long sequenceMask;
+
+    /**
+     * 数据中心ID与工作机器ID
+     */
+    private final long node;
+
+    /**
+     * 上次生成ID的时间截(相对epoch)与时间单位内序列: timestamp << sequenceBits | sequence
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * ID时间戳允许超前系统时钟的最大时间单位数, 用于吸收时钟回退与借用未来时间; 0 表示时钟回退即抛出异常
+     */
+    private final long maxBorrowTimestamp;
+
+    /**
+     * 最近一次按系统时钟(而非借用时间)生成ID时的时间戳, 用于识别时钟回退
+     */
+    private volatile long lastClock;
+
+    /**
+     * 时钟回退期间生成的ID数
+     */
+    private final LongAdder rollbackAbsorbed = new LongAdder();
+
+    /**
+     * 时钟回退超出允许范围而拒绝生成ID的次数
+     */
+    private final LongAdder rollbackRefused = new LongAdder();
+
+    /**
+     * 序列耗尽等待的次数
+     */
+    private final LongAdder waits = new LongAdder();
+
+    /**
+     * 序列耗尽等待的总时长(纳秒)
+     */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * 构造函数
+     * @param workerId     工作ID (0~31)
+     * @param dataCenterId 数据中心ID (0~31)
+     */
+    public LockFreeSnowflake(long workerId, long dataCenterId) {
+        this(workerId, dataCenterId, 0L);
+    }
+
+    /**
+     * 构造函数
+     * @param workerId     工作ID (0~31)
+     * @param dataCenterId 数据中心ID (0~31)
+     * @param maxBorrowMillis ID时间戳允许超前系统时钟的最大毫秒数
+     */
+    public LockFreeSnowflake(long workerId, long dataCenterId, long maxBorrowMillis) {
+        this(SnowflakeLayout.DEFAULT, workerId, dataCenterId, maxBorrowMillis);
+    }
+
+    /**
+     * 构造函数
+     * @param layout       ID位布局
+     * @param workerId     工作ID
+     * @param dataCenterId 数据中心ID
+     * @param maxBorrowMillis ID时间戳允许超前系统时钟的最大毫秒数
+     */
+    public LockFreeSnowflake(SnowflakeLayout layout, long workerId, long dataCenterId, long maxBorrowMillis) {
+        if (maxBorrowMillis < 0L) {
+            throw new IllegalArgumentException("max borrow millis can't be less than 0");
+        }
+        this.layout = layout;
+        this.sequenceMask = layout.getSequenceMask();
+        this.node = layout.toNodeId(dataCenterId, workerId);
+        this.maxBorrowTimestamp = maxBorrowMillis / layout.getTimeUnitMillis();
+    }
+
+    /**
+     * 获得下一个ID (该方法是线程安全的)
+     * @return SnowflakeId
+     */
+    public Long nextId() {
+        return this.nextLongId();
+    }
+
+    /**
+     * 获得下一个ID, 不装箱 (该方法是线程安全的)
+     * @return SnowflakeId
+     */
+    public long nextLongId() {
+        final int sequenceBits = this.layout.getSequenceBits();
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        while (true) {
+            long current = this.state.get();
+            long lastTimestamp = current >>> sequenceBits;
+            long timestamp = this.layout.toTimestamp(this.timeGen());
+            long next;
+            if (timestamp > lastTimestamp) {
+                // 时间戳改变，序列重置
+                next = timestamp << sequenceBits;
+            } else {
+                // 同一时间单位或时钟回退, ID时间戳超前系统时钟的时间单位数
+                long drift = lastTimestamp - timestamp;
+                if (drift > this.maxBorrowTimestamp) {
+                    // 如果当前时间小于上一次ID生成的时间戳，且超出允许范围，这个时候应当抛出异常
+                    this.rollbackRefused.increment();
+                    throw new DidException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", drift * this.layout.getTimeUnitMillis()));
+                }
+                if ((current & this.sequenceMask) != this.sequenceMask) {
+                    next = current + 1L;
+                } else if (drift < this.maxBorrowTimestamp) {
+                    // 序列溢出, 借用下一个时间单位
+                    next = (lastTimestamp + 1L) << sequenceBits;
+                } else {
+                    // 序列溢出且不可借用, 有界退避等待系统时钟追上
+                    long start = System.nanoTime();
+                    LockSupport.parkNanos(backoffNanos);
+                    this.waits.increment();
+                    this.waitNanos.add(System.nanoTime() - start);
+                    backoffNanos = Math.min(backoffNanos << 1, MAX_BACKOFF_NANOS);
+                    continue;
+                }
+            }
+            if (this.state.compareAndSet(current, next)) {
+                if (timestamp > lastTimestamp) {
+                    this.lastClock = timestamp;
+                } else if (timestamp < this.lastClock) {
+                    this.rollbackAbsorbed.increment();
+                }
+                return this.layout.compose(next >>> sequenceBits, this.node, next & this.sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * 时钟回退期间生成的ID数
+     * @return rollback absorbed ids
+     */
+    public long getRollbackAbsorbed() {
+        return this.rollbackAbsorbed.sum();
+    }
+
+    /**
+     * 时钟回退超出允许范围而拒绝生成ID的次数
+     * @return rollback refused times
+     */
+    public long getRollbackRefused() {
+        return this.rollbackRefused.sum();
+    }
+
+    /**
+     * 序列耗尽等待的次数
+     * @return wait times
+     */
+    public long getWaits() {
+        return this.waits.sum();
+    }
+
+    /**
+     * 序列耗尽等待的总时长(纳秒)
+     * @return wait nanos
+     */
+    public long getWaitNanos() {
+        return this.waitNanos.sum();
+    }
+
+    public SnowflakeLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * 返回以毫秒为单位的当前时间
+     * @return 当前时间(毫秒)
+     */
+    private long timeGen() {
+        return SystemClockKit.now();
+    }
+}
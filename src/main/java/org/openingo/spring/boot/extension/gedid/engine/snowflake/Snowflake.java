@@ -33,6 +33,7 @@ import org.openingo.spring.boot.exception.DidException;
 /**
  * Snowflake
  *
+ * @see LockFreeSnowflake
  * @author Twitter
  * @author Qicz
  * @since 2021/7/1 23:16
@@ -129,7 +130,7 @@ public class Snowflake {
      * 获得下一个ID (该方法是线程安全的)
      * @return SnowflakeId
      */
-    public Long nextId() {
+    public synchronized Long nextId() {
         long timestamp = timeGen();
         // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
         if (timestamp < lastTimestamp) {
@@ -27,7 +27,11 @@
 
 package org.openingo.spring.boot.extension.gedid.engine.snowflake;
 
+import org.openingo.spring.boot.exception.DidException;
 import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.worker.IWorkerIdAssigner;
+
+import java.util.Objects;
 
 /**
  * SnowflakeIdEngine
@@ -37,14 +41,56 @@ import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
  */
 public class SnowflakeIdEngine implements IDidEngine<Long> {
 
-    private final Snowflake snowflake;
+    private volatile LockFreeSnowflake snowflake;
+
+    // null for the fixed node id
+    private final IWorkerIdAssigner workerIdAssigner;
+
+    // the node id of the snowflake, written after it
+    private volatile long nodeId;
+
+    private final long maxBorrowMillis;
 
     public SnowflakeIdEngine() {
         this(0L, 0L);
     }
 
     public SnowflakeIdEngine(Long workerId, Long dataCenterId) {
-        this.snowflake = new Snowflake(workerId, dataCenterId);
+        this(workerId, dataCenterId, 0L);
+    }
+
+    public SnowflakeIdEngine(Long workerId, Long dataCenterId, Long maxBorrowMillis) {
+        this(SnowflakeLayout.DEFAULT, workerId, dataCenterId, maxBorrowMillis);
+    }
+
+    public SnowflakeIdEngine(SnowflakeLayout layout, Long workerId, Long dataCenterId, Long maxBorrowMillis) {
+        this.snowflake = new LockFreeSnowflake(layout, workerId, dataCenterId, maxBorrowMillis);
+        this.workerIdAssigner = null;
+        this.maxBorrowMillis = maxBorrowMillis;
+    }
+
+    /**
+     * the data center id and worker id are leased from the assigner
+     * @param workerIdAssigner node id assigner
+     * @param maxBorrowMillis max millis the id timestamp may run ahead of the system clock
+     */
+    public SnowflakeIdEngine(IWorkerIdAssigner workerIdAssigner, Long maxBorrowMillis) {
+        this(SnowflakeLayout.DEFAULT, workerIdAssigner, maxBorrowMillis);
+    }
+
+    /**
+     * the data center id and worker id are leased from the assigner, no ids while the lease is lost,
+     * the generator follows the node id when the assigner leases a new one
+     * @param layout the bit layout
+     * @param workerIdAssigner node id assigner
+     * @param maxBorrowMillis max millis the id timestamp may run ahead of the system clock
+     */
+    public SnowflakeIdEngine(SnowflakeLayout layout, IWorkerIdAssigner workerIdAssigner, Long maxBorrowMillis) {
+        long nodeId = workerIdAssigner.assign(layout.getMaxNodeId());
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.snowflake = this.newSnowflake(layout, nodeId);
+        this.nodeId = nodeId;
+        this.workerIdAssigner = workerIdAssigner;
     }
 
     @Override
@@ -54,11 +100,65 @@ public class SnowflakeIdEngine implements IDidEngine<Long> {
 
     @Override
     public Long next(String businessName) {
-        return this.snowflake.nextId();
+        return this.leasedSnowflake().nextId();
+    }
+
+    /**
+     * the next id without boxing
+     * @param businessName the business name
+     * @return next id
+     */
+    public long nextLongId(String businessName) {
+        return this.leasedSnowflake().nextLongId();
+    }
+
+    @Override
+    public long[] nextBatch(String businessName, int n) {
+        LockFreeSnowflake snowflake = this.leasedSnowflake();
+        long[] ids = new long[Math.max(n, 0)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = snowflake.nextLongId();
+        }
+        return ids;
+    }
+
+    public LockFreeSnowflake getSnowflake() {
+        return this.snowflake;
+    }
+
+    public SnowflakeLayout getLayout() {
+        return this.snowflake.getLayout();
     }
 
     @Override
     public String engineName() {
         return "snowflake";
     }
+
+    private LockFreeSnowflake leasedSnowflake() {
+        if (Objects.isNull(this.workerIdAssigner)) {
+            return this.snowflake;
+        }
+        if (!this.workerIdAssigner.isLeased()) {
+            throw new DidException("the snowflake node id lease is lost, no ids until it is leased again");
+        }
+        long nodeId = this.workerIdAssigner.getNodeId();
+        if (nodeId != this.nodeId) {
+            this.switchNode(nodeId);
+        }
+        return this.snowflake;
+    }
+
+    private synchronized void switchNode(long nodeId) {
+        if (nodeId == this.nodeId) {
+            return;
+        }
+        this.snowflake = this.newSnowflake(this.snowflake.getLayout(), nodeId);
+        this.nodeId = nodeId;
+    }
+
+    private LockFreeSnowflake newSnowflake(SnowflakeLayout layout, long nodeId) {
+        long maxWorkerId = ~(-1L << layout.getWorkerIdBits());
+        return new LockFreeSnowflake(layout, nodeId & maxWorkerId, nodeId >>> layout.getWorkerIdBits(), this.maxBorrowMillis);
+    }
 }
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.snowflake;
+
+import org.openingo.jdkits.sys.SystemClockKit;
+
+/**
+ * SnowflakeLayout, the bit layout of the snowflake id
+ *
+ * 1 bit sign | timestamp bits | data center id bits | worker id bits | sequence bits,
+ * the timestamp counts {@code timeUnitMillis} since the epoch.
+ *
+ * @author Qicz
+ * @since 2021/8/31 14:20
+ */
+public final class SnowflakeLayout {
+
+    /**
+     * the default layout: epoch 2015-01-01, millis, 5 bits data center id, 5 bits worker id, 12 bits sequence
+     */
+    public static final SnowflakeLayout DEFAULT = new SnowflakeLayout(1420041600000L, 1L, 5, 5, 12);
+
+    private final long epoch;
+
+    private final long timeUnitMillis;
+
+    private final int dataCenterIdBits;
+
+    private final int workerIdBits;
+
+    private final int sequenceBits;
+
+    private final int timestampBits;
+
+    private final long maxDataCenterId;
+
+    private final long maxWorkerId;
+
+    private final long sequenceMask;
+
+    /**
+     * @param epoch the epoch millis
+     * @param timeUnitMillis the millis of one timestamp unit, eg: 1, 10
+     * @param dataCenterIdBits the bits of data center id
+     * @param workerIdBits the bits of worker id
+     * @param sequenceBits the bits of sequence
+     */
+    public SnowflakeLayout(long epoch, long timeUnitMillis, int dataCenterIdBits, int workerIdBits, int sequenceBits) {
+        if (timeUnitMillis <= 0L) {
+            throw new IllegalArgumentException("the time unit millis must be greater than 0");
+        }
+        if (dataCenterIdBits < 0 || workerIdBits < 0 || sequenceBits <= 0) {
+            throw new IllegalArgumentException("the data center id bits and worker id bits can't be less than 0, and the sequence bits must be greater than 0");
+        }
+        int timestampBits = 63 - dataCenterIdBits - workerIdBits - sequenceBits;
+        if (timestampBits <= 0) {
+            throw new IllegalArgumentException(String.format("the data center id, worker id and sequence bits (%d) leave no timestamp bits", 63 - timestampBits));
+        }
+        long now = SystemClockKit.now();
+        if (epoch > now) {
+            throw new IllegalArgumentException(String.format("the epoch `%d` is in the future", epoch));
+        }
+        if (((now - epoch) / timeUnitMillis) >>> timestampBits != 0L) {
+            throw new IllegalArgumentException(String.format("the %d timestamp bits of %dms are exhausted since the epoch `%d`", timestampBits, timeUnitMillis, epoch));
+        }
+        this.epoch = epoch;
+        this.timeUnitMillis = timeUnitMillis;
+        this.dataCenterIdBits = dataCenterIdBits;
+        this.workerIdBits = workerIdBits;
+        this.sequenceBits = sequenceBits;
+        this.timestampBits = timestampBits;
+        this.maxDataCenterId = ~(-1L << dataCenterIdBits);
+        this.maxWorkerId = ~(-1L << workerIdBits);
+        this.sequenceMask = ~(-1L << sequenceBits);
+    }
+
+    /**
+     * the timestamp units since the epoch
+     * @param millis the unix millis
+     * @return the timestamp
+     */
+    long toTimestamp(long millis) {
+        return (millis - this.epoch) / this.timeUnitMillis;
+    }
+
+    /**
+     * compose the id
+     * @param timestamp the timestamp
+     * @param node the node id
+     * @param sequence the sequence
+     * @return the id
+     */
+    long compose(long timestamp, long node, long sequence) {
+        return (timestamp << (this.getNodeIdBits() + this.sequenceBits)) | (node << this.sequenceBits) | sequence;
+    }
+
+    /**
+     * the node id of data center id and worker id
+     * @param dataCenterId data center id
+     * @param workerId worker id
+     * @return the node id
+     */
+    public long toNodeId(long dataCenterId, long workerId) {
+        if (workerId > this.maxWorkerId || workerId < 0L) {
+            throw new IllegalArgumentException(String.format("worker Id can't be greater than %d or less than 0", this.maxWorkerId));
+        }
+        if (dataCenterId > this.maxDataCenterId || dataCenterId < 0L) {
+            throw new IllegalArgumentException(String.format("datacenter Id can't be greater than %d or less than 0", this.maxDataCenterId));
+        }
+        return (dataCenterId << this.workerIdBits) | workerId;
+    }
+
+    /**
+     * decode the unix millis of the id
+     * @param id the snowflake id
+     * @return unix millis
+     */
+    public long getTimestamp(long id) {
+        return (id >>> (this.getNodeIdBits() + this.sequenceBits)) * this.timeUnitMillis + this.epoch;
+    }
+
+    /**
+     * decode the node id (data center id and worker id) of the id
+     * @param id the snowflake id
+     * @return node id
+     */
+    public long getNodeId(long id) {
+        return (id >>> this.sequenceBits) & this.getMaxNodeId();
+    }
+
+    /**
+     * decode the data center id of the id
+     * @param id the snowflake id
+     * @return data center id
+     */
+    public long getDataCenterId(long id) {
+        return (id >>> (this.sequenceBits + this.workerIdBits)) & this.maxDataCenterId;
+    }
+
+    /**
+     * decode the worker id of the id
+     * @param id the snowflake id
+     * @return worker id
+     */
+    public long getWorkerId(long id) {
+        return (id >>> this.sequenceBits) & this.maxWorkerId;
+    }
+
+    /**
+     * decode the sequence of the id
+     * @param id the snowflake id
+     * @return sequence
+     */
+    public long getSequence(long id) {
+        return id & this.sequenceMask;
+    }
+
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    public long getTimeUnitMillis() {
+        return this.timeUnitMillis;
+    }
+
+    public int getDataCenterIdBits() {
+        return this.dataCenterIdBits;
+    }
+
+    public int getWorkerIdBits() {
+        return this.workerIdBits;
+    }
+
+    public int getSequenceBits() {
+        return this.sequenceBits;
+    }
+
+    public int getTimestampBits() {
+        return this.timestampBits;
+    }
+
+    public int getNodeIdBits() {
+        return this.dataCenterIdBits + this.workerIdBits;
+    }
+
+    public long getMaxNodeId() {
+        return ~(-1L << this.getNodeIdBits());
+    }
+
+    public long getSequenceMask() {
+        return this.sequenceMask;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnowflakeLayout(epoch=%d, timeUnitMillis=%d, timestampBits=%d, dataCenterIdBits=%d, workerIdBits=%d, sequenceBits=%d)",
+                this.epoch, this.timeUnitMillis, this.timestampBits, this.dataCenterIdBits, this.workerIdBits, this.sequenceBits);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.snowflake.worker;
+
+/**
+ * IWorkerIdAssigner, leases one unique snowflake node id (data center id and worker id)
+ *
+ * @author Qicz
+ * @since 2021/8/25 10:08
+ */
+public interface IWorkerIdAssigner {
+
+	/**
+	 * lease one unique node id and keep it renewed in background
+	 * @param maxNodeId the max node id (inclusive)
+	 * @return the node id
+	 */
+	long assign(long maxNodeId);
+
+	/**
+	 * the leased node id is still held by this node, no ids are generated while it is not
+	 * @return true if the lease is held
+	 */
+	boolean isLeased();
+
+	/**
+	 * the node id held, a new one is leased when the first one is taken by another node
+	 * @return the node id of the lease
+	 */
+	long getNodeId();
+
+	/**
+	 * release the leased node id
+	 */
+	void close();
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.snowflake.worker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openingo.spring.boot.exception.DidException;
+import org.openingo.spring.boot.extension.data.redis.script.RedisScriptRegistry;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisWorkerIdAssigner, one node id is one key `SET NX PX` with an instance token,
+ * the lease is renewed every third of the ttl.
+ *
+ * the lease is held until one ttl after the start of the last successful renew, a lease
+ * not renewed in time fences the ids until a renew takes the same node id again, a lease
+ * taken by another node fences them until a new node id is leased.
+ *
+ * @author Qicz
+ * @since 2021/8/25 10:08
+ */
+@Slf4j
+public class RedisWorkerIdAssigner implements IWorkerIdAssigner {
+
+	private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+			"elseif redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 else return 0 end", Long.class);
+
+	private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+	private final RedisTemplate<String, String> redisTemplate;
+
+	private final RedisScriptRegistry scriptRegistry;
+
+	private final long leaseTtlMillis;
+
+	private final String token = UUID.randomUUID().toString();
+
+	private final ScheduledExecutorService renewer;
+
+	private long maxNodeId;
+
+	private volatile String leasedKey;
+
+	private volatile long nodeId;
+
+	// the nano time the lease expires at, 0 for no lease
+	private volatile long leasedUntilNanos;
+
+	public RedisWorkerIdAssigner(RedisTemplate<String, String> redisTemplate, Duration leaseTtl) {
+		this.redisTemplate = redisTemplate;
+		this.scriptRegistry = new RedisScriptRegistry(redisTemplate);
+		this.leaseTtlMillis = leaseTtl.toMillis();
+		this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, String.format("%s-snowflake-worker-lease", IDidEngine.GEDID));
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public long assign(long maxNodeId) {
+		this.maxNodeId = maxNodeId;
+		if (!this.lease()) {
+			throw new DidException(String.format("there is no available snowflake node id in [0, %d]", maxNodeId));
+		}
+		long period = Math.max(this.leaseTtlMillis / 3, 1L);
+		this.renewer.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+		return this.nodeId;
+	}
+
+	@Override
+	public long getNodeId() {
+		return this.nodeId;
+	}
+
+	@Override
+	public boolean isLeased() {
+		long leasedUntil = this.leasedUntilNanos;
+		return leasedUntil != 0L && System.nanoTime() - leasedUntil < 0L;
+	}
+
+	@Override
+	public void close() {
+		this.renewer.shutdownNow();
+		this.leasedUntilNanos = 0L;
+		String key = this.leasedKey;
+		if (Objects.isNull(key)) {
+			return;
+		}
+		this.scriptRegistry.execute(RELEASE_SCRIPT, Collections.singletonList(key), this.token);
+		log.info("the snowflake node id lease `{}` is released", key);
+	}
+
+	private void renew() {
+		long renewAt = System.nanoTime();
+		try {
+			Long renewed = this.scriptRegistry.execute(RENEW_SCRIPT, Collections.singletonList(this.leasedKey), this.token, String.valueOf(this.leaseTtlMillis));
+			if (Objects.equals(renewed, 1L)) {
+				if (!this.isLeased()) {
+					log.info("the snowflake node id lease `{}` is taken again", this.leasedKey);
+				}
+				this.leasedUntilNanos = renewAt + TimeUnit.MILLISECONDS.toNanos(this.leaseTtlMillis);
+				return;
+			}
+			this.leasedUntilNanos = 0L;
+			log.error("the snowflake node id lease `{}` is held by another node, leasing a new node id", this.leasedKey);
+			if (!this.lease()) {
+				log.error("there is no available snowflake node id in [0, {}], no ids until one is leased", this.maxNodeId);
+			}
+		} catch (Exception e) {
+			log.error("the snowflake node id lease `{}` renew failure, {}", this.leasedKey, e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * lease one free node id, the startup and the lease taken by another node
+	 * @return false if all the node ids are held
+	 */
+	private boolean lease() {
+		long count = this.maxNodeId + 1;
+		// random start, spread the racing nodes
+		long start = ThreadLocalRandom.current().nextLong(count);
+		for (long i = 0; i < count; i++) {
+			long nodeId = (start + i) % count;
+			String key = this.key(nodeId);
+			long leasedAt = System.nanoTime();
+			Boolean leased = this.redisTemplate.opsForValue().setIfAbsent(key, this.token, this.leaseTtlMillis, TimeUnit.MILLISECONDS);
+			if (Boolean.TRUE.equals(leased)) {
+				this.leasedKey = key;
+				this.nodeId = nodeId;
+				// held once the node id is set
+				this.leasedUntilNanos = leasedAt + TimeUnit.MILLISECONDS.toNanos(this.leaseTtlMillis);
+				log.info("the snowflake node id `{}` is leased with key `{}`", nodeId, key);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String key(long nodeId) {
+		return String.format("%s:snowflake:node:%d", IDidEngine.GEDID, nodeId);
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.snowflake.worker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.openingo.spring.boot.exception.DidException;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ZookeeperWorkerIdAssigner, one node id is one ephemeral node living with the session,
+ * the node is created again once the session is reconnected (the lost session drops it).
+ *
+ * the ids are fenced from the connection SUSPENDED (the session may expire meanwhile)
+ * or LOST until the RECONNECTED node is ours again, or until a new node id is leased
+ * when the node is held by another node.
+ *
+ * @author Qicz
+ * @since 2021/8/25 10:08
+ */
+@Slf4j
+public class ZookeeperWorkerIdAssigner implements IWorkerIdAssigner {
+
+	private final CuratorFramework curator;
+
+	private final byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+	private final ConnectionStateListener listener = this::stateChanged;
+
+	private long maxNodeId;
+
+	private volatile String leasedPath;
+
+	private volatile long nodeId;
+
+	private volatile boolean leased;
+
+	public ZookeeperWorkerIdAssigner(CuratorFramework curator) {
+		this.curator = curator;
+	}
+
+	@Override
+	public long assign(long maxNodeId) {
+		this.maxNodeId = maxNodeId;
+		boolean leased;
+		try {
+			leased = this.lease(this.curator);
+		} catch (Exception e) {
+			log.error(e.getLocalizedMessage());
+			throw new DidException(e.getLocalizedMessage());
+		}
+		if (!leased) {
+			throw new DidException(String.format("there is no available snowflake node id in [0, %d]", maxNodeId));
+		}
+		this.curator.getConnectionStateListenable().addListener(this.listener);
+		return this.nodeId;
+	}
+
+	@Override
+	public long getNodeId() {
+		return this.nodeId;
+	}
+
+	@Override
+	public boolean isLeased() {
+		return this.leased;
+	}
+
+	@Override
+	public void close() {
+		this.leased = false;
+		String path = this.leasedPath;
+		if (Objects.isNull(path)) {
+			return;
+		}
+		this.curator.getConnectionStateListenable().removeListener(this.listener);
+		try {
+			if (Arrays.equals(this.token, this.curator.getData().forPath(path))) {
+				this.curator.delete().forPath(path);
+			}
+			log.info("the snowflake node id lease `{}` is released", path);
+		} catch (Exception e) {
+			log.error("the snowflake node id lease `{}` release failure, {}", path, e.getLocalizedMessage());
+		}
+	}
+
+	private void stateChanged(CuratorFramework client, ConnectionState newState) {
+		String path = this.leasedPath;
+		if (ConnectionState.SUSPENDED.equals(newState) || ConnectionState.LOST.equals(newState)) {
+			this.leased = false;
+			log.warn("the snowflake node id lease `{}` is {}, no ids until reconnected", path, newState);
+			return;
+		}
+		if (!ConnectionState.RECONNECTED.equals(newState)) {
+			return;
+		}
+		try {
+			client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(path, this.token);
+			this.leased = true;
+			log.info("the snowflake node id lease `{}` is recreated", path);
+		} catch (KeeperException.NodeExistsException e) {
+			try {
+				if (Arrays.equals(this.token, client.getData().forPath(path))) {
+					this.leased = true;
+					log.info("the snowflake node id lease `{}` is kept", path);
+				} else {
+					log.error("the snowflake node id lease `{}` is held by another node, leasing a new node id", path);
+					if (!this.lease(client)) {
+						log.error("there is no available snowflake node id in [0, {}], no ids until reconnected", this.maxNodeId);
+					}
+				}
+			} catch (Exception ex) {
+				log.error(ex.getLocalizedMessage());
+			}
+		} catch (Exception e) {
+			log.error("the snowflake node id lease `{}` recreate failure, {}", path, e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * lease one free node id, the startup and the node held by another node
+	 * @return false if all the node ids are held
+	 */
+	private boolean lease(CuratorFramework client) throws Exception {
+		long count = this.maxNodeId + 1;
+		// random start, spread the racing nodes
+		long start = ThreadLocalRandom.current().nextLong(count);
+		for (long i = 0; i < count; i++) {
+			long nodeId = (start + i) % count;
+			String path = this.path(nodeId);
+			try {
+				client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(path, this.token);
+			} catch (KeeperException.NodeExistsException e) {
+				continue;
+			}
+			this.leasedPath = path;
+			this.nodeId = nodeId;
+			// held once the node id is set
+			this.leased = true;
+			log.info("the snowflake node id `{}` is leased with path `{}`", nodeId, path);
+			return true;
+		}
+		return false;
+	}
+
+	private String path(long nodeId) {
+		return String.format("/%s-snowflake-nodes/%d", IDidEngine.GEDID, nodeId);
+	}
+}
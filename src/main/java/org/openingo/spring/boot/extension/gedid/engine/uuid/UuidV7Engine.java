@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.uuid;
+
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+
+import java.util.UUID;
+
+/**
+ * UuidV7Engine, time-ordered uuids keep the B-tree inserts append-mostly
+ *
+ * @author Qicz
+ * @since 2021/8/30 10:45
+ */
+public class UuidV7Engine implements IDidEngine<String> {
+
+	private final UuidV7 uuidV7 = new UuidV7();
+
+	@Override
+	public void follow(String businessName, String startId) {
+
+	}
+
+	@Override
+	public String getFixedStartId(String startId) {
+		return "";
+	}
+
+	@Override
+	public String next(String businessName) {
+		return this.uuidV7.next().toString();
+	}
+
+	/**
+	 * the next uuid, two longs
+	 * @param businessName the business name
+	 * @return time-ordered uuid
+	 */
+	public UUID nextUuid(String businessName) {
+		return this.uuidV7.next();
+	}
+
+	/**
+	 * the next uuid in 16 bytes, for BINARY(16) keys
+	 * @param businessName the business name
+	 * @return time-ordered uuid bytes
+	 */
+	public byte[] nextBytes(String businessName) {
+		return this.uuidV7.nextBytes();
+	}
+
+	@Override
+	public String engineName() {
+		return "uuid7";
+	}
+}
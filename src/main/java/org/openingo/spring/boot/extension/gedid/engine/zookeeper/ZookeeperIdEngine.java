@@ -29,12 +29,18 @@ package org.openingo.spring.boot.extension.gedid.engine.zookeeper;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
+import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.data.Stat;
 import org.openingo.spring.boot.exception.DidException;
 import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ZookeeperIdEngine
@@ -45,6 +51,8 @@ import java.util.Objects;
 @Slf4j
 public class ZookeeperIdEngine implements IDidEngine<Long> {
 
+	private static final int MAX_TRANSACTION_OPS = 1000;
+
 	private final CuratorFramework curator;
 	private Long startId;
 	private final ZookeeperIdEngineMode zookeeperIdEngineMode;
@@ -92,13 +100,7 @@ public class ZookeeperIdEngine implements IDidEngine<Long> {
 		long id = -1L;
 		try {
 			Stat stat = this.curator.setData().forPath(path, ("").getBytes(StandardCharsets.UTF_8));
-			// default using version value
-			id = stat.getVersion();
-			// DATA_ZX_MID mode using (Mzxid - Czxid)
-			if (ZookeeperIdEngineMode.DATA_ZX_MID.equals(this.zookeeperIdEngineMode)) {
-				id =  stat.getMzxid() - stat.getCzxid();
-			}
-			id += this.startId;
+			id = this.toId(stat);
 		} catch (Exception e) {
 			e.printStackTrace();
 			log.error(e.getLocalizedMessage());
@@ -107,11 +109,76 @@ public class ZookeeperIdEngine implements IDidEngine<Long> {
 		return id;
 	}
 
+	@Override
+	public CompletableFuture<Long> nextAsync(String businessName) {
+		String path = this.getPath(businessName);
+		CompletableFuture<Long> future = new CompletableFuture<>();
+		try {
+			this.curator.setData().inBackground((client, event) -> {
+				KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+				if (!KeeperException.Code.OK.equals(code)) {
+					KeeperException exception = KeeperException.create(code, event.getPath());
+					log.error(exception.getLocalizedMessage());
+					future.completeExceptionally(new DidException(exception.getLocalizedMessage()));
+					return;
+				}
+				future.complete(this.toId(event.getStat()));
+			}).forPath(path, ("").getBytes(StandardCharsets.UTF_8));
+		} catch (Exception e) {
+			log.error(e.getLocalizedMessage());
+			future.completeExceptionally(new DidException(e.getLocalizedMessage()));
+		}
+		return future;
+	}
+
+	@Override
+	public long[] nextBatch(String businessName, int n) {
+		// all the operations of one transaction share the same zxid
+		if (n <= 0 || ZookeeperIdEngineMode.DATA_ZX_MID.equals(this.zookeeperIdEngineMode)) {
+			return IDidEngine.super.nextBatch(businessName, n);
+		}
+		String path = this.getPath(businessName);
+		byte[] data = ("").getBytes(StandardCharsets.UTF_8);
+		long[] ids = new long[n];
+		try {
+			// one transaction for every MAX_TRANSACTION_OPS ids, keeps the request under the jute max buffer
+			for (int from = 0; from < n; from += MAX_TRANSACTION_OPS) {
+				int size = Math.min(MAX_TRANSACTION_OPS, n - from);
+				List<CuratorOp> operations = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					operations.add(this.curator.transactionOp().setData().forPath(path, data));
+				}
+				List<CuratorTransactionResult> results = this.curator.transaction().forOperations(operations);
+				for (int i = 0; i < size; i++) {
+					ids[from + i] = results.get(i).getResultStat().getVersion() + this.startId;
+				}
+			}
+		} catch (Exception e) {
+			log.error("the batch of the business `{}` failed", businessName, e);
+			throw new DidException(e.getLocalizedMessage());
+		}
+		return ids;
+	}
+
 	@Override
 	public String engineName() {
 		return "zookeeper";
 	}
 
+	public CuratorFramework getCurator() {
+		return this.curator;
+	}
+
+	private long toId(Stat stat) {
+		// default using version value
+		long id = stat.getVersion();
+		// DATA_ZX_MID mode using (Mzxid - Czxid)
+		if (ZookeeperIdEngineMode.DATA_ZX_MID.equals(this.zookeeperIdEngineMode)) {
+			id =  stat.getMzxid() - stat.getCzxid();
+		}
+		return id + this.startId;
+	}
+
 	private String getPath(String name) {
 		return this.getEmbellishedName(name);
 	}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.engine.zookeeper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+import org.openingo.spring.boot.extension.gedid.engine.segment.AbstractSegmentIdEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * ZookeeperSegmentIdEngine, the node data keeps the last reserved id,
+ * one segment is reserved by one versioned `setData` (compare-and-set).
+ * a business followed by the zookeeper engine before is seeded after its issued ids.
+ *
+ * @author Qicz
+ * @since 2021/8/21 14:36
+ */
+@Slf4j
+public class ZookeeperSegmentIdEngine extends AbstractSegmentIdEngine {
+
+	private final CuratorFramework curator;
+
+	private final ZookeeperIdEngine zookeeperIdEngine;
+
+	public ZookeeperSegmentIdEngine(ZookeeperIdEngine zookeeperIdEngine, int step, int maxStep, double prefetchRatio, Duration segmentDuration) {
+		super(step, maxStep, prefetchRatio, segmentDuration);
+		this.curator = zookeeperIdEngine.getCurator();
+		this.zookeeperIdEngine = zookeeperIdEngine;
+	}
+
+	@Override
+	protected void initialize(String businessName, Long startId) throws Exception {
+		String path = this.getEmbellishedName(businessName);
+		if (null != this.curator.checkExists().forPath(path)) {
+			return;
+		}
+		try {
+			this.curator.create().forPath(path, this.toBytes(this.seed(businessName, startId)));
+		} catch (KeeperException.NodeExistsException e) {
+			log.info("the business `{}` is initialized by others", businessName);
+		}
+	}
+
+	/**
+	 * the first reserved id, after the ids already issued by the zookeeper engine for this business
+	 */
+	private long seed(String businessName, Long startId) throws Exception {
+		Stat base = this.curator.checkExists().forPath(this.zookeeperIdEngine.getEmbellishedName(businessName));
+		if (null == base) {
+			return startId - 1L;
+		}
+		log.info("the business `{}` segment is seeded from the zookeeper engine node", businessName);
+		// the last id of either zookeeper engine mode (version or mzxid - czxid)
+		long issued = Math.max(base.getVersion(), base.getMzxid() - base.getCzxid()) + startId;
+		return Math.max(startId - 1L, issued);
+	}
+
+	@Override
+	protected long reserve(String businessName, int step) throws Exception {
+		String path = this.getEmbellishedName(businessName);
+		while (true) {
+			Stat stat = new Stat();
+			byte[] data = this.curator.getData().storingStatIn(stat).forPath(path);
+			long max = Long.parseLong(new String(data, StandardCharsets.UTF_8)) + step;
+			try {
+				this.curator.setData().withVersion(stat.getVersion()).forPath(path, this.toBytes(max));
+				return max;
+			} catch (KeeperException.BadVersionException e) {
+				log.debug("the business `{}` segment is reserved by others, retrying", businessName);
+			}
+		}
+	}
+
+	@Override
+	public String getEmbellishedName(String businessName) {
+		return String.format("/%s-segment-%s", GEDID, businessName);
+	}
+
+	@Override
+	public String engineName() {
+		return "zookeeper-segment";
+	}
+
+	private byte[] toBytes(long id) {
+		return String.valueOf(id).getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.loader;
+
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DidHandle, one business bound to its engine at follow time
+ *
+ * @author Qicz
+ * @since 2021/8/27 15:32
+ */
+public final class DidHandle<T> {
+
+	private final String businessName;
+
+	private final IDidEngine<T> engine;
+
+	DidHandle(String businessName, IDidEngine<T> engine) {
+		this.businessName = businessName;
+		this.engine = engine;
+	}
+
+	/**
+	 * the next id
+	 * @return next id
+	 */
+	public T next() {
+		return this.engine.next(this.businessName);
+	}
+
+	/**
+	 * the next id without blocking the caller
+	 * @return the future of next id
+	 */
+	public CompletableFuture<T> nextAsync() {
+		return this.engine.nextAsync(this.businessName);
+	}
+
+	/**
+	 * the next id without boxing, only for the numeric ids
+	 * @return next id
+	 */
+	public long nextLongId() {
+		return this.engine.nextLongId(this.businessName);
+	}
+
+	/**
+	 * the next n ids, only for the numeric ids
+	 * @param n the count of ids
+	 * @return next n ids
+	 */
+	public long[] nextBatch(int n) {
+		return this.engine.nextBatch(this.businessName, n);
+	}
+
+	public String getBusinessName() {
+		return this.businessName;
+	}
+
+	public String getEngineName() {
+		return this.engine.engineName();
+	}
+}
@@ -34,9 +34,10 @@ import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * DidLoader
@@ -50,15 +51,12 @@ public class DidLoader {
 
 	private final Safety safety = new Safety();
 
-	private final Map<String, IDidEngine> engineMapping = new HashMap<>();
+	private final Map<String, IDidEngine> engineMapping = new ConcurrentHashMap<>();
 
-	private final Map<String, IDidEngine> businessEngineMapping = new HashMap<>();
+	private final Map<String, DidHandle> businessHandleMapping = new ConcurrentHashMap<>();
 
 	protected void addEngine(IDidEngine<?> engine) {
-		String engineName = engine.engineName();
-		if (!this.engineMapping.containsKey(engineName)) {
-			this.engineMapping.put(engineName, engine);
-		}
+		this.engineMapping.putIfAbsent(engine.engineName(), engine);
 	}
 
 	/**
@@ -120,18 +118,44 @@ public class DidLoader {
 			return;
 		}
 		IDidEngine engine = this.engineMapping.get(engineName);
-		// check the business is followed or not
-		if (this.businessEngineMapping.containsKey(businessName)) {
-			String message = String.format("the engine `%s` is following this business `%s`", this.businessEngineMapping.get(businessName).engineName(), businessName);
+		// mapping business and engine, check the business is followed or not
+		DidHandle handle = new DidHandle(businessName, engine);
+		DidHandle followed = this.businessHandleMapping.putIfAbsent(businessName, handle);
+		if (Objects.nonNull(followed)) {
+			String message = String.format("the engine `%s` is following this business `%s`", followed.getEngineName(), businessName);
 			throw new DidException(message);
 		}
-		// mapping business and engine
-		this.businessEngineMapping.put(businessName, engine);
-		T fixedStartId = (T)engine.getFixedStartId(startId);
-		this.safety.safetyRun(() -> engine.follow(businessName, fixedStartId));
+		T fixedStartId;
+		try {
+			fixedStartId = (T)engine.getFixedStartId(startId);
+			this.safety.safetyRun(() -> engine.follow(businessName, fixedStartId));
+		} catch (RuntimeException e) {
+			// the business is not followed, the handle must not serve it
+			this.businessHandleMapping.remove(businessName, handle);
+			throw e;
+		}
+		// the engine bound to the business, eg: its meters
+		this.businessHandleMapping.replace(businessName, handle, new DidHandle(businessName, engine.forBusiness(businessName)));
 		log.info("`{}` engine following the business `{}` and startId is `{}`", engineName, businessName, fixedStartId);
 	}
 
+	/**
+	 * the handle of the business, bound to its engine at follow time,
+	 * keep it for the hot path: no lookup, no cast and no logging per id.
+	 *
+	 * @param businessName the business name
+	 * @param <T> the id type
+	 * @return the business handle
+	 */
+	public <T> DidHandle<T> handle(String businessName) {
+		DidHandle<T> handle = this.businessHandleMapping.get(businessName);
+		if (Objects.isNull(handle)) {
+			String message = String.format("the engine for business `%s` is not exist.", businessName);
+			throw new DidException(message);
+		}
+		return handle;
+	}
+
 	/**
 	 * convert next to Long
 	 * @param businessName the business name
@@ -157,14 +181,30 @@ public class DidLoader {
 	 * @return the next id
 	 */
 	public <T> T next(String businessName) {
-		IDidEngine engine = this.businessEngineMapping.get(businessName);
-		if (Objects.isNull(engine)) {
-			String message = String.format("the engine for business `%s` is not exist.", businessName);
-			throw new DidException(message);
+		return (T)this.handle(businessName).next();
+	}
+
+	/**
+	 * fetch the next id for business name without blocking the caller
+	 * @param businessName the business name
+	 * @param <T>
+	 * @return the future of next id
+	 */
+	public <T> CompletableFuture<T> nextAsync(String businessName) {
+		return (CompletableFuture<T>)this.handle(businessName).nextAsync();
+	}
+
+	/**
+	 * fetch the next n ids for business name, only for the numeric ids
+	 * @param businessName the business name
+	 * @param n the count of ids
+	 * @return the next n ids
+	 */
+	public long[] nextBatch(String businessName, int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException(String.format("the batch size `%d` can't be less than 0", n));
 		}
-		T nextId = this.safety.safetyCall(() -> (T)engine.next(businessName));
-		log.info("`{}` engine following the business `{}` and the nextId is `{}`", engine.engineName(), businessName, nextId);
-		return nextId;
+		return this.handle(businessName).nextBatch(n);
 	}
 
 	private URI getUri(String uriString) {
@@ -32,6 +32,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -52,7 +53,14 @@ public class DidLoaderConfiguration implements ApplicationContextAware {
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		Map<String, IDidEngine> engineMapping = applicationContext.getBeansOfType(IDidEngine.class);
-		engineMapping.values().forEach(this.didLoader::addEngine);
+		Collection<DidEngineDecorator> decorators = applicationContext.getBeansOfType(DidEngineDecorator.class).values();
+		engineMapping.values().forEach(engine -> {
+			IDidEngine decorated = engine;
+			for (DidEngineDecorator decorator : decorators) {
+				decorated = decorator.decorate(decorated);
+			}
+			this.didLoader.addEngine(decorated);
+		});
 		Map<String, DidLoaderConfigurer> configurerMapping = applicationContext.getBeansOfType(DidLoaderConfigurer.class);
 		configurerMapping.values().forEach(configurer -> configurer.configureDidLoader(this.didLoader));
 	}
@@ -0,0 +1,346 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 OpeningO Co.,Ltd.
+ *
+ *    https://openingo.org
+ *    contactus(at)openingo.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.openingo.spring.boot.extension.gedid.metrics;
+
+import io.micrometer.core.instrument.*;
+import org.openingo.spring.boot.extension.gedid.engine.IDidEngine;
+import org.openingo.spring.boot.extension.gedid.engine.failover.FailoverIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.failover.FailoverMember;
+import org.openingo.spring.boot.extension.gedid.engine.segment.AbstractSegmentIdEngine;
+import org.openingo.spring.boot.extension.gedid.engine.snowflake.SnowflakeIdEngine;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MeteredDidEngine, times every id of the engine by business.
+ *
+ * gedid.next: the timer of next ids, the count rate is the ids/sec
+ * gedid.batch: the timer of the batches, gedid.batch.ids counts their ids
+ * gedid.errors: the failed calls
+ *
+ * and the engine counters: the segment refill waits, the snowflake clock rollbacks
+ * and sequence waits, the failover served ids of every member engine.
+ *
+ * the meters of one business are bound at follow time to the engine of its
+ * {@link org.openingo.spring.boot.extension.gedid.loader.DidHandle} ({@link #forBusiness(String)}),
+ * the hot path only records one timer. the engines used without follow (snowflake, uuid)
+ * find the meters of the business in a map.
+ *
+ * @author Qicz
+ * @since 2021/9/2 10:30
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class MeteredDidEngine<T> implements IDidEngine<T> {
+
+	private static final String ENGINE_TAG = "engine";
+
+	private static final String BUSINESS_TAG = "business";
+
+	private final IDidEngine<T> engine;
+
+	private final MeterRegistry meterRegistry;
+
+	private final double[] percentiles;
+
+	private final boolean percentileHistogram;
+
+	private final Map<String, BusinessMeters> businessMeters = new ConcurrentHashMap<>();
+
+	/**
+	 * @param engine the engine
+	 * @param meterRegistry the meter registry
+	 * @param percentiles the client side percentiles of the timers, eg: 0.5, 0.99, 0.999
+	 * @param percentileHistogram publish the histogram buckets for the server side percentiles
+	 */
+	public MeteredDidEngine(IDidEngine<T> engine, MeterRegistry meterRegistry, double[] percentiles, boolean percentileHistogram) {
+		this.engine = engine;
+		this.meterRegistry = meterRegistry;
+		this.percentiles = percentiles;
+		this.percentileHistogram = percentileHistogram;
+		this.bindEngineMeters();
+	}
+
+	@Override
+	public void follow(String businessName, T startId) {
+		this.engine.follow(businessName, startId);
+		this.businessMeters.computeIfAbsent(businessName, BusinessMeters::new);
+	}
+
+	@Override
+	public String getEmbellishedName(String businessName) {
+		return this.engine.getEmbellishedName(businessName);
+	}
+
+	@Override
+	public T getFixedStartId(T startId) {
+		return this.engine.getFixedStartId(startId);
+	}
+
+	@Override
+	public IDidEngine<T> forBusiness(String businessName) {
+		return new BusinessEngine(businessName, this.meters(businessName));
+	}
+
+	@Override
+	public T next(String businessName) {
+		return this.next(businessName, this.meters(businessName));
+	}
+
+	private T next(String businessName, BusinessMeters meters) {
+		long start = System.nanoTime();
+		try {
+			T id = this.engine.next(businessName);
+			meters.next.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return id;
+		} catch (RuntimeException e) {
+			meters.errors.increment();
+			throw e;
+		}
+	}
+
+	@Override
+	public long nextLongId(String businessName) {
+		return this.nextLongId(businessName, this.meters(businessName));
+	}
+
+	private long nextLongId(String businessName, BusinessMeters meters) {
+		long start = System.nanoTime();
+		try {
+			long id = this.engine.nextLongId(businessName);
+			meters.next.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return id;
+		} catch (RuntimeException e) {
+			meters.errors.increment();
+			throw e;
+		}
+	}
+
+	@Override
+	public CompletableFuture<T> nextAsync(String businessName) {
+		return this.nextAsync(businessName, this.meters(businessName));
+	}
+
+	private CompletableFuture<T> nextAsync(String businessName, BusinessMeters meters) {
+		long start = System.nanoTime();
+		return this.engine.nextAsync(businessName).whenComplete((id, e) -> {
+			if (Objects.isNull(e)) {
+				meters.next.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			} else {
+				meters.errors.increment();
+			}
+		});
+	}
+
+	@Override
+	public long[] nextBatch(String businessName, int n) {
+		return this.nextBatch(businessName, n, this.meters(businessName));
+	}
+
+	private long[] nextBatch(String businessName, int n, BusinessMeters meters) {
+		long start = System.nanoTime();
+		try {
+			long[] ids = this.engine.nextBatch(businessName, n);
+			meters.batch.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			meters.batchIds.increment(ids.length);
+			return ids;
+		} catch (RuntimeException e) {
+			meters.errors.increment();
+			throw e;
+		}
+	}
+
+	@Override
+	public String engineName() {
+		return this.engine.engineName();
+	}
+
+	/**
+	 * the decorated engine
+	 * @return the engine
+	 */
+	public IDidEngine<T> getEngine() {
+		return this.engine;
+	}
+
+	private BusinessMeters meters(String businessName) {
+		BusinessMeters meters = this.businessMeters.get(businessName);
+		if (Objects.isNull(meters)) {
+			// the engine used without follow, eg: snowflake, uuid
+			meters = this.businessMeters.computeIfAbsent(businessName, BusinessMeters::new);
+		}
+		return meters;
+	}
+
+	private Timer timer(String name, String description, String businessName) {
+		return Timer.builder(name)
+				.description(description)
+				.tag(ENGINE_TAG, this.engineName())
+				.tag(BUSINESS_TAG, businessName)
+				.publishPercentiles(this.percentiles)
+				.publishPercentileHistogram(this.percentileHistogram)
+				.register(this.meterRegistry);
+	}
+
+	private void bindEngineMeters() {
+		String engineName = this.engineName();
+		if (this.engine instanceof AbstractSegmentIdEngine) {
+			FunctionTimer.builder("gedid.segment.refill.waits", (AbstractSegmentIdEngine) this.engine,
+					AbstractSegmentIdEngine::getRefillWaits, AbstractSegmentIdEngine::getRefillWaitNanos, TimeUnit.NANOSECONDS)
+					.description("the segment switches waiting for the remote call")
+					.tag(ENGINE_TAG, engineName)
+					.register(this.meterRegistry);
+		}
+		if (this.engine instanceof SnowflakeIdEngine) {
+			// the generator is replaced when a new node id is leased
+			SnowflakeIdEngine snowflake = (SnowflakeIdEngine) this.engine;
+			FunctionCounter.builder("gedid.snowflake.clock.rollbacks", snowflake, e -> e.getSnowflake().getRollbackAbsorbed())
+					.description("the ids generated while the clock moved backwards")
+					.tag(ENGINE_TAG, engineName)
+					.tag("outcome", "absorbed")
+					.register(this.meterRegistry);
+			FunctionCounter.builder("gedid.snowflake.clock.rollbacks", snowflake, e -> e.getSnowflake().getRollbackRefused())
+					.description("the ids refused for the clock moved backwards too far")
+					.tag(ENGINE_TAG, engineName)
+					.tag("outcome", "refused")
+					.register(this.meterRegistry);
+			FunctionTimer.builder("gedid.snowflake.sequence.waits", snowflake,
+					e -> e.getSnowflake().getWaits(), e -> e.getSnowflake().getWaitNanos(), TimeUnit.NANOSECONDS)
+					.description("the waits for the next time unit when the sequence is exhausted")
+					.tag(ENGINE_TAG, engineName)
+					.register(this.meterRegistry);
+		}
+		if (this.engine instanceof FailoverIdEngine) {
+			for (FailoverMember member : ((FailoverIdEngine) this.engine).getMembers()) {
+				Tags tags = Tags.of(ENGINE_TAG, engineName, "member", member.getEngineName());
+				FunctionCounter.builder("gedid.failover.served", member, FailoverMember::getServed)
+						.description("the ids served by the member engine").tags(tags).register(this.meterRegistry);
+				FunctionCounter.builder("gedid.failover.failures", member, FailoverMember::getFailures)
+						.description("the failed calls of the member engine").tags(tags).register(this.meterRegistry);
+				FunctionCounter.builder("gedid.failover.slow.calls", member, FailoverMember::getSlowCalls)
+						.description("the slow calls of the member engine").tags(tags).register(this.meterRegistry);
+				FunctionCounter.builder("gedid.failover.rejected", member, FailoverMember::getRejected)
+						.description("the calls skipped by the open circuit").tags(tags).register(this.meterRegistry);
+				Gauge.builder("gedid.failover.circuit.open", member, m -> m.isOpen() ? 1D : 0D)
+						.description("1 when the circuit of the member engine is open").tags(tags).register(this.meterRegistry);
+			}
+		}
+	}
+
+	/**
+	 * the meters of one business
+	 */
+	private final class BusinessMeters {
+
+		private final Timer next;
+
+		private final Timer batch;
+
+		private final Counter batchIds;
+
+		private final Counter errors;
+
+		BusinessMeters(String businessName) {
+			this.next = MeteredDidEngine.this.timer("gedid.next", "the next id", businessName);
+			this.batch = MeteredDidEngine.this.timer("gedid.batch", "the next batch of ids", businessName);
+			this.batchIds = Counter.builder("gedid.batch.ids")
+					.description("the ids of the batches")
+					.tag(ENGINE_TAG, MeteredDidEngine.this.engineName())
+					.tag(BUSINESS_TAG, businessName)
+					.register(MeteredDidEngine.this.meterRegistry);
+			this.errors = Counter.builder("gedid.errors")
+					.description("the failed calls")
+					.tag(ENGINE_TAG, MeteredDidEngine.this.engineName())
+					.tag(BUSINESS_TAG, businessName)
+					.register(MeteredDidEngine.this.meterRegistry);
+		}
+	}
+
+	/**
+	 * the metered engine of one followed business, its meters bound
+	 */
+	private final class BusinessEngine implements IDidEngine<T> {
+
+		private final String businessName;
+
+		private final BusinessMeters meters;
+
+		BusinessEngine(String businessName, BusinessMeters meters) {
+			this.businessName = businessName;
+			this.meters = meters;
+		}
+
+		@Override
+		public void follow(String businessName, T startId) {
+			MeteredDidEngine.this.follow(businessName, startId);
+		}
+
+		@Override
+		public String getEmbellishedName(String businessName) {
+			return MeteredDidEngine.this.getEmbellishedName(businessName);
+		}
+
+		@Override
+		public T getFixedStartId(T startId) {
+			return MeteredDidEngine.this.getFixedStartId(startId);
+		}
+
+		@Override
+		public T next(String businessName) {
+			return MeteredDidEngine.this.next(businessName, this.meters(businessName));
+		}
+
+		@Override
+		public long nextLongId(String businessName) {
+			return MeteredDidEngine.this.nextLongId(businessName, this.meters(businessName));
+		}
+
+		@Override
+		public CompletableFuture<T> nextAsync(String businessName) {
+			return MeteredDidEngine.this.nextAsync(businessName, this.meters(businessName));
+		}
+
+		@Override
+		public long[] nextBatch(String businessName, int n) {
+			return MeteredDidEngine.this.nextBatch(businessName, n, this.meters(businessName));
+		}
+
+		@Override
+		public String engineName() {
+			return MeteredDidEngine.this.engineName();
+		}
+
+		private BusinessMeters meters(String businessName) {
+			// the handle always asks for its own business
+			return this.businessName.equals(businessName) ? this.meters : MeteredDidEngine.this.meters(businessName);
+		}
+	}
+}